@@ -0,0 +1,97 @@
+package com.get.together.backend.config;
+
+import com.get.together.backend.data.routing.ReadYourWrites;
+import com.get.together.backend.data.routing.Workload;
+import com.get.together.backend.data.routing.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Builds the {@link WorkloadRoutingDataSource} in place of the single {@code spring.datasource}
+ * pool. Every pool takes the {@code spring.datasource} credentials and {@code spring.datasource.hikari}
+ * settings. With bulkheads enabled, the {@code read}, {@code write} and {@code bulk} pools of the
+ * primary override {@code maximum-pool-size} and {@code connection-timeout} from
+ * {@code get-together.datasource.bulkheads.<pool>}, and the replicas those of {@code read}; otherwise
+ * one {@code primary} pool serves every workload. Pool names tag the pool meters.
+ */
+@Configuration
+public class DataSourceConfig {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica-";
+    private static final String BULKHEADS = "get-together.datasource.bulkheads.";
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 ReadYourWrites readYourWrites,
+                                 @Value("${get-together.datasource.bulkheads.enabled:true}") boolean bulkheads,
+                                 @Value("${get-together.datasource.replica-urls:}") List<String> replicaUrls) {
+        val binder = Binder.get(environment);
+        val primary = new EnumMap<Workload, HikariDataSource>(Workload.class);
+        if (bulkheads) {
+            for (val workload : Workload.values()) {
+                val name = workload.name().toLowerCase(Locale.ROOT);
+                primary.put(workload, pool(name, properties.determineUrl(), name, properties, binder));
+            }
+        } else {
+            val pool = pool(PRIMARY, properties.determineUrl(), null, properties, binder);
+            for (val workload : Workload.values()) {
+                primary.put(workload, pool);
+            }
+        }
+
+        val replicas = new ArrayList<HikariDataSource>();
+        for (val url : replicaUrls) {
+            if (StringUtils.isNotBlank(url)) {
+                replicas.add(pool(REPLICA + (replicas.size() + 1), url.trim(), bulkheads ? "read" : null,
+                        properties, binder));
+            }
+        }
+        return new WorkloadRoutingDataSource(primary, replicas, readYourWrites);
+    }
+
+    /**
+     * The data source itself is no binder once it is behind the slow query proxy.
+     */
+    @Bean
+    public MeterBinder workloadRoutingDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            try {
+                dataSource.unwrap(WorkloadRoutingDataSource.class).bindTo(registry);
+            } catch (final SQLException e) {
+                throw new IllegalStateException("Data source does not route workloads", e);
+            }
+        };
+    }
+
+    private static HikariDataSource pool(String name, String url, String bulkhead, DataSourceProperties properties,
+                                         Binder binder) {
+        val pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        if (Objects.nonNull(bulkhead)) {
+            binder.bind(BULKHEADS + bulkhead + ".maximum-pool-size", Integer.class)
+                    .ifBound(pool::setMaximumPoolSize);
+            binder.bind(BULKHEADS + bulkhead + ".connection-timeout", Duration.class)
+                    .ifBound(timeout -> pool.setConnectionTimeout(timeout.toMillis()));
+        }
+        pool.setPoolName(name);
+        return pool;
+    }
+}
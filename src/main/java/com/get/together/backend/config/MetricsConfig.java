@@ -0,0 +1,19 @@
+package com.get.together.backend.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times the methods of classes annotated with {@code @Timed}. Controllers are timed by the
+ * {@code http.server.requests} meter, tagged with the route template, and repositories by
+ * {@code spring.data.repository.invocations}.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
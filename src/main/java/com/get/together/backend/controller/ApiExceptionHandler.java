@@ -0,0 +1,34 @@
+package com.get.together.backend.controller;
+
+import com.get.together.backend.controller.model.ErrorResponse;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Writes status exceptions as a small {@link ErrorResponse} right away, instead of forwarding them
+ * to the error page. Server errors are logged with their cause; their details never reach the
+ * response.
+ */
+@Slf4j
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handle(ResponseStatusException ex) {
+        val status = ex.getStatus();
+        if (status.is5xxServerError()) {
+            log.error("Request failed: {}", ex.getReason(), ex);
+        }
+        return ResponseEntity.status(status)
+                .headers(ex.getResponseHeaders())
+                .body(ErrorResponse.builder()
+                        .status(status.value())
+                        .error(status.getReasonPhrase())
+                        .message(ex.getReason())
+                        .build());
+    }
+}
@@ -0,0 +1,111 @@
+package com.get.together.backend.controller;
+
+import com.get.together.backend.controller.model.Comment;
+import com.get.together.backend.controller.model.PagedData;
+import com.get.together.backend.data.model.CommentModel;
+import com.get.together.backend.data.model.CommentView;
+import com.get.together.backend.data.service.CommentService;
+import com.get.together.backend.data.util.GenericPagedModel;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Objects;
+
+import static com.get.together.backend.controller.util.Parsers.tryParseInteger;
+
+@Slf4j
+@RestController
+public class CommentController {
+    final CommentService commentService;
+
+    @Autowired
+    public CommentController(CommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    /**
+     * 202 with the comment as accepted; a buffered comment has no id yet and shows up in the feeds
+     * within the flush interval. 503 when the comment buffer stays full.
+     */
+    @RequestMapping(value = "/v1/comment/save", method = RequestMethod.POST)
+    private ResponseEntity<Comment> saveCommentV1(@RequestBody Comment comment) {
+        log.info("Calling: saveCommentV1 >> ".concat(comment.toString()));
+
+        val response = commentService.add(comment.getEventId(), comment.getOwnerId(), comment.getDescription());
+
+        return ResponseEntity.status(Objects.isNull(response.getId()) ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                .body(mapComment(response));
+    }
+
+    /**
+     * Comments of the event newest first; {@code after} takes the {@code nextCursor} of the previous
+     * page.
+     */
+    @RequestMapping(value = "/v2/comment/event/{eventId}", method = RequestMethod.GET)
+    private ResponseEntity<PagedData<Comment>> getEventCommentsV2
+            (@PathVariable String eventId,
+             @RequestParam(defaultValue = "10") int pageSize,
+             @RequestParam(required = false) String after) {
+        log.info("Calling: getEventCommentsV2 >> eventId: ".concat(eventId));
+
+        val response = commentService.findByEvent(tryParseInteger(eventId, "eventId"), pageSize, after);
+
+        return ResponseEntity.ok(mapPagedData(response));
+    }
+
+    /**
+     * Comments of the user newest first, paged like the event comments.
+     */
+    @RequestMapping(value = "/v2/comment/user/{userId}", method = RequestMethod.GET)
+    private ResponseEntity<PagedData<Comment>> getUserCommentsV2
+            (@PathVariable String userId,
+             @RequestParam(defaultValue = "10") int pageSize,
+             @RequestParam(required = false) String after) {
+        log.info("Calling: getUserCommentsV2 >> userId: ".concat(userId));
+
+        val response = commentService.findByUser(tryParseInteger(userId, "userId"), pageSize, after);
+
+        return ResponseEntity.ok(mapPagedData(response));
+    }
+
+    private PagedData<Comment> mapPagedData(GenericPagedModel<CommentView> model) {
+        return PagedData.<Comment>builder()
+                .totalElements(model.getTotalElements())
+                .numberOfElements(model.getNumberOfElements())
+                .hasNext(model.getHasNext())
+                .totalPages(model.getTotalPages())
+                .content(mapComments(model.getContent()))
+                .nextCursor(model.getNextCursor())
+                .build();
+    }
+
+    private Collection<Comment> mapComments(Collection<CommentView> views) {
+        return new ArrayList<>(views.stream().map(this::mapComment).toList());
+    }
+
+    private Comment mapComment(CommentView view) {
+        return Comment.builder()
+                .id(view.getId())
+                .description(view.getDescription())
+                .created(view.getCreated())
+                .ownerId(view.getOwnerId())
+                .eventId(view.getEventId())
+                .build();
+    }
+
+    private Comment mapComment(CommentModel model) {
+        return Comment.builder()
+                .id(model.getId())
+                .description(model.getDescription())
+                .created(model.getCreated())
+                .ownerId(model.getOwner().getId())
+                .eventId(model.getRelatedEvent().getId())
+                .build();
+    }
+}
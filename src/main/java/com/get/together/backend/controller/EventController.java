@@ -1,20 +1,31 @@
 package com.get.together.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.get.together.backend.controller.model.BatchItem;
 import com.get.together.backend.controller.model.Event;
 import com.get.together.backend.controller.model.PagedData;
+import com.get.together.backend.data.bulk.BulkFormat;
+import com.get.together.backend.data.bulk.EventImporter;
+import com.get.together.backend.data.bulk.ExportWriter;
 import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.ImportReport;
 import com.get.together.backend.data.service.EventService;
 import com.get.together.backend.data.service.UserService;
 import com.get.together.backend.data.util.GenericPagedModel;
 import com.get.together.backend.util.CryptographyUtil;
-import com.get.together.backend.util.SortDirection;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
 
@@ -23,26 +34,56 @@ import static com.get.together.backend.controller.util.Parsers.*;
 @Slf4j
 @RestController
 public class EventController {
+    private static final List<ExportWriter.Column<EventView>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("id", EventView::getId),
+            new ExportWriter.Column<>("header", EventView::getHeader),
+            new ExportWriter.Column<>("description", EventView::getDescription),
+            new ExportWriter.Column<>("capacity", EventView::getCapacity),
+            new ExportWriter.Column<>("attending", EventView::getAttending),
+            new ExportWriter.Column<>("created", EventView::getCreated),
+            new ExportWriter.Column<>("isActive", EventView::getIsActive),
+            new ExportWriter.Column<>("hostId", EventView::getHostId));
+
     final EventService eventService;
     final UserService userService;
+    final EventImporter eventImporter;
     final CryptographyUtil cryptographyUtil;
+    final ObjectMapper objectMapper;
 
     @Autowired
-    public EventController(EventService eventService, UserService userService, CryptographyUtil cryptographyUtil) {
+    public EventController(EventService eventService, UserService userService, EventImporter eventImporter,
+                           CryptographyUtil cryptographyUtil, ObjectMapper objectMapper) {
         this.eventService = eventService;
         this.userService = userService;
+        this.eventImporter = eventImporter;
         this.cryptographyUtil = cryptographyUtil;
+        this.objectMapper = objectMapper;
     }
 
     @RequestMapping(value = "/v1/event/{id}", method = RequestMethod.GET)
     private ResponseEntity<Event> getEventByIdV1(@PathVariable String id) {
         log.info("Calling: getEventByIdV1 >> ".concat(id));
 
-        val response = eventService.findById(tryParseInteger(id, "id"));
+        val response = eventService.findViewById(tryParseInteger(id, "id"));
 
         return ResponseEntity.ok(mapEvent(response));
     }
 
+    @RequestMapping(value = "/v1/event/batch", method = RequestMethod.GET)
+    private ResponseEntity<List<BatchItem<Event>>> getEventsByIdsV1(@RequestParam List<String> ids) {
+        log.info("Calling: getEventsByIdsV1 >> ".concat(ids.toString()));
+
+        val parsedIds = tryParseIntegers(ids, "ids");
+        val byId = new HashMap<Integer, Event>();
+        eventService.findViewsByIds(parsedIds).stream()
+                .map(this::mapEvent)
+                .forEach(event -> byId.put(event.getId(), event));
+
+        return ResponseEntity.ok(parsedIds.stream()
+                .map(id -> batchItem(id.toString(), byId.get(id)))
+                .toList());
+    }
+
     @RequestMapping(value = "/v1/event/find_all_like_header_and_active_and_created_before_and_after/" +
             "{header}/{active}", method = RequestMethod.GET)
     private ResponseEntity<PagedData<Event>> getEventLikeHeaderAndActiveAndCreatedBeforeAndAfterV1
@@ -53,7 +94,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getEventLikeHeaderAndActiveAndCreatedBeforeAndAfterV1 >> "
                 .concat("header: ").concat(header).concat(" active: ".concat(active))
                 .concat(" createdBefore: ").concat(createdBefore)
@@ -63,7 +106,7 @@ public class EventController {
                 (header, tryParseBoolean(active, "active"),
                         new Date(tryParseLong(createdBefore, "createdBefore")),
                         new Date(tryParseLong(createdAfter, "createdAfter")),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -77,7 +120,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getEventLikeHeaderAndCreatedBeforeAndAfterV1 >> "
                 .concat("header: ").concat(header).concat(" createdBefore: ").concat(createdBefore)
                 .concat(" | ".concat("createdAfter: ".concat(createdAfter))));
@@ -85,7 +130,7 @@ public class EventController {
         val response = eventService.findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
                 (header, new Date(tryParseLong(createdBefore, "createdBefore")),
                         new Date(tryParseLong(createdAfter, "createdAfter")),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -99,7 +144,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getEventLikeHeaderAndCreatedBeforeAndAfterV1 >> "
                 .concat("description: ").concat(description).concat(" createdBefore: ").concat(createdBefore)
                 .concat(" | ".concat("createdAfter: ".concat(createdAfter))));
@@ -107,7 +154,7 @@ public class EventController {
         val response = eventService.findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
                 (description, new Date(tryParseLong(createdBefore, "createdBefore")),
                         new Date(tryParseLong(createdAfter, "createdAfter")),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -121,7 +168,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getEventLikeHeaderAndCreatedBeforeAndAfterV1 >> "
                 .concat("active: ").concat(active).concat(" createdBefore: ").concat(createdBefore)
                 .concat(" | ".concat("createdAfter: ".concat(createdAfter))));
@@ -130,7 +179,7 @@ public class EventController {
                 (tryParseBoolean(active, "active"),
                         new Date(tryParseLong(createdBefore, "createdBefore")),
                         new Date(tryParseLong(createdAfter, "createdAfter")),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -142,7 +191,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: findAllBetweenCreatedBeforeAndCreatedAfterV1 >> "
                 .concat(" createdBefore: ").concat(createdBefore)
                 .concat(" | ".concat("createdAfter: ".concat(createdAfter))));
@@ -150,7 +201,7 @@ public class EventController {
         val response = eventService.findAllByCreatedBeforeAndCreatedAfter
                 (new Date(tryParseLong(createdBefore, "createdBefore")),
                         new Date(tryParseLong(createdAfter, "createdAfter")),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -162,14 +213,16 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: findAllByCapacityBetweenV1 >> "
                 .concat(" min: ").concat(min)
                 .concat(" | ".concat("max: ".concat(max))));
 
         val response = eventService.findAllByCapacityBetween
                 (tryParseInteger(min, "min"), tryParseInteger(max, "max"),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -184,7 +237,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: findAllByCapacityBetweenV1 >> "
                 .concat(" capacityMin: ").concat(capacityMin)
                 .concat(" | ".concat("capacityMax: ".concat(capacityMax))
@@ -196,7 +251,7 @@ public class EventController {
                         tryParseInteger(capacityMax, "capacityMax"),
                         tryParseInteger(attendingMin, "attendingMin"),
                         tryParseInteger(attendingMax, "attendingMax"),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -211,7 +266,9 @@ public class EventController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getEventLikeDescriptionAndActiveAndCreatedBeforeAndAfterV1 >> "
                 .concat("description: ").concat(description).concat(" active: ".concat(active))
                 .concat(" createdBefore: ").concat(createdBefore)
@@ -221,7 +278,62 @@ public class EventController {
                 (description, tryParseBoolean(active, "active"),
                         new Date(tryParseLong(createdBefore, "createdBefore")),
                         new Date(tryParseLong(createdAfter, "createdAfter")),
-                        pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                        parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
+
+        return ResponseEntity.ok(mapPagedData(response));
+    }
+
+    @RequestMapping(value = "/v2/event/search", method = RequestMethod.GET)
+    private ResponseEntity<PagedData<Event>> searchEventsV2
+            (@RequestParam(required = false) String header,
+             @RequestParam(required = false) String description,
+             @RequestParam(required = false) String active,
+             @RequestParam(required = false) String createdBefore,
+             @RequestParam(required = false) String createdAfter,
+             @RequestParam(required = false) String capacityMin,
+             @RequestParam(required = false) String capacityMax,
+             @RequestParam(required = false) String attendingMin,
+             @RequestParam(required = false) String attendingMax,
+             @RequestParam(required = false) String hostId,
+             @RequestParam(defaultValue = "0") int pageNo,
+             @RequestParam(defaultValue = "10") int pageSize,
+             @RequestParam(defaultValue = "id") String sortBy,
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
+        val criteria = EventSearchCriteria.builder()
+                .header(header)
+                .description(description)
+                .isActive(Objects.isNull(active) ? null : tryParseBoolean(active, "active"))
+                .createdBefore(Objects.isNull(createdBefore) ? null
+                        : new Date(tryParseLong(createdBefore, "createdBefore")))
+                .createdAfter(Objects.isNull(createdAfter) ? null
+                        : new Date(tryParseLong(createdAfter, "createdAfter")))
+                .capacityMin(Objects.isNull(capacityMin) ? null : tryParseInteger(capacityMin, "capacityMin"))
+                .capacityMax(Objects.isNull(capacityMax) ? null : tryParseInteger(capacityMax, "capacityMax"))
+                .attendingMin(Objects.isNull(attendingMin) ? null : tryParseInteger(attendingMin, "attendingMin"))
+                .attendingMax(Objects.isNull(attendingMax) ? null : tryParseInteger(attendingMax, "attendingMax"))
+                .hostId(Objects.isNull(hostId) ? null : tryParseInteger(hostId, "hostId"))
+                .build();
+        log.info("Calling: searchEventsV2 >> ".concat(criteria.toString()));
+
+        val response = eventService.search(criteria, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
+
+        return ResponseEntity.ok(mapPagedData(response));
+    }
+
+    /**
+     * Events matching {@code query} best match first; {@code after} takes the {@code nextCursor} of
+     * the previous page.
+     */
+    @RequestMapping(value = "/v2/event/search/text", method = RequestMethod.GET)
+    private ResponseEntity<PagedData<Event>> searchEventsByTextV2
+            (@RequestParam String query,
+             @RequestParam(defaultValue = "10") int pageSize,
+             @RequestParam(required = false) String after) {
+        log.info("Calling: searchEventsByTextV2 >> query: ".concat(query));
+
+        val response = eventService.searchText(query, pageSize, after);
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -245,6 +357,47 @@ public class EventController {
         return ResponseEntity.ok(mapEvent(response));
     }
 
+    /**
+     * Streams an NDJSON body of events, see {@link EventImporter}; failed lines are reported, not fatal.
+     */
+    @RequestMapping(value = "/v1/event/import", method = RequestMethod.POST,
+            consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    private ResponseEntity<ImportReport> importEventsV1(InputStream body) {
+        log.info("Calling: importEventsV1");
+
+        val response = eventImporter.importEvents(body);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Writes every matching event in id order straight to the response as NDJSON or CSV.
+     */
+    @RequestMapping(value = "/v1/event/export", method = RequestMethod.GET)
+    private void exportEventsV1
+            (@RequestParam(defaultValue = "ndjson") String format,
+             @RequestParam(required = false) String active,
+             @RequestParam(required = false) String createdBefore,
+             @RequestParam(required = false) String createdAfter,
+             @RequestParam(required = false) String hostId,
+             HttpServletResponse response) throws IOException {
+        val criteria = EventSearchCriteria.builder()
+                .isActive(Objects.isNull(active) ? null : tryParseBoolean(active, "active"))
+                .createdBefore(Objects.isNull(createdBefore) ? null
+                        : new Date(tryParseLong(createdBefore, "createdBefore")))
+                .createdAfter(Objects.isNull(createdAfter) ? null
+                        : new Date(tryParseLong(createdAfter, "createdAfter")))
+                .hostId(Objects.isNull(hostId) ? null : tryParseInteger(hostId, "hostId"))
+                .build();
+        log.info("Calling: exportEventsV1 >> ".concat(criteria.toString()));
+
+        val exportFormat = BulkFormat.of(format);
+        response.setContentType(exportFormat.getMediaType().toString());
+        try (val writer = new ExportWriter<>(exportFormat, EXPORT_COLUMNS, objectMapper, response.getOutputStream())) {
+            eventService.export(criteria, writer::write);
+        }
+    }
+
     @RequestMapping(value = "/v1/event/delete/{id}", method = RequestMethod.DELETE)
     private ResponseEntity<Event> deleteEventV1(@PathVariable String id) {
         log.info("Calling: deleteEventV1 >> id: ".concat(id));
@@ -254,19 +407,42 @@ public class EventController {
         return ResponseEntity.ok(mapEvent(response));
     }
 
-    private PagedData<Event> mapPagedData(GenericPagedModel<EventModel> model) {
+    private BatchItem<Event> batchItem(String key, Event event) {
+        return BatchItem.<Event>builder()
+                .key(key)
+                .found(Objects.nonNull(event))
+                .value(event)
+                .build();
+    }
+
+    private PagedData<Event> mapPagedData(GenericPagedModel<EventView> model) {
         return PagedData.<Event>builder()
                 .totalElements(model.getTotalElements())
                 .numberOfElements(model.getNumberOfElements())
+                .hasNext(model.getHasNext())
                 .totalPages(model.getTotalPages())
                 .content(mapEvents(model.getContent()))
+                .nextCursor(model.getNextCursor())
                 .build();
     }
 
-    private Collection<Event> mapEvents(Collection<EventModel> models) {
+    private Collection<Event> mapEvents(Collection<EventView> models) {
         return new ArrayList<>(models.stream().map(this::mapEvent).toList());
     }
 
+    private Event mapEvent(EventView view) {
+        return Event.builder()
+                .id(view.getId())
+                .attending(view.getAttending())
+                .hostId(view.getHostId())
+                .capacity(view.getCapacity())
+                .description(view.getDescription())
+                .header(view.getHeader())
+                .isActive(view.getIsActive())
+                .created(view.getCreated())
+                .build();
+    }
+
     private Event mapEvent(EventModel model) {
         return Event.builder()
                 .id(model.getId())
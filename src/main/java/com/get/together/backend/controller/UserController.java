@@ -1,38 +1,76 @@
 package com.get.together.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.get.together.backend.controller.model.BatchItem;
 import com.get.together.backend.controller.model.PagedData;
 import com.get.together.backend.controller.model.User;
+import com.get.together.backend.data.bulk.BulkFormat;
+import com.get.together.backend.data.bulk.ExportWriter;
+import com.get.together.backend.data.bulk.UserImporter;
+import com.get.together.backend.data.index.UserUniquenessIndex;
+import com.get.together.backend.data.model.ImportReport;
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.model.UniquenessIndexReport;
 import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.model.UserSearchCriteria;
+import com.get.together.backend.data.service.EventJoinService;
 import com.get.together.backend.data.service.EventService;
 import com.get.together.backend.data.service.UserService;
 import com.get.together.backend.data.util.GenericPagedModel;
 import com.get.together.backend.util.CryptographyUtil;
-import com.get.together.backend.util.SortDirection;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
 
+import static com.get.together.backend.controller.util.Parsers.parsePageQuery;
 import static com.get.together.backend.controller.util.Parsers.tryParseInteger;
+import static com.get.together.backend.controller.util.Parsers.tryParseIntegers;
 
 @Slf4j
 @RestController
 public class UserController {
+    // passwords are not exported
+    private static final List<ExportWriter.Column<UserModel>> EXPORT_COLUMNS = List.of(
+            new ExportWriter.Column<>("id", UserModel::getId),
+            new ExportWriter.Column<>("userName", UserModel::getUserName),
+            new ExportWriter.Column<>("firstName", UserModel::getFirstName),
+            new ExportWriter.Column<>("lastName", UserModel::getLastName),
+            new ExportWriter.Column<>("phoneNumber", UserModel::getPhoneNumber),
+            new ExportWriter.Column<>("biography", UserModel::getBiography),
+            new ExportWriter.Column<>("mail", UserModel::getMail),
+            new ExportWriter.Column<>("created", UserModel::getCreated));
 
     final UserService userService;
     final EventService eventService;
+    final EventJoinService eventJoinService;
+    final UserImporter userImporter;
+    final UserUniquenessIndex userUniquenessIndex;
     final CryptographyUtil cryptographyUtil;
+    final ObjectMapper objectMapper;
 
     @Autowired
-    public UserController(UserService userService, EventService eventService, CryptographyUtil cryptographyUtil) {
+    public UserController(UserService userService, EventService eventService, EventJoinService eventJoinService,
+                          UserImporter userImporter, UserUniquenessIndex userUniquenessIndex,
+                          CryptographyUtil cryptographyUtil, ObjectMapper objectMapper) {
         this.userService = userService;
         this.eventService = eventService;
+        this.eventJoinService = eventJoinService;
+        this.userImporter = userImporter;
+        this.userUniquenessIndex = userUniquenessIndex;
         this.cryptographyUtil = cryptographyUtil;
+        this.objectMapper = objectMapper;
     }
 
     @RequestMapping(value = "/v1/user/{id}", method = RequestMethod.GET)
@@ -44,17 +82,45 @@ public class UserController {
         return ResponseEntity.ok(mapUser(response));
     }
 
+    /**
+     * Items follow the request: ids first, then userNames.
+     */
+    @RequestMapping(value = "/v1/user/batch", method = RequestMethod.GET)
+    private ResponseEntity<List<BatchItem<User>>> getUsersByIdsV1
+            (@RequestParam(defaultValue = "") List<String> ids,
+             @RequestParam(defaultValue = "") List<String> userNames) {
+        log.info("Calling: getUsersByIdsV1 >> ".concat(ids.toString()).concat(" ").concat(userNames.toString()));
+
+        val parsedIds = tryParseIntegers(ids, "ids");
+        val byId = new HashMap<Integer, User>();
+        // user names compare accent- and case-insensitively in MySQL, so the lookup has to as well
+        val byUserName = new HashMap<String, User>();
+        mapUsers(userService.findAllByIdsOrUserNames(parsedIds, userNames))
+                .forEach(user -> {
+                    byId.put(user.getId(), user);
+                    byUserName.put(UserUniquenessIndex.collationKey(user.getUserName()), user);
+                });
+
+        val response = new ArrayList<BatchItem<User>>();
+        parsedIds.forEach(id -> response.add(batchItem(id.toString(), byId.get(id))));
+        userNames.forEach(userName -> response.add(batchItem(userName,
+                byUserName.get(UserUniquenessIndex.collationKey(userName)))));
+        return ResponseEntity.ok(response);
+    }
+
     @RequestMapping(value = "/v1/user/find_all_like_user_name/{userName}", method = RequestMethod.GET)
     private ResponseEntity<PagedData<User>> getUserLikeUserNameV1
             (@PathVariable String userName,
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: geUserLikeUserNameV1 >> ".concat(userName));
 
         val response = userService.findAllByUserNameContainingIgnoreCase
-                (userName, pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                (userName, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -65,11 +131,13 @@ public class UserController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getUserLikeFirstNameV1 >> ".concat(firstName));
 
         val response = userService.findAllByFirstNameContainingIgnoreCase
-                (firstName, pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                (firstName, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -89,11 +157,13 @@ public class UserController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getUserLikeLastNameV1 >> ".concat(lastName));
 
         val response = userService.findAllByLastNameContainingIgnoreCase
-                (lastName, pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                (lastName, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -105,11 +175,13 @@ public class UserController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getUserLikeFirstAndLastNameV1 >> ".concat(lastName));
 
         val response = userService.findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase
-                (firstName, lastName, pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                (firstName, lastName, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -120,11 +192,13 @@ public class UserController {
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getUserLikeMailV1 >> ".concat(mail));
 
         val response = userService.findAllByMailContainingIgnoreCase
-                (mail, pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                (mail, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -145,22 +219,35 @@ public class UserController {
         log.info("Calling: addUserToEventV1 >> eventId".concat(eventId.toString())
                 .concat(" userId: ").concat(userId.toString()));
 
-        val response = eventService.addAttendee(eventId, userId);
+        val response = eventJoinService.addAttendee(eventId, userId);
 
         return ResponseEntity.ok(mapUsers(response).stream().toList());
     }
 
+    @RequestMapping(value = "/v2/event/join/{eventId}/{userId}", method = RequestMethod.POST)
+    private ResponseEntity<SeatResult> joinEventV2
+            (@PathVariable String eventId,
+             @PathVariable String userId) {
+        log.info("Calling: joinEventV2 >> eventId: ".concat(eventId).concat(" userId: ").concat(userId));
+
+        val response = eventJoinService.join(tryParseInteger(eventId, "eventId"), tryParseInteger(userId, "userId"));
+
+        return ResponseEntity.ok(response);
+    }
+
     @RequestMapping(value = "/v1/user/find_all_like_phone_number/{phoneNumber}", method = RequestMethod.GET)
     private ResponseEntity<PagedData<User>> getUserLikePhoneNumberV1
             (@PathVariable String phoneNumber,
              @RequestParam(defaultValue = "0") int pageNo,
              @RequestParam(defaultValue = "10") int pageSize,
              @RequestParam(defaultValue = "id") String sortBy,
-             @RequestParam(defaultValue = "asc") String sortDir) {
+             @RequestParam(defaultValue = "asc") String sortDir,
+             @RequestParam(required = false) String after,
+             @RequestParam(defaultValue = "true") boolean withTotals) {
         log.info("Calling: getUserLikePhoneNumberV1 >> ".concat(phoneNumber));
 
         val response = userService.findAllByPhoneNumberContaining
-                (phoneNumber, pageNo, pageSize, sortBy, SortDirection.of(sortDir));
+                (phoneNumber, parsePageQuery(pageNo, pageSize, sortBy, sortDir, after, withTotals));
 
         return ResponseEntity.ok(mapPagedData(response));
     }
@@ -182,6 +269,57 @@ public class UserController {
         return ResponseEntity.ok(mapUser(response));
     }
 
+    /**
+     * Streams users as NDJSON or CSV, see {@link UserImporter}; {@code from} skips the lines a
+     * stopped import already covered.
+     */
+    @RequestMapping(value = "/v1/user/import", method = RequestMethod.POST,
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    private ResponseEntity<ImportReport> importUsersV1
+            (InputStream body,
+             @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+             @RequestParam(defaultValue = "0") long from) {
+        log.info("Calling: importUsersV1 >> from: ".concat(String.valueOf(from)));
+
+        val response = userImporter.importUsers(body, BulkFormat.of(MediaType.parseMediaType(contentType)), from);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Rebuilds the user name and mail filters from the table, e.g. after many deletes.
+     */
+    @RequestMapping(value = "/v1/user/uniqueness-index/rebuild", method = RequestMethod.POST)
+    private ResponseEntity<UniquenessIndexReport> rebuildUniquenessIndexV1() {
+        log.info("Calling: rebuildUniquenessIndexV1");
+
+        val response = userUniquenessIndex.rebuild();
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Writes every matching user in id order straight to the response as NDJSON or CSV.
+     */
+    @RequestMapping(value = "/v1/user/export", method = RequestMethod.GET)
+    private void exportUsersV1
+            (@RequestParam(defaultValue = "ndjson") String format,
+             @RequestParam(required = false) String userName,
+             @RequestParam(required = false) String mail,
+             HttpServletResponse response) throws IOException {
+        val criteria = UserSearchCriteria.builder()
+                .userName(userName)
+                .mail(mail)
+                .build();
+        log.info("Calling: exportUsersV1 >> ".concat(criteria.toString()));
+
+        val exportFormat = BulkFormat.of(format);
+        response.setContentType(exportFormat.getMediaType().toString());
+        try (val writer = new ExportWriter<>(exportFormat, EXPORT_COLUMNS, objectMapper, response.getOutputStream())) {
+            userService.export(criteria, writer::write);
+        }
+    }
+
     @RequestMapping(value = "/v1/user/update", method = RequestMethod.POST)
     private ResponseEntity<User> updateUserV1(@RequestBody User user) {
         log.info("Calling: updateUserV1 >> ".concat(user.toString()));
@@ -209,20 +347,61 @@ public class UserController {
         return ResponseEntity.ok(mapUser(response));
     }
 
+    private BatchItem<User> batchItem(String key, User user) {
+        return BatchItem.<User>builder()
+                .key(key)
+                .found(Objects.nonNull(user))
+                .value(user)
+                .build();
+    }
+
     private PagedData<User> mapPagedData(GenericPagedModel<UserModel> model) {
         return PagedData.<User>builder()
                 .totalElements(model.getTotalElements())
                 .numberOfElements(model.getNumberOfElements())
+                .hasNext(model.getHasNext())
                 .totalPages(model.getTotalPages())
                 .content(mapUsers(model.getContent()))
+                .nextCursor(model.getNextCursor())
                 .build();
     }
 
     private Collection<User> mapUsers(Collection<UserModel> models) {
-        return new ArrayList<>(models.stream().map(this::mapUser).toList());
+        val passwords = decryptPasswords(models);
+        val users = new ArrayList<User>(models.size());
+        for (val model : models) {
+            users.add(mapUser(model, passwords.get(users.size())));
+        }
+        return users;
     }
 
     private User mapUser(UserModel model) {
+        return mapUser(model, decryptPasswords(List.of(model)).get(0));
+    }
+
+    /**
+     * Stored passwords that are not encrypted with our key, e.g. of users saved through the service
+     * directly, are returned as null.
+     */
+    private List<String> decryptPasswords(Collection<UserModel> models) {
+        val stored = models.stream().map(UserModel::getPassword).toList();
+        try {
+            return cryptographyUtil.decryptAll(stored);
+        } catch (final ResponseStatusException e) {
+            log.warn("Leaving out passwords that cannot be decrypted");
+            return stored.stream().map(this::decryptOrNull).toList();
+        }
+    }
+
+    private String decryptOrNull(String password) {
+        try {
+            return cryptographyUtil.decrypt(password);
+        } catch (final ResponseStatusException e) {
+            return null;
+        }
+    }
+
+    private User mapUser(UserModel model, String password) {
         return User.builder()
                 .id(model.getId())
                 .userName(model.getUserName())
@@ -232,7 +411,7 @@ public class UserController {
                 .biography(model.getBiography())
                 .mail(model.getMail())
                 .created(model.getCreated())
-                .password(cryptographyUtil.decrypt(model.getPassword()))
+                .password(password)
                 .build();
     }
 }
@@ -0,0 +1,18 @@
+package com.get.together.backend.controller.model;
+
+import lombok.*;
+
+/**
+ * One requested key of a batch lookup; {@code value} is null when nothing matched the key.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItem<T> {
+    String key;
+    Boolean found;
+    T value;
+}
@@ -0,0 +1,19 @@
+package com.get.together.backend.controller.model;
+
+import lombok.*;
+
+import java.util.Date;
+
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Comment {
+    Integer id;
+    String description;
+    Date created;
+    Integer ownerId;
+    Integer eventId;
+}
@@ -0,0 +1,15 @@
+package com.get.together.backend.controller.model;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+    Integer status;
+    String error;
+    String message;
+}
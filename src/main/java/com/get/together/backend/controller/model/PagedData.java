@@ -14,5 +14,7 @@ public class PagedData<T> {
     Long totalElements;
     Integer totalPages;
     Integer numberOfElements;
+    Boolean hasNext;
     Collection<T> content;
+    String nextCursor;
 }
@@ -1,11 +1,14 @@
 package com.get.together.backend.controller.util;
 
+import com.get.together.backend.data.util.PageQuery;
+import com.get.together.backend.exception.NotAcceptableException;
+import com.get.together.backend.util.SortDirection;
 import lombok.val;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.math.NumberUtils;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 public class Parsers {
@@ -13,7 +16,7 @@ public class Parsers {
         val result = BooleanUtils.toBooleanObject(value);
 
         if (Objects.isNull(result)) {
-            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, property.concat(":").concat(value));
+            throw new NotAcceptableException(property.concat(":").concat(value));
         }
 
         return result;
@@ -23,19 +26,35 @@ public class Parsers {
         val result = NumberUtils.toInt(value, -1);
 
         if (result == -1) {
-            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, property.concat(":").concat(value));
+            throw new NotAcceptableException(property.concat(":").concat(value));
         }
 
         return result;
     }
 
+    public static List<Integer> tryParseIntegers(Collection<String> values, String property) {
+        return values.stream().map(value -> tryParseInteger(value, property)).toList();
+    }
+
     public static Long tryParseLong(String value, String property) {
         val result = NumberUtils.toLong(value, -1);
 
         if (result == -1) {
-            throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, property.concat(":").concat(value));
+            throw new NotAcceptableException(property.concat(":").concat(value));
         }
 
         return result;
     }
+
+    public static PageQuery parsePageQuery(int pageNo, int pageSize, String sortBy, String sortDir, String after,
+                                           boolean withTotals) {
+        return PageQuery.builder()
+                .page(pageNo)
+                .size(pageSize)
+                .sortBy(sortBy)
+                .sortDirection(SortDirection.of(sortDir))
+                .after(after)
+                .withTotals(withTotals)
+                .build();
+    }
 }
@@ -0,0 +1,230 @@
+package com.get.together.backend.data.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.index.EventNgramIndex;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.ImportReport;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.routing.Bulkhead;
+import com.get.together.backend.data.routing.Workload;
+import com.get.together.backend.data.validator.EventValidator;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Imports events from NDJSON, one {@code {"hostId", "header", "description", "capacity",
+ * "attending", "isActive"}} object per line.
+ * <p>
+ * Lines are parsed and validated as they are read and collected into chunks. Each chunk is one
+ * transaction: the hosts of the whole chunk are checked with one {@code IN} query and the events
+ * are written with one JDBC batch, since the IDENTITY ids keep Hibernate from batching inserts.
+ * Only one chunk and the first {@code max-errors} line errors are held, so memory does not grow
+ * with the body.
+ */
+@Slf4j
+@Component
+public class EventImporter {
+    private static final String INSERT_EVENT = "insert into get_together.event " +
+            "(header, description, capacity, attending, created, is_active, host_id) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final EventValidator eventValidator;
+    private final EventNgramIndex eventNgramIndex;
+    private final SearchCountCache searchCountCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader lineReader;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public EventImporter(UserRepository userRepository, EventValidator eventValidator, EventNgramIndex eventNgramIndex,
+                         SearchCountCache searchCountCache, JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                         @Value("${get-together.import.chunk-size:1000}") int chunkSize,
+                         @Value("${get-together.import.max-errors:1000}") int maxErrors) {
+        this.userRepository = userRepository;
+        this.eventValidator = eventValidator;
+        this.eventNgramIndex = eventNgramIndex;
+        this.searchCountCache = searchCountCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lineReader = objectMapper.readerFor(EventLine.class);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Bulkhead(Workload.BULK)
+    public ImportReport importEvents(InputStream body) {
+        val progress = new ImportProgress(maxErrors);
+        val chunk = new ArrayList<ParsedEvent>(chunkSize);
+        try (val reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                progress.lines++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                val parsed = parse(progress.lines, line, progress);
+                if (Objects.nonNull(parsed)) {
+                    chunk.add(parsed);
+                }
+                if (chunk.size() == chunkSize) {
+                    flush(chunk, progress);
+                }
+            }
+            flush(chunk, progress);
+            progress.done = progress.lines;
+        } catch (final IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Import body unreadable after line ".concat(String.valueOf(progress.lines)), e);
+        } finally {
+            if (progress.imported > 0) {
+                searchCountCache.invalidate(SearchCountCache.EVENTS);
+            }
+        }
+
+        val report = progress.report(true);
+        log.info("Imported {} of {} event lines, {} failed, {} lines/s",
+                report.getImported(), report.getLines(), report.getFailed(), report.getLinesPerSecond());
+        return report;
+    }
+
+    private ParsedEvent parse(long lineNumber, String line, ImportProgress progress) {
+        final EventLine event;
+        try {
+            event = lineReader.readValue(line);
+        } catch (final JsonProcessingException e) {
+            progress.fail(lineNumber, "Malformed JSON: ".concat(e.getOriginalMessage()));
+            return null;
+        }
+        if (Objects.isNull(event.hostId())) {
+            progress.fail(lineNumber, "hostId must not be null");
+            return null;
+        }
+
+        val model = EventModel.builder()
+                .header(event.header())
+                .description(event.description())
+                .capacity(event.capacity())
+                .attending(Objects.isNull(event.attending()) ? 0 : event.attending())
+                .isActive(Objects.isNull(event.isActive()) || event.isActive())
+                .build();
+        val violations = eventValidator.describe(model);
+        if (Objects.nonNull(violations)) {
+            progress.fail(lineNumber, violations);
+            return null;
+        }
+        return new ParsedEvent(lineNumber, event.hostId(), model);
+    }
+
+    private void flush(List<ParsedEvent> chunk, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            val result = transactionTemplate.execute(status -> insert(chunk));
+            result.inserted().forEach(eventNgramIndex::put);
+            progress.imported += result.inserted().size();
+            result.unknownHosts().forEach(event ->
+                    progress.fail(event.line(), "No user with id: ".concat(event.hostId().toString())));
+        } catch (final DataAccessException e) {
+            log.warn("Import chunk of lines {}-{} failed: {}",
+                    chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e.getMessage());
+            chunk.forEach(event -> progress.fail(event.line(), "Chunk not imported: ".concat(e.getMostSpecificCause().getMessage())));
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Inserts the events of known hosts; the inserted events come back with their ids.
+     */
+    private ChunkResult insert(List<ParsedEvent> chunk) {
+        val hostIds = chunk.stream().map(ParsedEvent::hostId).distinct().toList();
+        val existing = new HashSet<>(userRepository.findExistingIds(hostIds));
+        val created = new Timestamp(Instant.now().toEpochMilli());
+
+        val events = new ArrayList<EventModel>(chunk.size());
+        val hosts = new ArrayList<Integer>(chunk.size());
+        val unknownHosts = new ArrayList<ParsedEvent>();
+        for (val event : chunk) {
+            if (existing.contains(event.hostId())) {
+                events.add(event.model());
+                hosts.add(event.hostId());
+            } else {
+                unknownHosts.add(event);
+            }
+        }
+
+        if (!events.isEmpty()) {
+            val ids = jdbcTemplate.execute((ConnectionCallback<List<Integer>>) connection -> {
+                try (val statement = connection.prepareStatement(INSERT_EVENT, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < events.size(); i++) {
+                        val event = events.get(i);
+                        statement.setString(1, event.getHeader());
+                        statement.setObject(2, event.getDescription(), Types.VARCHAR);
+                        statement.setInt(3, event.getCapacity());
+                        statement.setInt(4, event.getAttending());
+                        statement.setTimestamp(5, created);
+                        statement.setBoolean(6, event.getIsActive());
+                        statement.setInt(7, hosts.get(i));
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    val keys = new ArrayList<Integer>(events.size());
+                    try (val generated = statement.getGeneratedKeys()) {
+                        while (generated.next()) {
+                            keys.add(generated.getInt(1));
+                        }
+                    }
+                    return keys;
+                }
+            });
+            if (ids.size() != events.size()) {
+                // rolls the chunk back rather than index and count events without id
+                throw new IncorrectResultSizeDataAccessException("Generated event ids do not match the inserted rows",
+                        events.size(), ids.size());
+            }
+            for (int i = 0; i < events.size(); i++) {
+                events.get(i).setId(ids.get(i));
+                events.get(i).setCreated(created);
+            }
+        }
+        return new ChunkResult(events, unknownHosts);
+    }
+
+    private record EventLine(Integer hostId, String header, String description, Integer capacity,
+                             Integer attending, Boolean isActive) {
+    }
+
+    private record ParsedEvent(long line, Integer hostId, EventModel model) {
+    }
+
+    private record ChunkResult(List<EventModel> inserted, List<ParsedEvent> unknownHosts) {
+    }
+}
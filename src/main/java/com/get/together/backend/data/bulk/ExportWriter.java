@@ -0,0 +1,99 @@
+package com.get.together.backend.data.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.val;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Writes rows to a stream as they come, one NDJSON object or CSV record per row; only the output
+ * buffer is held. NDJSON values are written the way the API serializes them, CSV dates as ISO-8601
+ * instants.
+ */
+public class ExportWriter<T> implements Closeable {
+    public record Column<T>(String name, Function<T, Object> value) {
+    }
+
+    private final BulkFormat format;
+    private final List<Column<T>> columns;
+    private final JsonGenerator json;
+    private final Writer csv;
+    private long rows;
+
+    public ExportWriter(BulkFormat format, List<Column<T>> columns, ObjectMapper objectMapper, OutputStream output) {
+        this.format = format;
+        this.columns = columns;
+        try {
+            if (format == BulkFormat.NDJSON) {
+                this.json = objectMapper.getFactory().createGenerator(output);
+                this.json.setRootValueSeparator(null);
+                this.csv = null;
+            } else {
+                this.json = null;
+                this.csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                writeCsvRecord(columns.stream().map(Column::name).map(Object.class::cast).toList());
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(T row) {
+        try {
+            if (format == BulkFormat.NDJSON) {
+                json.writeStartObject();
+                for (val column : columns) {
+                    json.writeFieldName(column.name());
+                    json.writeObject(column.value().apply(row));
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } else {
+                writeCsvRecord(columns.stream().map(column -> column.value().apply(row)).toList());
+            }
+            rows++;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(json)) {
+            json.close();
+        } else {
+            csv.close();
+        }
+    }
+
+    private void writeCsvRecord(List<Object> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            csv.write(csvValue(values.get(i)));
+        }
+        csv.write('\n');
+    }
+
+    private static String csvValue(Object value) {
+        if (Objects.isNull(value)) {
+            return "";
+        }
+        val text = value instanceof Date date ? date.toInstant().toString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"".concat(text.replace("\"", "\"\"")).concat("\"");
+    }
+}
@@ -0,0 +1,47 @@
+package com.get.together.backend.data.bulk;
+
+import com.get.together.backend.data.model.ImportReport;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counters of one running import; keeps at most {@code maxErrors} line errors.
+ */
+class ImportProgress {
+    private final int maxErrors;
+    private final long started = System.nanoTime();
+    private final List<ImportReport.LineError> errors = new ArrayList<>();
+
+    long lines;
+    long imported;
+    long failed;
+    long done;
+
+    ImportProgress(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void fail(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new ImportReport.LineError(line, message));
+        }
+    }
+
+    ImportReport report(boolean completed) {
+        val elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return ImportReport.builder()
+                .lines(lines)
+                .imported(imported)
+                .failed(failed)
+                .completed(completed)
+                .resumeFrom(done)
+                .elapsedMillis(elapsedMillis)
+                .linesPerSecond(elapsedMillis == 0 ? lines : lines * 1000 / elapsedMillis)
+                .errors(errors)
+                .build();
+    }
+}
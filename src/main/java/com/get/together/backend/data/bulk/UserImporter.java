@@ -0,0 +1,357 @@
+package com.get.together.backend.data.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.index.UserUniquenessIndex;
+import com.get.together.backend.data.model.ImportReport;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.routing.Bulkhead;
+import com.get.together.backend.data.routing.Workload;
+import com.get.together.backend.data.validator.UserValidator;
+import com.get.together.backend.util.CryptographyUtil;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Imports users from NDJSON or CSV with a header line, using the fields of {@code /v1/user/save}.
+ * <p>
+ * Lines are read in chunks. A chunk is parsed, validated and has its passwords encrypted in
+ * parallel, then user names and mails are checked for uniqueness within the chunk and against the
+ * table with one {@code IN} query per column, for the values the {@link UserUniquenessIndex} cannot
+ * rule out, and the new users are written with one JDBC batch in one transaction. A chunk that
+ * cannot be written stops the import; the report tells which line to resume from.
+ */
+@Slf4j
+@Component
+public class UserImporter {
+    private static final String INSERT_USER = "insert into get_together.user " +
+            "(user_name, password, first_name, last_name, phone_number, biography, mail, created) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final UserValidator userValidator;
+    private final CryptographyUtil cryptographyUtil;
+    private final SearchCountCache searchCountCache;
+    private final UserUniquenessIndex userUniquenessIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader lineReader;
+    private final ForkJoinPool validators;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    @Autowired
+    public UserImporter(UserRepository userRepository, UserValidator userValidator, CryptographyUtil cryptographyUtil,
+                        SearchCountCache searchCountCache, UserUniquenessIndex userUniquenessIndex,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                        @Value("${get-together.import.chunk-size:1000}") int chunkSize,
+                        @Value("${get-together.import.max-errors:1000}") int maxErrors,
+                        @Value("${get-together.import.validators:0}") int validators) {
+        this.userRepository = userRepository;
+        this.userValidator = userValidator;
+        this.cryptographyUtil = cryptographyUtil;
+        this.searchCountCache = searchCountCache;
+        this.userUniquenessIndex = userUniquenessIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lineReader = objectMapper.readerFor(UserLine.class);
+        this.validators = new ForkJoinPool(validators > 0 ? validators : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * @param from number of lines already imported by an earlier, interrupted call; they are skipped
+     */
+    @Bulkhead(Workload.BULK)
+    public ImportReport importUsers(InputStream body, BulkFormat format, long from) {
+        val progress = new ImportProgress(maxErrors);
+        progress.done = from;
+        val chunk = new ArrayList<RawLine>(chunkSize);
+        try (val reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            final Function<String, UserLine> parser;
+            if (format == BulkFormat.CSV) {
+                val header = reader.readLine();
+                if (Objects.isNull(header)) {
+                    return progress.report(true);
+                }
+                progress.lines++;
+                parser = csvParser(splitCsv(header));
+            } else {
+                parser = this::parseJson;
+            }
+
+            String line;
+            while (Objects.nonNull(line = reader.readLine())) {
+                progress.lines++;
+                if (progress.lines <= from || line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new RawLine(progress.lines, line));
+                if (chunk.size() == chunkSize && !flush(chunk, parser, progress)) {
+                    return stopped(progress);
+                }
+            }
+            if (!flush(chunk, parser, progress)) {
+                return stopped(progress);
+            }
+            progress.done = Math.max(from, progress.lines);
+        } catch (final IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Import body unreadable, resume from line ".concat(String.valueOf(progress.done)), e);
+        } finally {
+            if (progress.imported > 0) {
+                searchCountCache.invalidate(SearchCountCache.USERS);
+            }
+        }
+
+        val report = progress.report(true);
+        log.info("Imported {} of {} user lines, {} failed, {} lines/s",
+                report.getImported(), report.getLines(), report.getFailed(), report.getLinesPerSecond());
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdown();
+    }
+
+    private ImportReport stopped(ImportProgress progress) {
+        val report = progress.report(false);
+        log.warn("User import stopped after {} lines, resume from line {}", report.getLines(), report.getResumeFrom());
+        return report;
+    }
+
+    /**
+     * Returns false if the chunk could not be written; nothing of it is then imported or reported.
+     */
+    private boolean flush(List<RawLine> chunk, Function<String, UserLine> parser, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        final List<ParsedUser> parsed;
+        try {
+            parsed = validators.submit(() -> chunk.parallelStream().map(line -> parse(line, parser)).toList()).get();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Import interrupted");
+        }
+
+        val rejected = new ArrayList<ImportReport.LineError>();
+        val unique = new ArrayList<ParsedUser>(parsed.size());
+        val userNames = new HashSet<String>();
+        val mails = new HashSet<String>();
+        for (val user : parsed) {
+            if (Objects.nonNull(user.error())) {
+                rejected.add(new ImportReport.LineError(user.line(), user.error()));
+            } else if (!userNames.add(key(user.model().getUserName()))) {
+                rejected.add(userNameInUse(user));
+            } else if (!mails.add(key(user.model().getMail()))) {
+                userNames.remove(key(user.model().getUserName()));
+                rejected.add(mailInUse(user));
+            } else {
+                unique.add(user);
+            }
+        }
+
+        final ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> insert(unique));
+        } catch (final DataAccessException e) {
+            log.warn("User import chunk of lines {}-{} failed: {}",
+                    chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e.getMostSpecificCause().getMessage());
+            return false;
+        }
+
+        rejected.addAll(result.conflicts());
+        rejected.sort(Comparator.comparingLong(ImportReport.LineError::getLine));
+        rejected.forEach(error -> progress.fail(error.getLine(), error.getMessage()));
+        progress.imported += result.inserted();
+        progress.done = chunk.get(chunk.size() - 1).line();
+        chunk.clear();
+        return true;
+    }
+
+    private ChunkResult insert(List<ParsedUser> users) {
+        if (users.isEmpty()) {
+            return new ChunkResult(0, List.of());
+        }
+        val userNames = users.stream().map(user -> user.model().getUserName())
+                .filter(userUniquenessIndex::mightContainUserName).toList();
+        val mails = users.stream().map(user -> user.model().getMail())
+                .filter(userUniquenessIndex::mightContainMail).toList();
+        val takenUserNames = userNames.isEmpty() ? Set.<String>of() : keys(userRepository.findExistingUserNames(userNames));
+        val takenMails = mails.isEmpty() ? Set.<String>of() : keys(userRepository.findExistingMails(mails));
+        userNames.stream().filter(userName -> !takenUserNames.contains(key(userName)))
+                .forEach(userName -> userUniquenessIndex.falsePositive());
+        mails.stream().filter(mail -> !takenMails.contains(key(mail)))
+                .forEach(mail -> userUniquenessIndex.falsePositive());
+
+        val conflicts = new ArrayList<ImportReport.LineError>();
+        val inserts = new ArrayList<Object[]>(users.size());
+        val created = new Timestamp(Instant.now().toEpochMilli());
+        for (val user : users) {
+            val model = user.model();
+            if (takenUserNames.contains(key(model.getUserName()))) {
+                conflicts.add(userNameInUse(user));
+            } else if (takenMails.contains(key(model.getMail()))) {
+                conflicts.add(mailInUse(user));
+            } else {
+                inserts.add(new Object[]{model.getUserName(), model.getPassword(), model.getFirstName(),
+                        model.getLastName(), model.getPhoneNumber(), model.getBiography(), model.getMail(), created});
+                userUniquenessIndex.put(model.getUserName(), model.getMail());
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, inserts, new int[]{Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                    Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP});
+        }
+        return new ChunkResult(inserts.size(), conflicts);
+    }
+
+    private ParsedUser parse(RawLine line, Function<String, UserLine> parser) {
+        final UserLine user;
+        try {
+            user = parser.apply(line.text());
+        } catch (final IllegalArgumentException e) {
+            return new ParsedUser(line.line(), null, e.getMessage());
+        }
+
+        val model = UserModel.builder()
+                .userName(user.userName())
+                .firstName(user.firstName())
+                .lastName(user.lastName())
+                .phoneNumber(user.phoneNumber())
+                .biography(user.biography())
+                .mail(user.mail())
+                .password(user.password())
+                .build();
+        val violations = userValidator.describe(model);
+        if (Objects.nonNull(violations)) {
+            return new ParsedUser(line.line(), null, violations);
+        }
+        model.setPassword(cryptographyUtil.encrypt(model.getPassword()));
+        return new ParsedUser(line.line(), model, null);
+    }
+
+    private UserLine parseJson(String text) {
+        try {
+            return lineReader.readValue(text);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: ".concat(e.getOriginalMessage()));
+        }
+    }
+
+    private static Function<String, UserLine> csvParser(List<String> header) {
+        val columns = new HashMap<String, Integer>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        return text -> {
+            val values = splitCsv(text);
+            Function<String, String> column = name -> {
+                val index = columns.get(name);
+                return Objects.isNull(index) || index >= values.size() ? null : values.get(index);
+            };
+            return new UserLine(column.apply("userName"), column.apply("firstName"), column.apply("lastName"),
+                    column.apply("phoneNumber"), column.apply("biography"), column.apply("mail"),
+                    column.apply("password"));
+        };
+    }
+
+    /**
+     * Splits one CSV record; fields may be quoted, with {@code ""} for a quote inside quotes.
+     */
+    static List<String> splitCsv(String line) {
+        val values = new ArrayList<String>();
+        val value = new StringBuilder();
+        var quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            val c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Malformed CSV: unterminated quote");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    // user names and mails compare case- and accent-insensitively in MySQL
+    private static String key(String value) {
+        return UserUniquenessIndex.collationKey(value);
+    }
+
+    private static Set<String> keys(Collection<String> values) {
+        val keys = new HashSet<String>(values.size());
+        values.forEach(value -> keys.add(key(value)));
+        return keys;
+    }
+
+    private static ImportReport.LineError userNameInUse(ParsedUser user) {
+        return new ImportReport.LineError(user.line(),
+                "UserName: ".concat(user.model().getUserName()).concat(" already in use"));
+    }
+
+    private static ImportReport.LineError mailInUse(ParsedUser user) {
+        return new ImportReport.LineError(user.line(), "Mail: ".concat(user.model().getMail()).concat(" already in use"));
+    }
+
+    private record UserLine(String userName, String firstName, String lastName, String phoneNumber,
+                            String biography, String mail, String password) {
+    }
+
+    private record RawLine(long line, String text) {
+    }
+
+    private record ParsedUser(long line, UserModel model, String error) {
+    }
+
+    private record ChunkResult(int inserted, List<ImportReport.LineError> conflicts) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.get.together.backend.data.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.val;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, expiring cache of detached entities in front of single-key lookups.
+ * <p>
+ * Lookups inside a transaction, or with the cache disabled, bypass it and load in the caller's
+ * transaction, so writers always work on an entity of their own persistence context. Misses are
+ * not stored. Like {@link SearchCountCache}, a value loaded before an eviction is returned to its
+ * caller but not kept, and evictions inside a transaction are repeated once it completes.
+ * <p>
+ * Entities are mutable and shared by all readers, so the cache keeps a copy of what was loaded and
+ * hands every hit a copy of its own; a caller setting fields or wiring the entity into a new one
+ * changes nothing for the others.
+ */
+public class EntityCache<K, V> {
+    private final Cache<K, V> cache;
+    private final UnaryOperator<V> copy;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+
+    EntityCache(Cache<K, V> cache, UnaryOperator<V> copy, boolean enabled) {
+        this.cache = cache;
+        this.copy = copy;
+        this.enabled = enabled;
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> load) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return load.apply(key);
+        }
+        val cached = cache.getIfPresent(key);
+        if (Objects.nonNull(cached)) {
+            return Optional.of(copy.apply(cached));
+        }
+
+        val loadedGeneration = generation.get();
+        val result = load.apply(key);
+        result.ifPresent(value -> {
+            cache.put(key, copy.apply(value));
+            if (generation.get() != loadedGeneration) {
+                cache.invalidate(key);
+            }
+        });
+        return result;
+    }
+
+    public void evict(K key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+        afterCompletion(() -> cache.invalidate(key));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        afterCompletion(cache::invalidateAll);
+    }
+
+    private void afterCompletion(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.get.together.backend.data.cache;
+
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.val;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Named {@link EntityCache}s with the shared size and TTL, evicting by W-TinyLFU. Each cache reports
+ * {@code cache.gets} (tagged {@code result} hit or miss), {@code cache.puts}, {@code cache.evictions}
+ * and {@code cache.size}, tagged with the cache name.
+ * <p>
+ * Event and user caches copy the entity on the way in and out. The copies leave out the lazy
+ * collections and keep a host that was not fetched as its id only, as a detached entity cannot
+ * load them anyway; read those in a transaction.
+ */
+@Component
+public class EntityCaches {
+    public static final String EVENTS = "event";
+    public static final String EVENT_VIEWS = "event.view";
+    public static final String USERS = "user";
+    public static final String USER_NAMES = "user.name";
+
+    private static final Map<String, UnaryOperator<?>> COPIES = Map.of(
+            EVENTS, (UnaryOperator<EventModel>) EntityCaches::copy,
+            USERS, (UnaryOperator<UserModel>) EntityCaches::copy,
+            USER_NAMES, (UnaryOperator<UserModel>) EntityCaches::copy);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long maxSize;
+    private final Duration ttl;
+    private final Map<String, EntityCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EntityCaches(MeterRegistry meterRegistry,
+                        @Value("${get-together.entity-cache.enabled:true}") boolean enabled,
+                        @Value("${get-together.entity-cache.max-size:10000}") long maxSize,
+                        @Value("${get-together.entity-cache.ttl:5m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> EntityCache<K, V> get(String name) {
+        return (EntityCache<K, V>) caches.computeIfAbsent(name, this::create);
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntityCache<?, ?> create(String name) {
+        val cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        val copy = (UnaryOperator<Object>) COPIES.getOrDefault(name, UnaryOperator.identity());
+        return new EntityCache<>(cache, copy, enabled && maxSize > 0 && !ttl.isZero());
+    }
+
+    private static EventModel copy(EventModel event) {
+        return event.toBuilder()
+                .host(host(event.getHost()))
+                .attendees(null)
+                .created(Objects.isNull(event.getCreated()) ? null : new Date(event.getCreated().getTime()))
+                .build();
+    }
+
+    /**
+     * A host that was not fetched is a proxy that cannot load outside its session; it is copied as
+     * a reference by id.
+     */
+    private static UserModel host(UserModel host) {
+        if (Objects.isNull(host)) {
+            return null;
+        }
+        return Hibernate.isInitialized(host) ? copy(host) : UserModel.builder().id(host.getId()).build();
+    }
+
+    private static UserModel copy(UserModel user) {
+        return user.toBuilder()
+                .hostedEvents(null)
+                .attendedEvents(null)
+                .created(Objects.isNull(user.getCreated()) ? null : new Date(user.getCreated().getTime()))
+                .build();
+    }
+}
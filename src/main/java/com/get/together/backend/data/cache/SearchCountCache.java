@@ -0,0 +1,122 @@
+package com.get.together.backend.data.cache;
+
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Short lived totals for paged searches, keyed by namespace and normalized filter.
+ * <p>
+ * Writes invalidate their namespace. A count that started before an invalidation is returned to
+ * its caller but not stored, so a cached total is never older than the last write it could see.
+ */
+@Component
+public class SearchCountCache {
+    public static final String EVENTS = "event";
+    public static final String USERS = "user";
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<String, Namespace> namespaces = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SearchCountCache(@Value("${get-together.search.count-cache.ttl:10s}") Duration ttl,
+                            @Value("${get-together.search.count-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+    }
+
+    public long get(String namespace, Map<String, Object> filter, LongSupplier count) {
+        if (ttlMillis <= 0) {
+            return count.getAsLong();
+        }
+        val cache = namespaces.computeIfAbsent(namespace, name -> new Namespace());
+        val key = key(filter);
+        val now = System.currentTimeMillis();
+        val cached = cache.values.get(key);
+        if (Objects.nonNull(cached) && cached.expires > now) {
+            return cached.count;
+        }
+
+        val generation = cache.generation.get();
+        val result = count.getAsLong();
+        if (cache.values.size() >= maxEntries) {
+            cache.values.values().removeIf(entry -> entry.expires <= now);
+            if (cache.values.size() >= maxEntries) {
+                cache.values.clear();
+            }
+        }
+        cache.values.put(key, new Entry(result, now + ttlMillis));
+        if (cache.generation.get() != generation) {
+            cache.values.remove(key);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the namespace now and, inside a transaction, again once it completes, so counts read
+     * before the commit are not kept.
+     */
+    public void invalidate(String namespace) {
+        clear(namespace);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear(namespace);
+                }
+            });
+        }
+    }
+
+    private void clear(String namespace) {
+        val cache = namespaces.get(namespace);
+        if (Objects.nonNull(cache)) {
+            cache.generation.incrementAndGet();
+            cache.values.clear();
+        }
+    }
+
+    /**
+     * Filters that only differ in letter case or collection order share a key; the searches match
+     * text case-insensitively and treat id lists as sets.
+     */
+    static List<Object> key(Map<String, Object> filter) {
+        val key = new ArrayList<>(filter.size() * 2);
+        new TreeMap<>(filter).forEach((name, value) -> {
+            key.add(name);
+            key.add(normalize(value));
+        });
+        return key;
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof String text) {
+            return text.toUpperCase(Locale.ROOT);
+        }
+        if (value instanceof Date date) {
+            return date.getTime();
+        }
+        if (value instanceof Collection<?> values) {
+            return new TreeSet<>(values.stream().map(SearchCountCache::normalize).toList());
+        }
+        return value;
+    }
+
+    private record Entry(long count, long expires) {
+    }
+
+    private static class Namespace {
+        final AtomicLong generation = new AtomicLong();
+        final Map<List<Object>, Entry> values = new ConcurrentHashMap<>();
+    }
+}
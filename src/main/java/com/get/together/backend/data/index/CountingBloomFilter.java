@@ -0,0 +1,112 @@
+package com.get.together.backend.data.index;
+
+import lombok.val;
+import org.apache.commons.codec.digest.MurmurHash3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter with 4-bit counters, so keys can be removed again. Counters saturate at 15 and are
+ * never decremented from there; a saturated slot only costs false positives, never a false negative.
+ * Safe for concurrent use.
+ */
+class CountingBloomFilter {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xF;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashFunctions;
+    private final AtomicLong entries = new AtomicLong();
+
+    CountingBloomFilter(long expectedEntries, double falsePositiveRate) {
+        val n = Math.max(1, expectedEntries);
+        this.counters = Math.max(COUNTERS_PER_WORD,
+                (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) counters / n * Math.log(2)));
+        this.words = new AtomicLongArray((int) ((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    void add(String key) {
+        val hash = hash(key);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(slot(hash, i), 1);
+        }
+        entries.incrementAndGet();
+    }
+
+    /**
+     * Only for keys that were added; removing anything else can turn other keys into false negatives.
+     */
+    void remove(String key) {
+        val hash = hash(key);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(slot(hash, i), -1);
+        }
+        entries.decrementAndGet();
+    }
+
+    boolean mightContain(String key) {
+        val hash = hash(key);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (counter(slot(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long entries() {
+        return entries.get();
+    }
+
+    long counters() {
+        return counters;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * False positive rate expected for the current number of entries.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashFunctions * (double) Math.max(0, entries()) / counters), hashFunctions);
+    }
+
+    private static long[] hash(String key) {
+        val bytes = key.getBytes(StandardCharsets.UTF_8);
+        return MurmurHash3.hash128x64(bytes, 0, bytes.length, 0);
+    }
+
+    /**
+     * Kirsch-Mitzenmacher double hashing: slot i is h1 + i * h2.
+     */
+    private long slot(long[] hash, int i) {
+        return Math.floorMod(hash[0] + i * hash[1], counters);
+    }
+
+    private int counter(long slot) {
+        val shift = (int) (slot % COUNTERS_PER_WORD) * 4;
+        return (int) ((words.get((int) (slot / COUNTERS_PER_WORD)) >>> shift) & COUNTER_MASK);
+    }
+
+    private void update(long slot, int delta) {
+        val index = (int) (slot / COUNTERS_PER_WORD);
+        val shift = (int) (slot % COUNTERS_PER_WORD) * 4;
+        while (true) {
+            val word = words.get(index);
+            val counter = (word >>> shift) & COUNTER_MASK;
+            if (counter == COUNTER_MASK || (delta < 0 && counter == 0)) {
+                return;
+            }
+            val updated = (word & ~(COUNTER_MASK << shift)) | ((counter + delta) << shift);
+            if (words.compareAndSet(index, word, updated)) {
+                return;
+            }
+        }
+    }
+}
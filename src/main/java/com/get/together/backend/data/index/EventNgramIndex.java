@@ -0,0 +1,272 @@
+package com.get.together.backend.data.index;
+
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventTextView;
+import com.get.together.backend.data.repository.EventRepository;
+import com.get.together.backend.data.routing.Bulkhead;
+import com.get.together.backend.data.routing.Workload;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over event header and description.
+ * <p>
+ * Candidates returned by this index are a superset of the rows MySQL would match with
+ * {@code LIKE '%x%'} under the schema's accent- and case-insensitive collation, so callers still
+ * apply the original predicate to the candidate ids and get identical results. Text that does not
+ * fold to plain ASCII is never trusted and is always returned as a candidate.
+ */
+@Slf4j
+@Component
+public class EventNgramIndex {
+    public static final int GRAM_LENGTH = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final Field header = new Field();
+    private final Field description = new Field();
+    private volatile boolean ready;
+
+    @Autowired
+    public EventNgramIndex(EventRepository eventRepository,
+                           @Value("${get-together.search.ngram-index.enabled:false}") boolean enabled,
+                           @Value("${get-together.search.ngram-index.max-candidates:10000}") int maxCandidates) {
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Bulkhead(Workload.BULK)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        val started = System.currentTimeMillis();
+        var lastId = 0;
+        var indexed = 0;
+        List<EventTextView> batch;
+        do {
+            batch = eventRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+            for (val event : batch) {
+                // rows saved while the build is running are already indexed with newer text
+                header.putIfAbsent(event.getId(), event.getHeader());
+                description.putIfAbsent(event.getId(), event.getDescription());
+                lastId = event.getId();
+            }
+            indexed += batch.size();
+        } while (batch.size() == BUILD_BATCH_SIZE);
+        ready = true;
+        log.info("Event ngram index built: {} events in {} ms", indexed, System.currentTimeMillis() - started);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public Optional<Set<Integer>> findHeaderCandidates(String query) {
+        return candidates(header, query);
+    }
+
+    public Optional<Set<Integer>> findDescriptionCandidates(String query) {
+        return candidates(description, query);
+    }
+
+    /**
+     * Changes of a transaction apply once it commits, so a rollback leaves the index as the table.
+     */
+    public void put(EventModel event) {
+        if (!enabled || Objects.isNull(event) || Objects.isNull(event.getId())) {
+            return;
+        }
+        val id = event.getId();
+        val headerText = event.getHeader();
+        val descriptionText = event.getDescription();
+        afterCommit(() -> {
+            header.put(id, headerText);
+            description.put(id, descriptionText);
+        });
+    }
+
+    public void remove(Integer id) {
+        if (!enabled || Objects.isNull(id)) {
+            return;
+        }
+        afterCommit(() -> {
+            header.remove(id);
+            description.remove(id);
+        });
+    }
+
+    public void clear() {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            header.clear();
+            description.clear();
+        });
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Returns empty when the index cannot answer the query (disabled, still building, query too
+     * short or not plain ASCII, too many candidates); callers then use the LIKE path.
+     */
+    private Optional<Set<Integer>> candidates(Field field, String query) {
+        if (!isReady() || Objects.isNull(query)) {
+            return Optional.empty();
+        }
+        val folded = fold(query);
+        if (Objects.isNull(folded) || folded.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        val result = field.search(folded);
+        if (result.size() > maxCandidates) {
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Folds case and accents the way utf8mb4_0900_ai_ci compares them. Returns null when the
+     * folded text is not printable ASCII, since collation expansions (e.g. "ß" = "ss") and ignorable
+     * characters are not modelled.
+     */
+    static String fold(String text) {
+        val stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (int i = 0; i < stripped.length(); i++) {
+            val c = stripped.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                return null;
+            }
+        }
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String folded) {
+        val grams = new HashSet<String>();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    static final class Field {
+        private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+        private final Map<Integer, String> documents = new ConcurrentHashMap<>();
+        private final Set<Integer> unfoldable = ConcurrentHashMap.newKeySet();
+
+        void put(Integer id, String text) {
+            documents.compute(id, (key, previous) -> {
+                unlink(key, previous);
+                return link(key, text);
+            });
+        }
+
+        void putIfAbsent(Integer id, String text) {
+            documents.computeIfAbsent(id, key -> link(key, text));
+        }
+
+        void remove(Integer id) {
+            documents.computeIfPresent(id, (key, previous) -> {
+                unlink(key, previous);
+                return null;
+            });
+            unfoldable.remove(id);
+        }
+
+        void clear() {
+            documents.keySet().forEach(this::remove);
+        }
+
+        Set<Integer> search(String folded) {
+            Set<Integer> smallest = null;
+            val queryGrams = grams(folded);
+            for (val gram : queryGrams) {
+                val posting = postings.get(gram);
+                if (Objects.isNull(posting)) {
+                    smallest = Collections.emptySet();
+                    break;
+                }
+                if (Objects.isNull(smallest) || posting.size() < smallest.size()) {
+                    smallest = posting;
+                }
+            }
+
+            val result = new HashSet<Integer>();
+            for (val id : smallest) {
+                val document = documents.get(id);
+                if (Objects.nonNull(document) && document.contains(folded)) {
+                    result.add(id);
+                }
+            }
+            result.addAll(unfoldable);
+            return result;
+        }
+
+        // returns the stored document for id: the folded text, or "" when there is nothing to index
+        private String link(Integer id, String text) {
+            if (Objects.isNull(text)) {
+                return "";
+            }
+            val folded = fold(text);
+            if (Objects.isNull(folded)) {
+                unfoldable.add(id);
+                return "";
+            }
+            unfoldable.remove(id);
+            for (val gram : grams(folded)) {
+                postings.compute(gram, (key, ids) -> {
+                    val posting = Objects.isNull(ids) ? ConcurrentHashMap.<Integer>newKeySet() : ids;
+                    posting.add(id);
+                    return posting;
+                });
+            }
+            return folded;
+        }
+
+        private void unlink(Integer id, String previous) {
+            unfoldable.remove(id);
+            if (Objects.isNull(previous)) {
+                return;
+            }
+            for (val gram : grams(previous)) {
+                postings.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.get.together.backend.data.index;
+
+import com.get.together.backend.data.model.UniquenessIndexReport;
+import com.get.together.backend.data.routing.Bulkhead;
+import com.get.together.backend.data.routing.Workload;
+import com.get.together.backend.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory counting Bloom filters of taken user names and mails.
+ * <p>
+ * A negative answer means no user has the value under the schema's accent- and case-insensitive
+ * collation, so the database check can be skipped. Values are reduced to an ASCII skeleton that
+ * every collation-equal value shares: accents are stripped, common expansions ("ß" = "ss") are
+ * applied and anything else outside ASCII is dropped. Lookups that are not plain ASCII after
+ * folding are never answered negatively.
+ * <p>
+ * Saves and deletes update the filters after commit. A rebuild streams the table into fresh
+ * filters, sized for the current row count, and swaps them in; values saved meanwhile go to both.
+ * Until the first build completes every lookup is answered positively.
+ */
+@Slf4j
+@Component
+public class UserUniquenessIndex {
+    private static final String SELECT_KEYS = "select user_name, mail from get_together.user";
+    private static final String COUNT_USERS = "select count(*) from get_together.user";
+    private static final int BUILD_FETCH_SIZE = 1000;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Map<Character, String> EXPANSIONS = Map.of(
+            'ß', "ss", 'æ', "ae", 'œ', "oe", 'þ', "th", 'ø', "o", 'đ', "d", 'ł', "l", 'ı', "i");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+
+    @Autowired
+    public UserUniquenessIndex(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${get-together.user.uniqueness-index.enabled:true}") boolean enabled,
+                               @Value("${get-together.user.uniqueness-index.expected-entries:100000}") long expectedEntries,
+                               @Value("${get-together.user.uniqueness-index.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negatives = Counter.builder("user.uniqueness.index.checks").tag("result", "negative")
+                .register(meterRegistry);
+        this.positives = Counter.builder("user.uniqueness.index.checks").tag("result", "positive")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("user.uniqueness.index.false.positives").register(meterRegistry);
+        Gauge.builder("user.uniqueness.index.false.positive.rate", this, UserUniquenessIndex::observedFalsePositiveRate)
+                .description("share of free values the index could not rule out")
+                .register(meterRegistry);
+        Gauge.builder("user.uniqueness.index.expected.false.positive.rate", this,
+                        index -> Objects.isNull(index.current) ? 1.0 : index.current.expectedFalsePositiveRate())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Bulkhead(Workload.BULK)
+    public void build() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Bulkhead(Workload.BULK)
+    public synchronized UniquenessIndexReport rebuild() {
+        if (!enabled) {
+            throw new ConflictException("User uniqueness index is disabled");
+        }
+        val started = System.currentTimeMillis();
+        val users = Objects.requireNonNullElse(jdbcTemplate.queryForObject(COUNT_USERS, Long.class), 0L);
+        val filters = new Filters(Math.max(expectedEntries, 2 * users), falsePositiveRate);
+        building = filters;
+        try {
+            jdbcTemplate.query(connection -> {
+                val statement = connection.prepareStatement(SELECT_KEYS);
+                statement.setFetchSize(BUILD_FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) row -> filters.add(row.getString(1), row.getString(2)));
+            current = filters;
+        } finally {
+            building = null;
+        }
+
+        val report = UniquenessIndexReport.builder()
+                .users(filters.userNames.entries())
+                .counters(filters.userNames.counters() + filters.mails.counters())
+                .hashFunctions(filters.userNames.hashFunctions())
+                .expectedFalsePositiveRate(filters.expectedFalsePositiveRate())
+                .elapsedMillis(System.currentTimeMillis() - started)
+                .build();
+        log.info("User uniqueness index built: {}", report);
+        return report;
+    }
+
+    public boolean mightContainUserName(String userName) {
+        return mightContain(userName, filters -> filters.userNames);
+    }
+
+    public boolean mightContainMail(String mail) {
+        return mightContain(mail, filters -> filters.mails);
+    }
+
+    /**
+     * Records that a positive answer turned out to be free in the database.
+     */
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Adds the user once the surrounding transaction commits, or now without one.
+     */
+    public void put(String userName, String mail) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            // building before current: a rebuild publishes current before it clears building
+            val next = building;
+            val target = current;
+            if (Objects.nonNull(next)) {
+                next.add(userName, mail);
+            }
+            if (Objects.nonNull(target) && target != next) {
+                target.add(userName, mail);
+            }
+        });
+    }
+
+    /**
+     * Removes the user once the surrounding transaction commits, or now without one. Filters being
+     * built are left alone, they may not have seen the user; that only costs a false positive.
+     */
+    public void remove(String userName, String mail) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            val target = current;
+            if (Objects.nonNull(target)) {
+                target.remove(userName, mail);
+            }
+        });
+    }
+
+    private boolean mightContain(String value, Function<Filters, CountingBloomFilter> field) {
+        val filters = current;
+        if (!enabled || Objects.isNull(filters) || Objects.isNull(value)) {
+            return true;
+        }
+        val folded = fold(value);
+        if (Objects.isNull(folded) || field.apply(filters).mightContain(folded)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    private double observedFalsePositiveRate() {
+        val free = negatives.count() + falsePositives.count();
+        return free == 0 ? 0.0 : falsePositives.count() / free;
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Lower-cased ASCII folding of {@code text}; null when something outside ASCII remains.
+     */
+    static String fold(String text) {
+        val skeleton = skeleton(text);
+        return skeleton.ascii ? skeleton.value : null;
+    }
+
+    /**
+     * Key that is equal for values the schema's accent- and case-insensitive collation compares
+     * equal; characters without an ASCII folding are kept as they are.
+     */
+    public static String collationKey(String text) {
+        return skeleton(text, true).value();
+    }
+
+    private static Skeleton skeleton(String text) {
+        return skeleton(text, false);
+    }
+
+    private static Skeleton skeleton(String text, boolean keepNonAscii) {
+        val stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        val skeleton = new StringBuilder(stripped.length());
+        var ascii = true;
+        for (int i = 0; i < stripped.length(); i++) {
+            val c = stripped.charAt(i);
+            if (c >= 0x20 && c <= 0x7E) {
+                skeleton.append(c);
+            } else if (EXPANSIONS.containsKey(c)) {
+                skeleton.append(EXPANSIONS.get(c));
+            } else {
+                ascii = false;
+                if (keepNonAscii) {
+                    skeleton.append(c);
+                }
+            }
+        }
+        return new Skeleton(skeleton.toString(), ascii);
+    }
+
+    private record Skeleton(String value, boolean ascii) {
+    }
+
+    private static class Filters {
+        final CountingBloomFilter userNames;
+        final CountingBloomFilter mails;
+
+        Filters(long expectedEntries, double falsePositiveRate) {
+            this.userNames = new CountingBloomFilter(expectedEntries, falsePositiveRate);
+            this.mails = new CountingBloomFilter(expectedEntries, falsePositiveRate);
+        }
+
+        void add(String userName, String mail) {
+            if (Objects.nonNull(userName)) {
+                userNames.add(skeleton(userName).value());
+            }
+            if (Objects.nonNull(mail)) {
+                mails.add(skeleton(mail).value());
+            }
+        }
+
+        void remove(String userName, String mail) {
+            if (Objects.nonNull(userName)) {
+                userNames.remove(skeleton(userName).value());
+            }
+            if (Objects.nonNull(mail)) {
+                mails.remove(skeleton(mail).value());
+            }
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.max(userNames.expectedFalsePositiveRate(), mails.expectedFalsePositiveRate());
+        }
+    }
+}
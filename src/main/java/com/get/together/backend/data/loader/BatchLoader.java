@@ -0,0 +1,212 @@
+package com.get.together.backend.data.loader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import lombok.val;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Coalesces single-key lookups into {@code IN} queries.
+ * <p>
+ * A key requested while no load is running is dispatched at once; keys requested while a load is
+ * running queue up and go out together in the next one, de-duplicated and at most
+ * {@code maxBatchSize} per query. The queries run on the {@code dispatcher}, so callers only wait
+ * for their own key and never run the queries of others. With a positive {@code window} the
+ * dispatcher waits that long first to collect more keys. Within one web request every result,
+ * including a miss, is remembered, so repeated lookups of a key cost nothing.
+ * <p>
+ * Lookups inside a transaction, or with the loader disabled, bypass both and load the key in the
+ * caller's transaction, so the caller gets an entity of its own persistence context. So do lookups
+ * of a request pinned to the primary after a write, which a dispatched batch would send to a
+ * replica.
+ */
+public class BatchLoader<K, V> {
+    private final String name;
+    private final Function<Collection<K>, Map<K, V>> loadAll;
+    private final BooleanSupplier pinned;
+    private final Executor dispatcher;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Duration timeout;
+    private final String requestAttribute;
+
+    private final Queue<PendingLoad<K, V>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private final Counter keys;
+    private final Counter queries;
+    private final Counter savedRoundTrips;
+    private final DistributionSummary batchSizes;
+
+    BatchLoader(String name, Function<Collection<K>, Map<K, V>> loadAll, BooleanSupplier pinned, Executor dispatcher,
+                boolean enabled, Duration window, int maxBatchSize, Duration timeout, Counter keys, Counter queries,
+                Counter savedRoundTrips, DistributionSummary batchSizes) {
+        this.name = name;
+        this.loadAll = loadAll;
+        this.pinned = pinned;
+        this.dispatcher = dispatcher;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.timeout = timeout;
+        this.requestAttribute = BatchLoader.class.getName().concat(".").concat(name);
+        this.keys = keys;
+        this.queries = queries;
+        this.savedRoundTrips = savedRoundTrips;
+        this.batchSizes = batchSizes;
+    }
+
+    public Optional<V> load(K key) {
+        keys.increment();
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive() || pinned.getAsBoolean()) {
+            return Optional.ofNullable(fetch(List.of(key)).get(key));
+        }
+
+        val memo = requestMemo();
+        if (Objects.nonNull(memo) && memo.containsKey(key)) {
+            savedRoundTrips.increment();
+            return Optional.ofNullable(memo.get(key));
+        }
+        val value = enqueue(key);
+        if (Objects.nonNull(memo)) {
+            memo.put(key, value);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Forgets the request's result for the key; call after writing it.
+     */
+    public void evict(K key) {
+        val memo = requestMemo();
+        if (Objects.nonNull(memo)) {
+            memo.remove(key);
+        }
+    }
+
+    public void evictAll() {
+        val memo = requestMemo();
+        if (Objects.nonNull(memo)) {
+            memo.clear();
+        }
+    }
+
+    private V enqueue(K key) {
+        val pending = new PendingLoad<K, V>(key, new CompletableFuture<>());
+        queue.offer(pending);
+        dispatch();
+        try {
+            return pending.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage(), e.getCause());
+        } catch (final TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Loading ".concat(name).concat(": ").concat(String.valueOf(key)).concat(" timed out"));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Load interrupted");
+        }
+    }
+
+    private void dispatch() {
+        if (queue.isEmpty() || !dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(this::drain);
+        } catch (final RejectedExecutionException e) {
+            dispatching.set(false);
+            val stopped = new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Loader is shut down", e);
+            PendingLoad<K, V> pending;
+            while (Objects.nonNull(pending = queue.poll())) {
+                pending.result.completeExceptionally(stopped);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            pause();
+            List<PendingLoad<K, V>> batch;
+            while (!(batch = poll()).isEmpty()) {
+                complete(batch);
+            }
+        } finally {
+            dispatching.set(false);
+        }
+        // a key offered after the last poll but before the flag was cleared is picked up by the next run
+        dispatch();
+    }
+
+    private void pause() {
+        if (window.isZero() || window.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(window.toMillis(), window.toNanosPart() % 1_000_000);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<PendingLoad<K, V>> poll() {
+        val batch = new ArrayList<PendingLoad<K, V>>();
+        val batchKeys = new HashSet<K>();
+        PendingLoad<K, V> pending;
+        while (batchKeys.size() < maxBatchSize && Objects.nonNull(pending = queue.poll())) {
+            batch.add(pending);
+            batchKeys.add(pending.key);
+        }
+        return batch;
+    }
+
+    private void complete(List<PendingLoad<K, V>> batch) {
+        final Map<K, V> found;
+        try {
+            found = fetch(batch.stream().map(PendingLoad::key).distinct().toList());
+        } catch (final RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+        savedRoundTrips.increment(batch.size() - 1);
+        batch.forEach(pending -> pending.result.complete(found.get(pending.key)));
+    }
+
+    private Map<K, V> fetch(Collection<K> batchKeys) {
+        queries.increment();
+        batchSizes.record(batchKeys.size());
+        return loadAll.apply(batchKeys);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<K, V> requestMemo() {
+        val attributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(attributes)) {
+            return null;
+        }
+        var memo = (Map<K, V>) attributes.getAttribute(requestAttribute, RequestAttributes.SCOPE_REQUEST);
+        if (Objects.isNull(memo)) {
+            memo = new HashMap<>();
+            attributes.setAttribute(requestAttribute, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    private record PendingLoad<K, V>(K key, CompletableFuture<V> result) {
+    }
+}
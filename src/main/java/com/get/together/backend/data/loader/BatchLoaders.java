@@ -0,0 +1,85 @@
+package com.get.together.backend.data.loader;
+
+import com.get.together.backend.data.routing.ReadYourWrites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Creates {@link BatchLoader}s with the shared settings and their meters, tagged with the loader name:
+ * {@code data.loader.keys} requested, {@code data.loader.queries} issued, {@code data.loader.saved.round.trips}
+ * and the {@code data.loader.batch.size} histogram. The queries run on a pool of {@code dispatchers}
+ * threads shared by all loaders, each in a read-only transaction of its own, so they are routed as
+ * interactive reads.
+ */
+@Component
+public class BatchLoaders {
+    private final MeterRegistry meterRegistry;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Duration timeout;
+    private final ExecutorService dispatcher;
+
+    @Autowired
+    public BatchLoaders(MeterRegistry meterRegistry, ReadYourWrites readYourWrites,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${get-together.loader.enabled:true}") boolean enabled,
+                        @Value("${get-together.loader.window:0ms}") Duration window,
+                        @Value("${get-together.loader.max-batch-size:100}") int maxBatchSize,
+                        @Value("${get-together.loader.timeout:5s}") Duration timeout,
+                        @Value("${get-together.loader.dispatchers:2}") int dispatchers) {
+        this.meterRegistry = meterRegistry;
+        this.readYourWrites = readYourWrites;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.timeout = timeout;
+        val threadFactory = new CustomizableThreadFactory("batch-loader-");
+        threadFactory.setDaemon(true);
+        this.dispatcher = Executors.newFixedThreadPool(dispatchers, threadFactory);
+    }
+
+    /**
+     * @param loadAll loads the given keys in one query; keys without a value are left out of the map
+     */
+    public <K, V> BatchLoader<K, V> create(String name, Function<Collection<K>, Map<K, V>> loadAll) {
+        // a lookup that bypasses the batch joins the caller's transaction instead
+        Function<Collection<K>, Map<K, V>> load = keys -> readOnlyTransaction.execute(status -> loadAll.apply(keys));
+        return new BatchLoader<>(name, load, readYourWrites::isPinned, dispatcher, enabled, window, maxBatchSize,
+                timeout,
+                Counter.builder("data.loader.keys").tag("loader", name).register(meterRegistry),
+                Counter.builder("data.loader.queries").tag("loader", name).register(meterRegistry),
+                Counter.builder("data.loader.saved.round.trips").tag("loader", name).register(meterRegistry),
+                DistributionSummary.builder("data.loader.batch.size")
+                        .tag("loader", name)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue((double) maxBatchSize)
+                        .register(meterRegistry));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+}
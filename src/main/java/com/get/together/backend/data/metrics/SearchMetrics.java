@@ -0,0 +1,75 @@
+package com.get.together.backend.data.metrics;
+
+import com.get.together.backend.data.util.PageQuery;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Meters of paged searches, tagged with the namespace and {@code paging} (offset or keyset): the
+ * {@code search.page.size} requested, the {@code search.rows} returned and {@code search.count},
+ * the time of count queries that missed the count cache.
+ */
+@Component
+public class SearchMetrics {
+    private static final String[] PAGING = {"offset", "keyset"};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void page(String namespace, PageQuery pageQuery, int rows) {
+        val paging = pageQuery.isKeyset() ? 1 : 0;
+        val namespaceMeters = meters(namespace);
+        namespaceMeters.pageSizes[paging].record(pageQuery.getSize());
+        namespaceMeters.rows[paging].record(rows);
+    }
+
+    public long count(String namespace, LongSupplier count) {
+        val sample = Timer.start(meterRegistry);
+        try {
+            return count.getAsLong();
+        } finally {
+            sample.stop(meters(namespace).counts);
+        }
+    }
+
+    private Meters meters(String namespace) {
+        return meters.computeIfAbsent(namespace, name -> new Meters(
+                summaries("search.page.size", name),
+                summaries("search.rows", name),
+                Timer.builder("search.count")
+                        .tag("namespace", name)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)));
+    }
+
+    private DistributionSummary[] summaries(String meter, String namespace) {
+        val summaries = new DistributionSummary[PAGING.length];
+        for (int i = 0; i < PAGING.length; i++) {
+            summaries[i] = DistributionSummary.builder(meter)
+                    .tag("namespace", namespace)
+                    .tag("paging", PAGING[i])
+                    .baseUnit("rows")
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry);
+        }
+        return summaries;
+    }
+
+    private record Meters(DistributionSummary[] pageSizes, DistributionSummary[] rows, Timer counts) {
+    }
+}
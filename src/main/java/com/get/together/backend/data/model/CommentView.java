@@ -0,0 +1,21 @@
+package com.get.together.backend.data.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * Read model of a comment: its own columns plus the owner and event foreign keys, without their rows.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CommentView {
+    Integer id;
+    String description;
+    Date created;
+    Integer ownerId;
+    Integer eventId;
+}
@@ -0,0 +1,27 @@
+package com.get.together.backend.data.model;
+
+import java.util.Date;
+
+/**
+ * Full-text match of an event: the {@link EventView} columns and the relevance MySQL computed for
+ * the query.
+ */
+public interface EventMatch {
+    Integer getId();
+
+    String getHeader();
+
+    String getDescription();
+
+    Integer getCapacity();
+
+    Integer getAttending();
+
+    Date getCreated();
+
+    Boolean getIsActive();
+
+    Integer getHostId();
+
+    Double getScore();
+}
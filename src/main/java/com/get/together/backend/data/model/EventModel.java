@@ -2,6 +2,7 @@ package com.get.together.backend.data.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.Collection;
@@ -10,7 +11,7 @@ import java.util.Date;
 @Getter
 @Setter
 @ToString
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "event", schema = "get_together")
@@ -34,17 +35,21 @@ public class EventModel {
     @Column(name = "is_active")
     Boolean isActive;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference
+    @ToString.Exclude
     UserModel host;
 
     @ManyToMany
     @JoinTable(
             name = "user_event",
+            schema = "get_together",
             joinColumns = @JoinColumn(name = "event_id"),
             inverseJoinColumns = @JoinColumn(name = "user_id")
     )
+    @BatchSize(size = 50)
     @JsonBackReference
+    @ToString.Exclude
     Collection<UserModel> attendees;
 
 
@@ -0,0 +1,61 @@
+package com.get.together.backend.data.model;
+
+import lombok.*;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Optional event filters; null fields are not applied. Created bounds are exclusive, capacity and
+ * attending bounds inclusive, header and description match as case-insensitive substrings, and
+ * text as a substring of either.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchCriteria {
+    @ToString.Exclude
+    Collection<Integer> ids;
+    String header;
+    String description;
+    String text;
+    Boolean isActive;
+    Date createdBefore;
+    Date createdAfter;
+    Integer capacityMin;
+    Integer capacityMax;
+    Integer attendingMin;
+    Integer attendingMax;
+    Integer hostId;
+
+    /**
+     * Present filters in a fixed order; the key set is the query shape.
+     */
+    public Map<String, Object> parameters() {
+        val parameters = new LinkedHashMap<String, Object>();
+        putIfPresent(parameters, "ids", ids);
+        putIfPresent(parameters, "header", header);
+        putIfPresent(parameters, "description", description);
+        putIfPresent(parameters, "text", text);
+        putIfPresent(parameters, "isActive", isActive);
+        putIfPresent(parameters, "createdBefore", createdBefore);
+        putIfPresent(parameters, "createdAfter", createdAfter);
+        putIfPresent(parameters, "capacityMin", capacityMin);
+        putIfPresent(parameters, "capacityMax", capacityMax);
+        putIfPresent(parameters, "attendingMin", attendingMin);
+        putIfPresent(parameters, "attendingMax", attendingMax);
+        putIfPresent(parameters, "hostId", hostId);
+        return parameters;
+    }
+
+    private static void putIfPresent(Map<String, Object> parameters, String name, Object value) {
+        if (Objects.nonNull(value)) {
+            parameters.put(name, value);
+        }
+    }
+}
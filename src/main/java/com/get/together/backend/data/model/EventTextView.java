@@ -0,0 +1,9 @@
+package com.get.together.backend.data.model;
+
+public interface EventTextView {
+    Integer getId();
+
+    String getHeader();
+
+    String getDescription();
+}
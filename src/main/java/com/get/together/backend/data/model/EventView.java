@@ -0,0 +1,24 @@
+package com.get.together.backend.data.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+/**
+ * Read model of an event: its own columns plus the host foreign key, without the host row.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EventView {
+    Integer id;
+    String header;
+    String description;
+    Integer capacity;
+    Integer attending;
+    Date created;
+    Boolean isActive;
+    Integer hostId;
+}
@@ -0,0 +1,36 @@
+package com.get.together.backend.data.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} holds the first failed lines only; {@code failed} counts all of them.
+ * Lines up to {@code resumeFrom} are done; an import that did not complete can be repeated from there.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+    long lines;
+    long imported;
+    long failed;
+    boolean completed;
+    long resumeFrom;
+    long elapsedMillis;
+    long linesPerSecond;
+    List<LineError> errors;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        long line;
+        String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.get.together.backend.data.model;
+
+import com.get.together.backend.exception.ConflictException;
+import com.get.together.backend.exception.NotAcceptableException;
+
+public enum SeatResult {
+    JOINED,
+    ALREADY_ATTENDING,
+    FULL,
+    ;
+
+    /**
+     * Rejects anything but a new seat the way the v1 attendee endpoint reports it.
+     */
+    public SeatResult requireJoined(Integer eventId, Integer userId) {
+        if (this == FULL) {
+            throw new ConflictException("Event: ".concat(eventId.toString()).concat(" is full"));
+        }
+        if (this == ALREADY_ATTENDING) {
+            throw new NotAcceptableException("User: ".concat(userId.toString())
+                    .concat(" already attends event: ").concat(eventId.toString()));
+        }
+        return this;
+    }
+}
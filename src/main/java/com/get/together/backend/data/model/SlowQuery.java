@@ -0,0 +1,26 @@
+package com.get.together.backend.data.model;
+
+import lombok.*;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A statement that took longer than the slow query threshold. {@code rows} is the number of rows
+ * read or changed, null when the driver did not report it.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQuery {
+    String sql;
+    List<String> binds;
+    double elapsedMillis;
+    Long rows;
+    String caller;
+    String thread;
+    Date executed;
+}
@@ -0,0 +1,20 @@
+package com.get.together.backend.data.model;
+
+import lombok.*;
+
+/**
+ * Size and expected accuracy of a freshly built user uniqueness index.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UniquenessIndexReport {
+    long users;
+    long counters;
+    int hashFunctions;
+    double expectedFalsePositiveRate;
+    long elapsedMillis;
+}
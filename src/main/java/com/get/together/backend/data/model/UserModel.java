@@ -2,6 +2,7 @@ package com.get.together.backend.data.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.Collection;
@@ -10,7 +11,7 @@ import java.util.Date;
 @Getter
 @Setter
 @ToString
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "user", schema = "get_together")
@@ -42,11 +43,13 @@ public class UserModel {
     String password;
 
     @OneToMany(mappedBy = "host", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     @JsonManagedReference
     @ToString.Exclude
     Collection<EventModel> hostedEvents;
 
     @ManyToMany(mappedBy = "attendees")
+    @BatchSize(size = 50)
     @JsonManagedReference
     @ToString.Exclude
     Collection<EventModel> attendedEvents;
@@ -0,0 +1,43 @@
+package com.get.together.backend.data.model;
+
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Optional user filters; null fields are not applied. Names and mail match as case-insensitive
+ * substrings, phone number as a plain substring.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchCriteria {
+    String userName;
+    String firstName;
+    String lastName;
+    String mail;
+    String phoneNumber;
+
+    /**
+     * Present filters in a fixed order; the key set is the query shape.
+     */
+    public Map<String, Object> parameters() {
+        val parameters = new LinkedHashMap<String, Object>();
+        putIfPresent(parameters, "userName", userName);
+        putIfPresent(parameters, "firstName", firstName);
+        putIfPresent(parameters, "lastName", lastName);
+        putIfPresent(parameters, "mail", mail);
+        putIfPresent(parameters, "phoneNumber", phoneNumber);
+        return parameters;
+    }
+
+    private static void putIfPresent(Map<String, Object> parameters, String name, Object value) {
+        if (Objects.nonNull(value)) {
+            parameters.put(name, value);
+        }
+    }
+}
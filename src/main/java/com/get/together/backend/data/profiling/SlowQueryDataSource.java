@@ -0,0 +1,252 @@
+package com.get.together.backend.data.profiling;
+
+import lombok.val;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * JDBC proxies that time every statement for the {@link SlowQueryLog}. Bind values are kept by
+ * reference as they are set; a query is timed across its execution and the {@code next()} calls of
+ * its result set, so rows fetched lazily by a cursor count too, and is recorded when the result
+ * set or the statement is closed.
+ */
+final class SlowQueryDataSource {
+
+    private SlowQueryDataSource() {
+    }
+
+    /**
+     * The proxy is {@link Closeable} when the pool is, so the container still shuts the pool down.
+     */
+    static DataSource wrap(DataSource dataSource, Supplier<SlowQueryLog> slowQueryLog) {
+        val types = dataSource instanceof Closeable
+                ? new Class<?>[]{DataSource.class, Closeable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), types,
+                new DataSourceHandler(dataSource, slowQueryLog));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class Handler implements InvocationHandler {
+        final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "unwrap" -> ((Class<?>) args[0]).isInstance(proxy) ? proxy : call(method, args);
+                case "isWrapperFor" -> ((Class<?>) args[0]).isInstance(proxy) || (boolean) call(method, args);
+                default -> invoke(method, args);
+            };
+        }
+
+        abstract Object invoke(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class DataSourceHandler extends Handler {
+        private final Supplier<SlowQueryLog> slowQueryLog;
+        private volatile SlowQueryLog log;
+
+        DataSourceHandler(DataSource dataSource, Supplier<SlowQueryLog> slowQueryLog) {
+            super(dataSource);
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            val result = call(method, args);
+            if (result instanceof Connection connection) {
+                if (Objects.isNull(log)) {
+                    log = slowQueryLog.get();
+                }
+                return proxy(Connection.class, connection, new ConnectionHandler(connection, log));
+            }
+            return result;
+        }
+    }
+
+    private static final class ConnectionHandler extends Handler {
+        private final SlowQueryLog log;
+
+        ConnectionHandler(Connection connection, SlowQueryLog log) {
+            super(connection);
+            this.log = log;
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            val result = call(method, args);
+            if (result instanceof CallableStatement statement) {
+                return proxy(CallableStatement.class, statement, new StatementHandler(statement, log, (String) args[0]));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, new StatementHandler(statement, log, (String) args[0]));
+            }
+            if (result instanceof Statement statement) {
+                return proxy(Statement.class, statement, new StatementHandler(statement, log, null));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private static final Object[] NO_BINDS = new Object[0];
+
+        private final SlowQueryLog log;
+        private String sql;
+        private Object[] binds = NO_BINDS;
+        private int bindCount;
+        private ResultSetHandler open;
+
+        StatementHandler(Statement statement, SlowQueryLog log, String sql) {
+            super(statement);
+            this.log = log;
+            this.sql = sql;
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            val name = method.getName();
+            if (name.startsWith("set") && Objects.nonNull(args) && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return call(method, args);
+            }
+            if (name.equals("clearParameters")) {
+                binds = NO_BINDS;
+                bindCount = 0;
+                return call(method, args);
+            }
+            if (name.equals("close")) {
+                finishOpen();
+                return call(method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return call(method, args);
+            }
+
+            finishOpen();
+            if (Objects.nonNull(args) && args.length > 0 && args[0] instanceof String statementSql) {
+                sql = statementSql;
+            }
+            val started = System.nanoTime();
+            Object result = null;
+            try {
+                result = call(method, args);
+            } finally {
+                if (!(result instanceof ResultSet)) {
+                    log.record(sql, binds, bindCount, System.nanoTime() - started, rows(result));
+                }
+            }
+            if (result instanceof ResultSet resultSet) {
+                open = new ResultSetHandler(resultSet, this, started);
+                return proxy(ResultSet.class, resultSet, open);
+            }
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index >= binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index + 1, 2 * binds.length));
+            }
+            binds[index] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private void finishOpen() {
+            if (Objects.nonNull(open)) {
+                open.finish();
+            }
+        }
+
+        void finished(ResultSetHandler resultSet, long elapsedNanos, long rows) {
+            if (open == resultSet) {
+                open = null;
+            }
+            log.record(sql, binds, bindCount, elapsedNanos, rows);
+        }
+
+        private static Long rows(Object result) {
+            if (result instanceof Number count) {
+                return count.longValue();
+            }
+            if (result instanceof int[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+            }
+            if (result instanceof long[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).sum();
+            }
+            return null;
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final StatementHandler statement;
+        private long elapsedNanos;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet resultSet, StatementHandler statement, long started) {
+            super(resultSet);
+            this.statement = statement;
+            this.elapsedNanos = System.nanoTime() - started;
+        }
+
+        @Override
+        Object invoke(Method method, Object[] args) throws Throwable {
+            val name = method.getName();
+            if (name.equals("next")) {
+                val started = System.nanoTime();
+                try {
+                    val result = call(method, args);
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    }
+                    return result;
+                } finally {
+                    elapsedNanos += System.nanoTime() - started;
+                }
+            }
+            if (name.equals("close")) {
+                finish();
+            }
+            return call(method, args);
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                statement.finished(this, elapsedNanos, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.get.together.backend.data.profiling;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts every {@link DataSource} bean behind the {@link SlowQueryLog}. The log is looked up on the
+ * first connection, as post processors are created before ordinary beans.
+ */
+@Component
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final boolean enabled;
+
+    @Autowired
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog,
+                                            @Value("${get-together.slow-query.enabled:true}") boolean enabled) {
+        this.slowQueryLog = slowQueryLog;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource) {
+            return SlowQueryDataSource.wrap(dataSource, slowQueryLog::getObject);
+        }
+        return bean;
+    }
+}
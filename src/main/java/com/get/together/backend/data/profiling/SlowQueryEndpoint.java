@@ -0,0 +1,51 @@
+package com.get.together.backend.data.profiling;
+
+import com.get.together.backend.data.model.SlowQuery;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/slowqueries}: the recorded statements slowest first; a write with
+ * {@code thresholdMillis} changes the threshold, a delete empties the log. Not exposed over the web
+ * by default; add it to {@code management.endpoints.web.exposure.include} only behind access control.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    private final SlowQueryLog slowQueryLog;
+
+    @Autowired
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        return Map.of(
+                "enabled", slowQueryLog.isEnabled(),
+                "thresholdMillis", slowQueryLog.getThreshold().toMillis(),
+                "queries", slowQueryLog.slowest());
+    }
+
+    @WriteOperation
+    public Map<String, Object> threshold(long thresholdMillis) {
+        slowQueryLog.setThreshold(Duration.ofMillis(thresholdMillis));
+        return slowQueries();
+    }
+
+    @DeleteOperation
+    public List<SlowQuery> clear() {
+        val cleared = slowQueryLog.slowest();
+        slowQueryLog.clear();
+        return cleared;
+    }
+}
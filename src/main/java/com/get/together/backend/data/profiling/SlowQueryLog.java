@@ -0,0 +1,202 @@
+package com.get.together.backend.data.profiling;
+
+import com.get.together.backend.data.model.SlowQuery;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * The slowest statements above the threshold, in a fixed array that writers fill by claiming slots
+ * with one increment; once it is full, a statement replaces the fastest entry if it is slower. A
+ * fast statement costs a comparison: its SQL, binds and call site are only formatted once it turns
+ * out to be slow.
+ * <p>
+ * Binds are recorded as their type and length, as they hold mails, phone numbers and password
+ * hashes; {@code log-bind-values} records the values themselves.
+ */
+@Component
+public class SlowQueryLog {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final String APPLICATION_PACKAGE = "com.get.together.backend.";
+    private static final String SERVICE_PACKAGE = APPLICATION_PACKAGE.concat("data.service.");
+    private static final String PROFILING_PACKAGE = SlowQueryLog.class.getPackageName().concat(".");
+    private static final int MAX_BIND_LENGTH = 100;
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final boolean enabled;
+    private final boolean logBindValues;
+    private final AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong written = new AtomicLong();
+    private volatile long thresholdNanos;
+
+    @Autowired
+    public SlowQueryLog(@Value("${get-together.slow-query.enabled:true}") boolean enabled,
+                        @Value("${get-together.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${get-together.slow-query.capacity:100}") int capacity,
+                        @Value("${get-together.slow-query.log-bind-values:false}") boolean logBindValues) {
+        this.enabled = enabled;
+        this.logBindValues = logBindValues;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public void setThreshold(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Records the statement if it was slow; called on the thread that ran it, so the call site
+     * can still be found on the stack.
+     */
+    void record(String sql, Object[] binds, int bindCount, long elapsedNanos, Long rows) {
+        if (!isSlow(elapsedNanos)) {
+            return;
+        }
+        val entry = SlowQuery.builder()
+                .sql(normalize(sql))
+                .binds(format(binds, bindCount, logBindValues))
+                .elapsedMillis(elapsedNanos / 1_000_000.0)
+                .rows(rows)
+                .caller(caller())
+                .thread(Thread.currentThread().getName())
+                .executed(new Date())
+                .build();
+        val slot = written.getAndIncrement();
+        if (slot < entries.length()) {
+            entries.set((int) slot, entry);
+            return;
+        }
+        while (!replaceFastest(entry)) {
+            // another writer changed the entries meanwhile
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Puts the entry into a free slot or in place of the fastest entry if that is faster; false when
+     * the slot changed under it.
+     */
+    private boolean replaceFastest(SlowQuery entry) {
+        var fastest = -1;
+        SlowQuery fastestEntry = null;
+        for (int i = 0; i < entries.length(); i++) {
+            val current = entries.get(i);
+            if (Objects.isNull(current)) {
+                // a slot claimed but not yet written, or emptied by clear
+                if (entries.compareAndSet(i, null, entry)) {
+                    return true;
+                }
+                continue;
+            }
+            if (Objects.isNull(fastestEntry) || current.getElapsedMillis() < fastestEntry.getElapsedMillis()) {
+                fastest = i;
+                fastestEntry = current;
+            }
+        }
+        if (Objects.isNull(fastestEntry) || fastestEntry.getElapsedMillis() >= entry.getElapsedMillis()) {
+            return true;
+        }
+        return entries.compareAndSet(fastest, fastestEntry, entry);
+    }
+
+    /**
+     * The recorded statements, slowest first.
+     */
+    public List<SlowQuery> slowest() {
+        val result = new ArrayList<SlowQuery>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            val entry = entries.get(i);
+            if (Objects.nonNull(entry)) {
+                result.add(entry);
+            }
+        }
+        result.sort(Comparator.comparingDouble(SlowQuery::getElapsedMillis).reversed());
+        return result;
+    }
+
+    public void clear() {
+        written.set(0);
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    static String normalize(String sql) {
+        if (Objects.isNull(sql)) {
+            return null;
+        }
+        // padded IN lists differ only in their length
+        return PARAMETER_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("?, ...");
+    }
+
+    /**
+     * JDBC parameters are numbered from 1.
+     */
+    private static List<String> format(Object[] binds, int bindCount, boolean values) {
+        val result = new ArrayList<String>(bindCount);
+        for (int i = 1; i <= bindCount; i++) {
+            result.add(format(binds[i], values));
+        }
+        return result;
+    }
+
+    private static String format(Object bind, boolean values) {
+        if (bind instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (!values && Objects.nonNull(bind)) {
+            return bind instanceof CharSequence text
+                    ? "<" + bind.getClass().getSimpleName() + ", " + text.length() + " chars>"
+                    : "<" + bind.getClass().getSimpleName() + ">";
+        }
+        val value = String.valueOf(bind);
+        return value.length() > MAX_BIND_LENGTH ? value.substring(0, MAX_BIND_LENGTH).concat("...") : value;
+    }
+
+    /**
+     * The innermost service method on the stack, else the innermost application method.
+     */
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> {
+            String application = null;
+            for (val frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                val className = frame.getClassName();
+                if (!className.startsWith(APPLICATION_PACKAGE) || className.startsWith(PROFILING_PACKAGE)) {
+                    continue;
+                }
+                val site = className.substring(className.lastIndexOf('.') + 1).concat(".").concat(frame.getMethodName());
+                if (className.startsWith(SERVICE_PACKAGE)) {
+                    return site;
+                }
+                if (Objects.isNull(application)) {
+                    application = site;
+                }
+            }
+            return Objects.requireNonNullElse(application, "unknown");
+        });
+    }
+}
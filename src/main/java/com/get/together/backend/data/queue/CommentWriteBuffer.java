@@ -0,0 +1,199 @@
+package com.get.together.backend.data.queue;
+
+import com.get.together.backend.data.model.CommentModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+/**
+ * Write-behind of comments: accepted comments wait in a bounded buffer and a single writer inserts
+ * them in JDBC batches of up to {@code batch-size}, one transaction each. A batch is written once
+ * it is full or {@code flush-interval} after its first comment arrived. When the buffer is full,
+ * callers wait up to {@code offer-timeout} for room and then get 503.
+ * <p>
+ * Buffered comments are lost if the process dies before they are flushed; on shutdown the buffer
+ * is drained. A batch that fails is retried row by row, and rows that still fail, e.g. of an event
+ * deleted meanwhile, are dropped. Meters: {@code comment.buffer.size}, {@code comment.buffer.rejected}
+ * and {@code comment.buffer.dropped}.
+ */
+@Slf4j
+@Component
+public class CommentWriteBuffer {
+    private static final String INSERT_COMMENT = "insert into get_together.comment " +
+            "(description, created, owner_id, related_event_id) values (?, ?, ?, ?)";
+    // how often an idle writer checks for shutdown
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<CommentModel> buffer;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final ExecutorService writer;
+
+    private volatile boolean accepting = true;
+
+    @Autowired
+    public CommentWriteBuffer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${get-together.comment.write-behind.enabled:true}") boolean enabled,
+                              @Value("${get-together.comment.write-behind.capacity:10000}") int capacity,
+                              @Value("${get-together.comment.write-behind.batch-size:500}") int batchSize,
+                              @Value("${get-together.comment.write-behind.flush-interval:5ms}") Duration flushInterval,
+                              @Value("${get-together.comment.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                              @Value("${get-together.comment.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.rejected = Counter.builder("comment.buffer.rejected").register(meterRegistry);
+        this.dropped = Counter.builder("comment.buffer.dropped").register(meterRegistry);
+        Gauge.builder("comment.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+        this.writer = enabled
+                ? Executors.newSingleThreadExecutor(new CustomizableThreadFactory("comment-writer-"))
+                : null;
+        if (enabled) {
+            writer.execute(this::write);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes the comment of existing owner and event into the buffer, or throws 503 when it stays
+     * full for the offer timeout.
+     */
+    public void offer(CommentModel comment) {
+        if (!enabled) {
+            throw new IllegalStateException("Comment write-behind is disabled");
+        }
+        if (!accepting) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Comments are not accepted anymore");
+        }
+        try {
+            if (!buffer.offer(comment, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Comment buffer is full");
+            }
+            // the writer may have found the buffer empty and exited since the check above; a comment
+            // it did not take is taken back and refused rather than lost
+            if (!accepting && buffer.remove(comment)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Comments are not accepted anymore");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Comment interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (Objects.isNull(writer)) {
+            return;
+        }
+        accepting = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("{} buffered comments were not written", buffer.size());
+            writer.shutdownNow();
+        }
+    }
+
+    private void write() {
+        val batch = new ArrayList<CommentModel>(batchSize);
+        while (accepting || !buffer.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (final InterruptedException e) {
+                log.warn("Comment writer interrupted, {} buffered comments are not written", buffer.size());
+                return;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first comment, then gathers more until the batch is full or the flush interval
+     * since the first has passed.
+     */
+    private void collect(List<CommentModel> batch) throws InterruptedException {
+        val first = buffer.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (Objects.isNull(first)) {
+            return;
+        }
+        batch.add(first);
+        val deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            val left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return;
+            }
+            val next = buffer.poll(left, TimeUnit.NANOSECONDS);
+            if (Objects.isNull(next)) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<CommentModel> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_COMMENT, batch.stream().map(CommentWriteBuffer::row).toList()));
+        } catch (final RuntimeException e) {
+            log.warn("Comment batch of {} failed, writing it row by row: {}", batch.size(), e.getMessage());
+            batch.forEach(this::insert);
+        }
+    }
+
+    private void insert(CommentModel comment) {
+        try {
+            jdbcTemplate.update(INSERT_COMMENT, row(comment));
+        } catch (final DataAccessException e) {
+            dropped.increment();
+            log.warn("Dropped comment of user {} on event {}: {}", comment.getOwner().getId(),
+                    comment.getRelatedEvent().getId(), e.getMessage());
+        }
+    }
+
+    private static Object[] row(CommentModel comment) {
+        return new Object[]{comment.getDescription(), comment.getCreated(), comment.getOwner().getId(),
+                comment.getRelatedEvent().getId()};
+    }
+}
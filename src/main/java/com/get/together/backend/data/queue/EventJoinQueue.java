@@ -0,0 +1,280 @@
+package com.get.together.backend.data.queue;
+
+import com.get.together.backend.data.cache.EntityCache;
+import com.get.together.backend.data.cache.EntityCaches;
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.repository.EventRepository;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.routing.ReadYourWrites;
+import com.get.together.backend.exception.NotAcceptableException;
+import com.get.together.backend.exception.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hot event mode: joins of one event are queued and applied by a single writer in batches.
+ * <p>
+ * Each batch is one transaction that locks the event row once, decides every seat in memory
+ * against the free capacity, inserts the new attendee rows in one JDBC batch and moves the
+ * attending counter once. Callers wait on their own future. Batches of different events run on
+ * different writer threads.
+ */
+@Slf4j
+@Component
+public class EventJoinQueue {
+    private static final String INSERT_ATTENDEE = "insert into get_together.user_event (user_id, event_id) values (?, ?)";
+
+    private final EventRepository eventRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchCountCache searchCountCache;
+    private final ReadYourWrites readYourWrites;
+    private final EntityCache<Integer, EventModel> eventCache;
+    private final EntityCache<Integer, EventView> eventViewCache;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration timeout;
+
+    private final Map<Integer, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService writers;
+
+    @Autowired
+    public EventJoinQueue(EventRepository eventRepository, UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager, SearchCountCache searchCountCache,
+                          ReadYourWrites readYourWrites, EntityCaches entityCaches,
+                          @Value("${get-together.join.hot-events.enabled:false}") boolean enabled,
+                          @Value("${get-together.join.hot-events.batch-size:100}") int batchSize,
+                          @Value("${get-together.join.hot-events.writers:4}") int writers,
+                          @Value("${get-together.join.hot-events.timeout:5s}") Duration timeout) {
+        this.eventRepository = eventRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchCountCache = searchCountCache;
+        this.readYourWrites = readYourWrites;
+        this.eventCache = entityCaches.get(EntityCaches.EVENTS);
+        this.eventViewCache = entityCaches.get(EntityCaches.EVENT_VIEWS);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.writers = enabled
+                ? Executors.newFixedThreadPool(writers, new CustomizableThreadFactory("event-join-writer-"))
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A join that times out is withdrawn, unless a writer already took it up; then its decision is
+     * awaited, so a 503 always means no seat was taken. A seat taken is committed by a writer
+     * thread, so the caller's request is pinned to the primary here.
+     */
+    public SeatResult join(Integer eventId, Integer userId) {
+        val request = enqueue(eventId, userId);
+        try {
+            SeatResult result;
+            try {
+                result = request.result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (final TimeoutException e) {
+                if (request.claimed.compareAndSet(false, true)) {
+                    request.result.cancel(false);
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Join of event: ".concat(eventId.toString()).concat(" timed out"));
+                }
+                // the writer completes every request it claimed, committed or not
+                result = request.result.get();
+            }
+            if (result == SeatResult.JOINED) {
+                readYourWrites.written();
+            }
+            return result;
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof ResponseStatusException cause) {
+                throw cause;
+            }
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage(), e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Join interrupted");
+        }
+    }
+
+    public CompletableFuture<SeatResult> submit(Integer eventId, Integer userId) {
+        return enqueue(eventId, userId).result;
+    }
+
+    /**
+     * Stops the writers; joins still queued fail with 503 instead of waiting for their timeout.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (Objects.nonNull(writers)) {
+            writers.shutdown();
+            lanes.values().forEach(EventJoinQueue::fail);
+        }
+    }
+
+    private JoinRequest enqueue(Integer eventId, Integer userId) {
+        if (!enabled) {
+            throw new IllegalStateException("Hot event mode is disabled");
+        }
+        if (Objects.isNull(eventId) || Objects.isNull(userId)) {
+            throw new NotAcceptableException("eventId and userId must not be null");
+        }
+        val request = new JoinRequest(userId, new CompletableFuture<>(), new AtomicBoolean());
+        // offered under the map's lock on the key, so a drained lane is never removed with a request in it
+        val lane = lanes.compute(eventId, (id, current) -> {
+            val target = Objects.isNull(current) ? new Lane(id) : current;
+            target.queue.offer(request);
+            return target;
+        });
+        schedule(lane);
+        return request;
+    }
+
+    private void schedule(Lane lane) {
+        if (lane.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(lane));
+            } catch (final RejectedExecutionException e) {
+                lane.draining.set(false);
+                fail(lane);
+            }
+        }
+    }
+
+    private static void fail(Lane lane) {
+        JoinRequest request;
+        while (Objects.nonNull(request = lane.queue.poll())) {
+            request.result.completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Hot event queue is shut down"));
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            List<JoinRequest> batch;
+            while (!(batch = poll(lane)).isEmpty()) {
+                commit(lane.eventId, batch);
+            }
+        } finally {
+            // an empty lane is removed while it is still draining, so no second drain starts on it;
+            // the next join of the event creates a new lane
+            lanes.computeIfPresent(lane.eventId, (id, current) ->
+                    current == lane && lane.queue.isEmpty() ? null : current);
+            lane.draining.set(false);
+            // a request offered after the last poll but before the flag was cleared
+            if (!lane.queue.isEmpty()) {
+                schedule(lane);
+            }
+        }
+    }
+
+    private List<JoinRequest> poll(Lane lane) {
+        val batch = new ArrayList<JoinRequest>(batchSize);
+        JoinRequest request;
+        while (batch.size() < batchSize && Objects.nonNull(request = lane.queue.poll())) {
+            batch.add(request);
+        }
+        return batch;
+    }
+
+    private void commit(Integer eventId, List<JoinRequest> batch) {
+        final Map<JoinRequest, SeatResult> seats;
+        try {
+            seats = transactionTemplate.execute(status -> seat(eventId, batch));
+        } catch (final RuntimeException e) {
+            log.warn("Join batch of event {} failed: {}", eventId, e.getMessage());
+            batch.forEach(request -> request.result.completeExceptionally(e));
+            return;
+        }
+
+        if (seats.containsValue(SeatResult.JOINED)) {
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            eventCache.evict(eventId);
+            eventViewCache.evict(eventId);
+        }
+        for (val request : batch) {
+            val seat = seats.get(request);
+            if (Objects.isNull(seat)) {
+                request.result.completeExceptionally
+                        (new NotFoundException("user or event not found"));
+            } else {
+                request.result.complete(seat);
+            }
+        }
+    }
+
+    /**
+     * Decides the batch in arrival order; requests of unknown users or events get no entry.
+     */
+    private Map<JoinRequest, SeatResult> seat(Integer eventId, List<JoinRequest> batch) {
+        val seats = new HashMap<JoinRequest, SeatResult>();
+        val free = eventRepository.lockFreeSeats(eventId);
+        // requests withdrawn by a timed out caller are not counted against the free seats
+        val claimed = batch.stream().filter(request -> request.claimed.compareAndSet(false, true)).toList();
+        if (Objects.isNull(free) || claimed.isEmpty()) {
+            return seats;
+        }
+
+        val userIds = claimed.stream().map(JoinRequest::userId).distinct().toList();
+        val existing = new HashSet<>(userRepository.findExistingIds(userIds));
+        val attending = new HashSet<>(eventRepository.findAttendingUserIds(eventId, userIds));
+        val joined = new ArrayList<Object[]>();
+        var left = free;
+        for (val request : claimed) {
+            if (attending.contains(request.userId())) {
+                seats.put(request, SeatResult.ALREADY_ATTENDING);
+            } else if (!existing.contains(request.userId())) {
+                continue;
+            } else if (left > 0) {
+                left--;
+                attending.add(request.userId());
+                joined.add(new Object[]{request.userId(), eventId});
+                seats.put(request, SeatResult.JOINED);
+            } else {
+                seats.put(request, SeatResult.FULL);
+            }
+        }
+
+        if (!joined.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTENDEE, joined);
+            eventRepository.addSeats(eventId, joined.size());
+        }
+        return seats;
+    }
+
+    private record JoinRequest(Integer userId, CompletableFuture<SeatResult> result, AtomicBoolean claimed) {
+    }
+
+    private static class Lane {
+        final Integer eventId;
+        final Queue<JoinRequest> queue = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Lane(Integer eventId) {
+            this.eventId = eventId;
+        }
+    }
+}
@@ -2,14 +2,18 @@ package com.get.together.backend.data.repository;
 
 
 import com.get.together.backend.data.model.CommentModel;
+import com.get.together.backend.data.model.CommentView;
 import com.get.together.backend.data.model.EventModel;
 import com.get.together.backend.data.model.UserModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface CommentRepository extends PagingAndSortingRepository<CommentModel, Integer> {
@@ -23,4 +27,40 @@ public interface CommentRepository extends PagingAndSortingRepository<CommentMod
             (UserModel ownerId, Date createdBefore, Date createdAfter, Pageable pageable);
     Page<CommentModel> findAllByOwnerAndRelatedEventAndCreatedBeforeAndCreatedAfter
             (UserModel ownerId, EventModel relatedEventId, Date createdBefore, Date createdAfter, Pageable pageable);
+
+    /**
+     * Comments of the event, newest first.
+     */
+    @Query("select new com.get.together.backend.data.model.CommentView(c.id, c.description, c.created, " +
+            "c.owner.id, c.relatedEvent.id) from CommentModel c where c.relatedEvent.id = :eventId " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findFeedByEvent(@Param("eventId") Integer eventId, Pageable pageable);
+
+    /**
+     * {@link #findFeedByEvent} continued after the comment with the given created and id.
+     */
+    @Query("select new com.get.together.backend.data.model.CommentView(c.id, c.description, c.created, " +
+            "c.owner.id, c.relatedEvent.id) from CommentModel c where c.relatedEvent.id = :eventId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findFeedByEventAfter(@Param("eventId") Integer eventId, @Param("created") Date created,
+                                           @Param("id") Integer id, Pageable pageable);
+
+    /**
+     * Comments of the user, newest first.
+     */
+    @Query("select new com.get.together.backend.data.model.CommentView(c.id, c.description, c.created, " +
+            "c.owner.id, c.relatedEvent.id) from CommentModel c where c.owner.id = :ownerId " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findFeedByOwner(@Param("ownerId") Integer ownerId, Pageable pageable);
+
+    /**
+     * {@link #findFeedByOwner} continued after the comment with the given created and id.
+     */
+    @Query("select new com.get.together.backend.data.model.CommentView(c.id, c.description, c.created, " +
+            "c.owner.id, c.relatedEvent.id) from CommentModel c where c.owner.id = :ownerId " +
+            "and (c.created < :created or (c.created = :created and c.id < :id)) " +
+            "order by c.created desc, c.id desc")
+    List<CommentView> findFeedByOwnerAfter(@Param("ownerId") Integer ownerId, @Param("created") Date created,
+                                           @Param("id") Integer id, Pageable pageable);
 }
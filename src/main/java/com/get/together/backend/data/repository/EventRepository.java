@@ -1,32 +1,92 @@
 package com.get.together.backend.data.repository;
 
+import com.get.together.backend.data.model.EventMatch;
 import com.get.together.backend.data.model.EventModel;
-import com.get.together.backend.data.model.UserModel;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import com.get.together.backend.data.model.EventTextView;
+import com.get.together.backend.data.model.EventView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Date;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EventRepository extends PagingAndSortingRepository<EventModel, Integer> {
-
-    Page<EventModel> findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
-            (String header, Boolean isActive, Date createdBefore, Date createdAfter, Pageable pageable);
-    Page<EventModel> findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
-            (String header, Date createdBefore, Date createdAfter, Pageable pageable);
-    Page<EventModel> findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
-            (String description, Boolean isActive, Date createdBefore, Date createdAfter, Pageable pageable);
-    Page<EventModel> findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
-            (String description, Date createdBefore, Date createdAfter, Pageable pageable);
-    Page<EventModel> findAllByIsActiveAndCreatedBeforeAndCreatedAfter
-            (Boolean isActive, Date createdBefore, Date createdAfter, Pageable pageable);
-    Page<EventModel> findAllByCreatedBeforeAndCreatedAfter
-            (Date createdBefore, Date createdAfter, Pageable pageable);
-    Page<EventModel> findAllByCapacityBetween(Integer capacityMin, Integer capacityMax, Pageable pageable);
-    Page<EventModel> findAllByCapacityBetweenAndAttendingBetween
-            (Integer capacityMin, Integer capacityMax, Integer attendingMin, Integer attendingMax, Pageable pageable);
-}
\ No newline at end of file
+public interface EventRepository extends PagingAndSortingRepository<EventModel, Integer>, EventSearchRepository {
+    List<EventTextView> findAllByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
+    List<EventModel> findAllByIdIn(Collection<Integer> ids);
+
+    /**
+     * Takes a seat for the user if one is left and the user exists and does not attend yet. The
+     * row lock on the event serializes concurrent joins of it until the transaction ends.
+     */
+    @Modifying
+    @Query(value = "update get_together.event e set e.attending = e.attending + 1 " +
+            "where e.id = :eventId and e.attending < e.capacity " +
+            "and exists (select 1 from get_together.user u where u.id = :userId) " +
+            "and not exists (select 1 from get_together.user_event ue " +
+            "where ue.event_id = :eventId and ue.user_id = :userId)", nativeQuery = true)
+    int takeSeat(@Param("eventId") Integer eventId, @Param("userId") Integer userId);
+
+    @Modifying
+    @Query(value = "update get_together.event e set e.attending = e.attending - 1 where e.id = :eventId",
+            nativeQuery = true)
+    int releaseSeat(@Param("eventId") Integer eventId);
+
+    @Modifying
+    @Query(value = "update get_together.event e set e.attending = e.attending + :seats where e.id = :eventId",
+            nativeQuery = true)
+    int addSeats(@Param("eventId") Integer eventId, @Param("seats") int seats);
+
+    /**
+     * Free seats of the event, locking its row until the transaction ends; null if there is no such event.
+     */
+    @Query(value = "select e.capacity - e.attending from get_together.event e where e.id = :eventId for update",
+            nativeQuery = true)
+    Integer lockFreeSeats(@Param("eventId") Integer eventId);
+
+    @Query(value = "select ue.user_id from get_together.user_event ue " +
+            "where ue.event_id = :eventId and ue.user_id in (:userIds)", nativeQuery = true)
+    List<Integer> findAttendingUserIds(@Param("eventId") Integer eventId, @Param("userIds") Collection<Integer> userIds);
+
+    @Modifying
+    @Query(value = "insert ignore into get_together.user_event (user_id, event_id) values (:userId, :eventId)",
+            nativeQuery = true)
+    int insertAttendee(@Param("eventId") Integer eventId, @Param("userId") Integer userId);
+
+    @Query("select new com.get.together.backend.data.model.EventView(e.id, e.header, e.description, e.capacity, " +
+            "e.attending, e.created, e.isActive, e.host.id) from EventModel e where e.id = :id")
+    Optional<EventView> findViewById(@Param("id") Integer id);
+
+    @Query("select new com.get.together.backend.data.model.EventView(e.id, e.header, e.description, e.capacity, " +
+            "e.attending, e.created, e.isActive, e.host.id) from EventModel e where e.id in :ids")
+    List<EventView> findViewsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Events matching the natural language full-text query in header or description, by
+     * descending relevance, then id.
+     */
+    @Query(value = "select e.id as id, e.header as header, e.description as description, " +
+            "e.capacity as capacity, e.attending as attending, e.created as created, e.is_active as isActive, " +
+            "e.host_id as hostId, match (e.header, e.description) against (:query) as score " +
+            "from get_together.event e where match (e.header, e.description) against (:query) " +
+            "order by score desc, e.id asc", nativeQuery = true)
+    List<EventMatch> findAllMatching(@Param("query") String query, Pageable pageable);
+
+    /**
+     * {@link #findAllMatching} continued after the match with the given score and id.
+     */
+    @Query(value = "select e.id as id, e.header as header, e.description as description, " +
+            "e.capacity as capacity, e.attending as attending, e.created as created, e.is_active as isActive, " +
+            "e.host_id as hostId, match (e.header, e.description) against (:query) as score " +
+            "from get_together.event e where match (e.header, e.description) against (:query) " +
+            "and (match (e.header, e.description) against (:query) < :score " +
+            "or (match (e.header, e.description) against (:query) = :score and e.id > :id)) " +
+            "order by score desc, e.id asc", nativeQuery = true)
+    List<EventMatch> findAllMatchingAfter(@Param("query") String query, @Param("score") double score,
+                                          @Param("id") Integer id, Pageable pageable);
+}
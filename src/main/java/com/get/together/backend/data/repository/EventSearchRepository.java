@@ -0,0 +1,27 @@
+package com.get.together.backend.data.repository;
+
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.util.KeysetCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.stream.Stream;
+
+public interface EventSearchRepository {
+    Page<EventView> search(EventSearchCriteria criteria, Pageable pageable);
+
+    Slice<EventView> searchSlice(EventSearchCriteria criteria, Pageable pageable);
+
+    long count(EventSearchCriteria criteria);
+
+    Slice<EventView> searchAfter(EventSearchCriteria criteria, KeysetCursor after,
+                                  String sortBy, Sort.Direction direction, int size);
+
+    /**
+     * Every match in id order from a forward-only cursor; consume it inside a transaction.
+     */
+    Stream<EventView> stream(EventSearchCriteria criteria);
+}
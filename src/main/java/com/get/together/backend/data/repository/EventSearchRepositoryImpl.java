@@ -0,0 +1,102 @@
+package com.get.together.backend.data.repository;
+
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.repository.support.CompiledCriteriaSearch;
+import com.get.together.backend.data.util.KeysetCursor;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.Collection;
+import java.util.Date;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public class EventSearchRepositoryImpl extends CompiledCriteriaSearch<EventModel, EventView> implements EventSearchRepository {
+    private static final EscapeCharacter ESCAPE = EscapeCharacter.DEFAULT;
+
+    private final int fetchSize;
+
+    public EventSearchRepositoryImpl(@Value("${get-together.export.fetch-size:1000}") int fetchSize) {
+        super(EventModel.class, EventView.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Page<EventView> search(EventSearchCriteria criteria, Pageable pageable) {
+        return search(criteria.parameters(), pageable);
+    }
+
+    @Override
+    public Slice<EventView> searchSlice(EventSearchCriteria criteria, Pageable pageable) {
+        return searchSlice(criteria.parameters(), pageable);
+    }
+
+    @Override
+    public Stream<EventView> stream(EventSearchCriteria criteria) {
+        return stream(criteria.parameters(), Sort.by(KeysetCursor.ID), fetchSize);
+    }
+
+    @Override
+    public long count(EventSearchCriteria criteria) {
+        return count(criteria.parameters());
+    }
+
+    @Override
+    public Slice<EventView> searchAfter(EventSearchCriteria criteria, KeysetCursor after,
+                                         String sortBy, Sort.Direction direction, int size) {
+        return searchAfter(criteria.parameters(), after, sortBy, direction, size);
+    }
+
+    @Override
+    protected Selection<EventView> toSelection(CriteriaBuilder cb, Root<EventModel> root) {
+        // host.id resolves to the host_id column; the user table is not joined
+        return cb.construct(EventView.class, root.get("id"), root.get("header"), root.get("description"),
+                root.get("capacity"), root.get("attending"), root.get("created"), root.get("isActive"),
+                root.get("host").get("id"));
+    }
+
+    @Override
+    protected Predicate toPredicate(CriteriaBuilder cb, Root<EventModel> root, String parameter) {
+        return switch (parameter) {
+            case "ids" -> root.get("id").in(cb.parameter(Collection.class, parameter));
+            case "header", "description" -> cb.like(cb.upper(root.<String>get(parameter)),
+                    cb.upper(cb.parameter(String.class, parameter)), ESCAPE.getEscapeCharacter());
+            case "text" -> {
+                val pattern = cb.upper(cb.parameter(String.class, parameter));
+                yield cb.or(
+                        cb.like(cb.upper(root.<String>get("header")), pattern, ESCAPE.getEscapeCharacter()),
+                        cb.like(cb.upper(root.<String>get("description")), pattern, ESCAPE.getEscapeCharacter()));
+            }
+            case "isActive" -> cb.equal(root.get("isActive"), cb.parameter(Boolean.class, parameter));
+            case "createdBefore" -> cb.lessThan(root.<Date>get("created"), cb.parameter(Date.class, parameter));
+            case "createdAfter" -> cb.greaterThan(root.<Date>get("created"), cb.parameter(Date.class, parameter));
+            case "capacityMin" -> cb.greaterThanOrEqualTo(root.<Integer>get("capacity"), cb.parameter(Integer.class, parameter));
+            case "capacityMax" -> cb.lessThanOrEqualTo(root.<Integer>get("capacity"), cb.parameter(Integer.class, parameter));
+            case "attendingMin" -> cb.greaterThanOrEqualTo(root.<Integer>get("attending"), cb.parameter(Integer.class, parameter));
+            case "attendingMax" -> cb.lessThanOrEqualTo(root.<Integer>get("attending"), cb.parameter(Integer.class, parameter));
+            case "hostId" -> cb.equal(root.get("host").get("id"), cb.parameter(Integer.class, parameter));
+            default -> throw new IllegalArgumentException("Unknown event filter: ".concat(parameter));
+        };
+    }
+
+    @Override
+    protected Object toParameterValue(String parameter, Object value) {
+        return switch (parameter) {
+            // same pattern Spring Data derives for ContainingIgnoreCase
+            case "header", "description", "text" -> "%".concat(ESCAPE.escape((String) value)).concat("%");
+            default -> value;
+        };
+    }
+}
@@ -1,28 +1,39 @@
 package com.get.together.backend.data.repository;
 
-import com.get.together.backend.data.model.EventModel;
 import com.get.together.backend.data.model.UserModel;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Date;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface UserRepository extends PagingAndSortingRepository<UserModel, Integer> {
+public interface UserRepository extends PagingAndSortingRepository<UserModel, Integer>, UserSearchRepository {
     Boolean existsByUserName(String userName);
     Boolean existsByPhoneNumber(String phoneNumber);
     Boolean existsByMail(String mail);
-    Page<UserModel> findAllByUserNameContainingIgnoreCase
-            (String userName, Pageable pageable);
     UserModel findByUserName(String userName);
-    Page<UserModel> findAllByFirstNameContainingIgnoreCase
-            (String firstName, Pageable pageable);
-    Page<UserModel> findAllByLastNameContainingIgnoreCase
-            (String lastName, Pageable pageable);
-    Page<UserModel> findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase
-            (String firstName, String lastName, Pageable pageable);
-    Page<UserModel> findAllByMailContainingIgnoreCase(String mail, Pageable pageable);
+    List<UserModel> findAllByAttendedEventsId(Integer eventId);
+    Boolean existsByIdAndAttendedEventsId(Integer id, Integer eventId);
+    List<UserModel> findAllByIdIn(Collection<Integer> ids);
+    List<UserModel> findAllByUserNameIn(Collection<String> userNames);
+    List<UserModel> findAllByIdInOrUserNameIn(Collection<Integer> ids, Collection<String> userNames);
+
+    @Query("select u.id from UserModel u where u.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select u.userName from UserModel u where u.userName in :userNames")
+    List<String> findExistingUserNames(@Param("userNames") Collection<String> userNames);
+
+    @Query("select u.mail from UserModel u where u.mail in :mails")
+    List<String> findExistingMails(@Param("mails") Collection<String> mails);
 
-    Page<UserModel> findAllByPhoneNumberContaining(String phoneNUmber, Pageable pageable);
+    /**
+     * One row per user holding either value: true where the user name matches, false where only the mail does.
+     */
+    @Query("select case when u.userName = :userName then true else false end from UserModel u " +
+            "where u.userName = :userName or u.mail = :mail")
+    List<Boolean> findUserNameOrMailConflicts(@Param("userName") String userName, @Param("mail") String mail);
 }
@@ -0,0 +1,27 @@
+package com.get.together.backend.data.repository;
+
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.model.UserSearchCriteria;
+import com.get.together.backend.data.util.KeysetCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.stream.Stream;
+
+public interface UserSearchRepository {
+    Page<UserModel> search(UserSearchCriteria criteria, Pageable pageable);
+
+    Slice<UserModel> searchSlice(UserSearchCriteria criteria, Pageable pageable);
+
+    long count(UserSearchCriteria criteria);
+
+    Slice<UserModel> searchAfter(UserSearchCriteria criteria, KeysetCursor after,
+                                 String sortBy, Sort.Direction direction, int size);
+
+    /**
+     * Every match in id order from a forward-only cursor; consume it inside a transaction.
+     */
+    Stream<UserModel> stream(UserSearchCriteria criteria);
+}
@@ -0,0 +1,73 @@
+package com.get.together.backend.data.repository;
+
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.model.UserSearchCriteria;
+import com.get.together.backend.data.repository.support.CompiledCriteriaSearch;
+import com.get.together.backend.data.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.stream.Stream;
+
+@Transactional(readOnly = true)
+public class UserSearchRepositoryImpl extends CompiledCriteriaSearch<UserModel, UserModel> implements UserSearchRepository {
+    private static final EscapeCharacter ESCAPE = EscapeCharacter.DEFAULT;
+
+    private final int fetchSize;
+
+    public UserSearchRepositoryImpl(@Value("${get-together.export.fetch-size:1000}") int fetchSize) {
+        super(UserModel.class, UserModel.class);
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Page<UserModel> search(UserSearchCriteria criteria, Pageable pageable) {
+        return search(criteria.parameters(), pageable);
+    }
+
+    @Override
+    public Slice<UserModel> searchSlice(UserSearchCriteria criteria, Pageable pageable) {
+        return searchSlice(criteria.parameters(), pageable);
+    }
+
+    @Override
+    public Stream<UserModel> stream(UserSearchCriteria criteria) {
+        return stream(criteria.parameters(), Sort.by(KeysetCursor.ID), fetchSize);
+    }
+
+    @Override
+    public long count(UserSearchCriteria criteria) {
+        return count(criteria.parameters());
+    }
+
+    @Override
+    public Slice<UserModel> searchAfter(UserSearchCriteria criteria, KeysetCursor after,
+                                        String sortBy, Sort.Direction direction, int size) {
+        return searchAfter(criteria.parameters(), after, sortBy, direction, size);
+    }
+
+    @Override
+    protected Predicate toPredicate(CriteriaBuilder cb, Root<UserModel> root, String parameter) {
+        return switch (parameter) {
+            case "userName", "firstName", "lastName", "mail" -> cb.like(cb.upper(root.<String>get(parameter)),
+                    cb.upper(cb.parameter(String.class, parameter)), ESCAPE.getEscapeCharacter());
+            case "phoneNumber" -> cb.like(root.<String>get(parameter),
+                    cb.parameter(String.class, parameter), ESCAPE.getEscapeCharacter());
+            default -> throw new IllegalArgumentException("Unknown user filter: ".concat(parameter));
+        };
+    }
+
+    @Override
+    protected Object toParameterValue(String parameter, Object value) {
+        // same pattern Spring Data derives for Containing
+        return "%".concat(ESCAPE.escape((String) value)).concat("%");
+    }
+}
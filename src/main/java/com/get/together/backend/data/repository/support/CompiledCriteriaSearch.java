@@ -0,0 +1,242 @@
+package com.get.together.backend.data.repository.support;
+
+import com.get.together.backend.data.util.KeysetCursor;
+import lombok.val;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Base for criteria searches over an optional set of filters.
+ * <p>
+ * Every filter is rendered with a named parameter, so the query shape only depends on which
+ * filters are present and on the sort. A shape is built as a criteria query once per signature, and
+ * only its rendered JPQL is kept. Later searches create their query from that string, which
+ * Hibernate's query plan cache parses once; the driver's prepared statement cache then sees
+ * identical SQL for identical signatures.
+ * <p>
+ * Queries run over entity {@code T} and return {@code R}; override {@link #toSelection} to select a
+ * projection instead of the entity.
+ */
+public abstract class CompiledCriteriaSearch<T, R> {
+    private static final String KEYSET_VALUE = "keysetValue";
+    private static final String KEYSET_ID = "keysetId";
+
+    private final Class<T> type;
+    private final Class<R> resultType;
+    // rendered queries by signature; criteria queries are mutable and not shared between threads
+    private final Map<String, Rendered> selects = new ConcurrentHashMap<>();
+    private final Map<String, Rendered> keysetSelects = new ConcurrentHashMap<>();
+    private final Map<String, Rendered> counts = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    protected CompiledCriteriaSearch(Class<T> type, Class<R> resultType) {
+        this.type = type;
+        this.resultType = resultType;
+    }
+
+    /**
+     * Builds the predicate for one filter, binding its value through
+     * {@code cb.parameter(type, parameter)}.
+     */
+    protected abstract Predicate toPredicate(CriteriaBuilder cb, Root<T> root, String parameter);
+
+    @SuppressWarnings("unchecked")
+    protected Selection<R> toSelection(CriteriaBuilder cb, Root<T> root) {
+        return (Selection<R>) root;
+    }
+
+    protected Object toParameterValue(String parameter, Object value) {
+        return value;
+    }
+
+    public Page<R> search(Map<String, Object> parameters, Pageable pageable) {
+        val query = select(parameters, pageable.getSort());
+        bind(query, parameters);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(parameters));
+    }
+
+    /**
+     * Offset page without a count query; one extra row is read to tell whether a next page exists.
+     */
+    public Slice<R> searchSlice(Map<String, Object> parameters, Pageable pageable) {
+        val query = select(parameters, pageable.getSort());
+        bind(query, parameters);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        val content = query.getResultList();
+        val hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Keyset page: rows strictly after {@code after} in (sortBy, id) order, without offset or
+     * count. A null cursor reads the first page.
+     */
+    public Slice<R> searchAfter(Map<String, Object> parameters, KeysetCursor after,
+                                String sortBy, Sort.Direction direction, int size) {
+        val keyset = Objects.nonNull(after);
+        val signature = signature(parameters, Sort.by(direction, sortBy))
+                .concat(keyset ? "|after" : "|first");
+        val query = create(keysetSelects.computeIfAbsent(signature,
+                key -> render(compileKeysetSelect(parameters, sortBy, direction, keyset))), resultType);
+        bind(query, parameters);
+        if (keyset) {
+            query.setParameter(KEYSET_VALUE, after.getValue());
+            if (!sortBy.equals(KeysetCursor.ID)) {
+                query.setParameter(KEYSET_ID, after.getId());
+            }
+        }
+        query.setMaxResults(size + 1);
+
+        val content = query.getResultList();
+        val hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content,
+                PageRequest.of(0, size, keysetSort(sortBy, direction)), hasNext);
+    }
+
+    /**
+     * All matching rows in {@code sort} order from a forward-only cursor reading {@code fetchSize}
+     * rows at a time. Entities are detached as they are read, so the persistence context stays
+     * empty; the stream must be consumed and closed inside the caller's transaction.
+     */
+    public Stream<R> stream(Map<String, Object> parameters, Sort sort, int fetchSize) {
+        val query = select(parameters, sort);
+        bind(query, parameters);
+        query.setHint(QueryHints.HINT_FETCH_SIZE, fetchSize);
+        query.setHint(QueryHints.HINT_READONLY, true);
+        val rows = query.getResultStream();
+        return resultType.equals(type) ? rows.peek(entityManager::detach) : rows;
+    }
+
+    public long count(Map<String, Object> parameters) {
+        val query = create(counts.computeIfAbsent(signature(parameters, Sort.unsorted()),
+                signature -> render(compileCount(parameters))), Long.class);
+        bind(query, parameters);
+        return query.getSingleResult();
+    }
+
+    protected TypedQuery<R> select(Map<String, Object> parameters, Sort sort) {
+        return create(selects.computeIfAbsent(signature(parameters, sort),
+                signature -> render(compileSelect(parameters, sort))), resultType);
+    }
+
+    protected void bind(TypedQuery<?> query, Map<String, Object> parameters) {
+        parameters.forEach((name, value) -> query.setParameter(name, toParameterValue(name, value)));
+    }
+
+    protected String signature(Map<String, Object> parameters, Sort sort) {
+        return String.join(",", parameters.keySet()).concat("|").concat(sort.toString());
+    }
+
+    /**
+     * The JPQL Hibernate renders for {@code criteria}, with the values of the parameters it
+     * generated for literals such as the LIKE escape character.
+     */
+    private Rendered render(CriteriaQuery<?> criteria) {
+        // the adapter only exposes the explicit parameters; the generated ones are bound underneath
+        val query = entityManager.createQuery(criteria).unwrap(Query.class);
+        val literals = new HashMap<String, Object>();
+        for (val name : query.getParameterMetadata().getNamedParameterNames()) {
+            val parameter = query.getParameter(name);
+            if (query.isBound(parameter)) {
+                literals.put(name, query.getParameterValue(parameter));
+            }
+        }
+        return new Rendered(query.getQueryString(), Map.copyOf(literals));
+    }
+
+    private <Q> TypedQuery<Q> create(Rendered rendered, Class<Q> type) {
+        val query = entityManager.createQuery(rendered.jpql(), type);
+        rendered.literals().forEach(query::setParameter);
+        return query;
+    }
+
+    private CriteriaQuery<R> compileSelect(Map<String, Object> parameters, Sort sort) {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(resultType);
+        val root = query.from(type);
+        query.select(toSelection(cb, root)).where(predicates(cb, root, parameters));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return query;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private CriteriaQuery<R> compileKeysetSelect(Map<String, Object> parameters, String sortBy,
+                                                 Sort.Direction direction, boolean keyset) {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(resultType);
+        val root = query.from(type);
+        val predicates = new ArrayList<>(List.of(predicates(cb, root, parameters)));
+        if (keyset) {
+            val ascending = direction.isAscending();
+            Path<Comparable> key = root.get(sortBy);
+            Path<Comparable> id = root.get(KeysetCursor.ID);
+            if (sortBy.equals(KeysetCursor.ID)) {
+                val value = cb.parameter(Comparable.class, KEYSET_VALUE);
+                predicates.add(ascending ? cb.greaterThan(id, value) : cb.lessThan(id, value));
+            } else {
+                // (key, id) > (:value, :id), with the redundant bound on key so MySQL can range-scan
+                val value = cb.parameter(Comparable.class, KEYSET_VALUE);
+                val lastId = cb.parameter(Comparable.class, KEYSET_ID);
+                predicates.add(ascending ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value));
+                predicates.add(cb.or(
+                        ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                        ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId)));
+            }
+        }
+        query.select(toSelection(cb, root)).where(predicates.toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(keysetSort(sortBy, direction), root, cb));
+        return query;
+    }
+
+    private static Sort keysetSort(String sortBy, Sort.Direction direction) {
+        return sortBy.equals(KeysetCursor.ID)
+                ? Sort.by(direction, KeysetCursor.ID)
+                : Sort.by(direction, sortBy, KeysetCursor.ID);
+    }
+
+    private CriteriaQuery<Long> compileCount(Map<String, Object> parameters) {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(Long.class);
+        val root = query.from(type);
+        return query.select(cb.count(root)).where(predicates(cb, root, parameters));
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<T> root, Map<String, Object> parameters) {
+        return parameters.keySet().stream()
+                .map(parameter -> toPredicate(cb, root, parameter))
+                .toArray(Predicate[]::new);
+    }
+
+    private record Rendered(String jpql, Map<String, Object> literals) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.get.together.backend.data.routing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the statements of the annotated method on the pool of its {@link Workload}. Unannotated work
+ * counts as {@link Workload#READ} in read-only transactions and as {@link Workload#WRITE} otherwise.
+ * A method joining a transaction that already holds a connection keeps that connection.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    Workload value();
+}
@@ -0,0 +1,41 @@
+package com.get.together.backend.data.routing;
+
+import lombok.val;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Holds the {@link Workload} of the running {@link Bulkhead} method for the thread, so connections
+ * fetched meanwhile come from its pool.
+ */
+@Aspect
+@Component
+public class BulkheadAspect {
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    @Around("@annotation(bulkhead)")
+    public Object around(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) throws Throwable {
+        val outer = CURRENT.get();
+        CURRENT.set(bulkhead.value());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (Objects.isNull(outer)) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    /**
+     * The workload of the innermost running {@link Bulkhead} method, {@code null} outside one.
+     */
+    static Workload current() {
+        return CURRENT.get();
+    }
+}
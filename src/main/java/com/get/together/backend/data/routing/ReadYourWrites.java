@@ -0,0 +1,47 @@
+package com.get.together.backend.data.routing;
+
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Keeps the reads of a web request on the primary for the replica lag tolerance after the request
+ * wrote, so it sees its own writes before they reach the replicas. Outside a web request nothing
+ * is pinned.
+ */
+@Component
+public class ReadYourWrites {
+    private static final String PINNED_UNTIL = ReadYourWrites.class.getName().concat(".pinnedUntil");
+
+    private final long lagToleranceNanos;
+
+    @Autowired
+    public ReadYourWrites(@Value("${get-together.datasource.replica-lag-tolerance:1s}") Duration lagTolerance) {
+        this.lagToleranceNanos = lagTolerance.toNanos();
+    }
+
+    /**
+     * Call once a write of the current request is committed.
+     */
+    public void written() {
+        val attributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.nonNull(attributes) && lagToleranceNanos > 0) {
+            attributes.setAttribute(PINNED_UNTIL, System.nanoTime() + lagToleranceNanos, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public boolean isPinned() {
+        val attributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(attributes)) {
+            return false;
+        }
+        return attributes.getAttribute(PINNED_UNTIL, RequestAttributes.SCOPE_REQUEST) instanceof Long pinnedUntil
+                && System.nanoTime() - pinnedUntil < 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.get.together.backend.data.routing;
+
+/**
+ * The connection pool a unit of work draws from; see {@link Bulkhead}.
+ */
+public enum Workload {
+    /**
+     * Interactive reads, served by the replicas when there are any.
+     */
+    READ,
+    /**
+     * Interactive writes and the reads that have to see them.
+     */
+    WRITE,
+    /**
+     * Imports, exports and index builds, which hold a connection for long.
+     */
+    BULK
+}
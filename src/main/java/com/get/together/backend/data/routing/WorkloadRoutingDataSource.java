@@ -0,0 +1,99 @@
+package com.get.together.backend.data.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.val;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives every {@link Workload} its own pool of primary connections, so one kind of work exhausting
+ * its pool leaves the others unaffected. Interactive reads in read-only transactions go to the
+ * replicas in turn, if any, unless the request just wrote, see {@link ReadYourWrites}.
+ * <p>
+ * Connections are fetched on the first statement: the transaction manager asks for one before it
+ * marks the transaction read-only. Bound to a registry, every pool reports the {@code hikaricp.*}
+ * meters tagged with its pool name, {@code hikaricp.connections.pending} being its queue of waiting
+ * threads.
+ */
+public class WorkloadRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable, MeterBinder {
+    private final Set<HikariDataSource> pools;
+
+    /**
+     * @param primary  the pool of every workload; workloads may share a pool
+     * @param replicas pools of interactive reads, may be empty
+     */
+    public WorkloadRoutingDataSource(Map<Workload, HikariDataSource> primary, List<HikariDataSource> replicas,
+                                     ReadYourWrites readYourWrites) {
+        super(new Router(primary, replicas, readYourWrites));
+        this.pools = new LinkedHashSet<>(primary.values());
+        this.pools.addAll(replicas);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        val metricsTrackerFactory = new MicrometerMetricsTrackerFactory(registry);
+        pools.forEach(pool -> pool.setMetricsTrackerFactory(metricsTrackerFactory));
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static final class Router extends AbstractDataSource {
+        private final Map<Workload, HikariDataSource> primary;
+        private final List<HikariDataSource> replicas;
+        private final ReadYourWrites readYourWrites;
+        private final AtomicInteger next = new AtomicInteger();
+
+        Router(Map<Workload, HikariDataSource> primary, List<HikariDataSource> replicas,
+               ReadYourWrites readYourWrites) {
+            this.primary = new EnumMap<>(primary);
+            this.replicas = List.copyOf(replicas);
+            this.readYourWrites = readYourWrites;
+            for (val workload : Workload.values()) {
+                Objects.requireNonNull(this.primary.get(workload), "No pool for ".concat(workload.name()));
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return route().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return route().getConnection(username, password);
+        }
+
+        private HikariDataSource route() {
+            val readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            val workload = Objects.requireNonNullElse(BulkheadAspect.current(), readOnly ? Workload.READ : Workload.WRITE);
+            if (!readOnly) {
+                if (TransactionSynchronizationManager.isActualTransactionActive()
+                        && TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            readYourWrites.written();
+                        }
+                    });
+                }
+            } else if (workload == Workload.READ && !replicas.isEmpty() && !readYourWrites.isPinned()) {
+                return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            }
+            return primary.get(workload);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.get.together.backend.data.service;
+
+import com.get.together.backend.data.metrics.SearchMetrics;
+import com.get.together.backend.data.model.CommentModel;
+import com.get.together.backend.data.model.CommentView;
+import com.get.together.backend.data.queue.CommentWriteBuffer;
+import com.get.together.backend.data.repository.CommentRepository;
+import com.get.together.backend.data.util.GenericPagedModel;
+import com.get.together.backend.data.util.KeysetCursor;
+import com.get.together.backend.data.util.PageQuery;
+import com.get.together.backend.data.validator.CommentValidator;
+import com.get.together.backend.exception.BadRequestException;
+import com.get.together.backend.exception.NotAcceptableException;
+import com.get.together.backend.util.SortDirection;
+import io.micrometer.core.annotation.Timed;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Timed(value = "service.invocations", histogram = true)
+@Transactional(readOnly = true)
+public class CommentService {
+    public static final String COMMENTS = "comments";
+
+    final CommentRepository commentRepository;
+    final CommentValidator commentValidator;
+    final CommentWriteBuffer commentWriteBuffer;
+    final UserService userService;
+    final EventService eventService;
+    final SearchMetrics searchMetrics;
+    final int maxPageSize;
+
+    @Autowired
+    public CommentService(CommentRepository commentRepository, CommentValidator commentValidator,
+                          CommentWriteBuffer commentWriteBuffer, UserService userService, EventService eventService,
+                          SearchMetrics searchMetrics,
+                          @Value("${get-together.comment.max-page-size:100}") int maxPageSize) {
+        this.commentRepository = commentRepository;
+        this.commentValidator = commentValidator;
+        this.commentWriteBuffer = commentWriteBuffer;
+        this.userService = userService;
+        this.eventService = eventService;
+        this.searchMetrics = searchMetrics;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Accepts a comment of an existing user on an existing event. With write-behind the comment is
+     * buffered and returned without id, to show up in the feeds once flushed; otherwise it is saved
+     * right away.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CommentModel add(Integer eventId, Integer userId, String description) {
+        if (Objects.isNull(eventId) || Objects.isNull(userId)) {
+            throw new NotAcceptableException("eventId and userId must not be null");
+        }
+        val comment = CommentModel.builder()
+                .description(description)
+                .created(new Date())
+                .owner(userService.findById(userId))
+                .relatedEvent(eventService.findById(eventId))
+                .build();
+        commentValidator.validate(comment);
+
+        try {
+            if (!commentWriteBuffer.isEnabled()) {
+                return commentRepository.save(comment);
+            }
+            commentWriteBuffer.offer(comment);
+            return comment;
+        } catch (final DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", e);
+        }
+    }
+
+    /**
+     * Comments of the event newest first; {@code after} takes the {@code nextCursor} of the previous
+     * page. 404 for an unknown event, an empty page for one without comments.
+     */
+    public GenericPagedModel<CommentView> findByEvent(Integer eventId, int size, String after) {
+        val result = feed(feedQuery(size, after), (cursor, pageable) -> Objects.isNull(cursor)
+                ? commentRepository.findFeedByEvent(eventId, pageable)
+                : commentRepository.findFeedByEventAfter(eventId, (Date) cursor.getValue(), cursor.getId(), pageable));
+        if (result.getNumberOfElements() == 0) {
+            // tells an unknown event from one without comments
+            eventService.findById(eventId);
+        }
+        return result;
+    }
+
+    /**
+     * Comments of the user newest first, like {@link #findByEvent}.
+     */
+    public GenericPagedModel<CommentView> findByUser(Integer userId, int size, String after) {
+        val result = feed(feedQuery(size, after), (cursor, pageable) -> Objects.isNull(cursor)
+                ? commentRepository.findFeedByOwner(userId, pageable)
+                : commentRepository.findFeedByOwnerAfter(userId, (Date) cursor.getValue(), cursor.getId(), pageable));
+        if (result.getNumberOfElements() == 0) {
+            userService.findById(userId);
+        }
+        return result;
+    }
+
+    private PageQuery feedQuery(int size, String after) {
+        if (size < 1) {
+            throw new BadRequestException("pageSize must be positive");
+        }
+        if (size > maxPageSize) {
+            throw new BadRequestException("At most " + maxPageSize + " comments per page");
+        }
+        return PageQuery.builder()
+                .size(size)
+                .sortBy(KeysetCursor.CREATED)
+                .sortDirection(SortDirection.Descending)
+                .after(Objects.requireNonNullElse(after, ""))
+                .build();
+    }
+
+    private GenericPagedModel<CommentView> feed(PageQuery pageQuery, FeedQuery query) {
+        var rows = 0;
+        try {
+            val after = KeysetCursor.decode(pageQuery.getAfter(), pageQuery.getSortBy());
+            // one row past the page tells whether there is a next one
+            val comments = query.find(after, PageRequest.of(0, pageQuery.getSize() + 1));
+            if (comments.isEmpty()) {
+                return GenericPagedModel.empty(false);
+            }
+
+            val hasNext = comments.size() > pageQuery.getSize();
+            val page = hasNext ? comments.subList(0, pageQuery.getSize()) : comments;
+            val last = page.get(page.size() - 1);
+            rows = page.size();
+            return GenericPagedModel.<CommentView>builder()
+                    .numberOfElements(page.size())
+                    .hasNext(hasNext)
+                    .content(page)
+                    .nextCursor(hasNext ? KeysetCursor.of(KeysetCursor.CREATED, last.getCreated(), last.getId()).encode()
+                            : null)
+                    .build();
+        } catch (final DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
+        } finally {
+            searchMetrics.page(COMMENTS, pageQuery, rows);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FeedQuery {
+        List<CommentView> find(KeysetCursor after, PageRequest pageable);
+    }
+}
@@ -0,0 +1,42 @@
+package com.get.together.backend.data.service;
+
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.queue.EventJoinQueue;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Routes joins to the hot event queue when it is enabled and to {@link EventService} otherwise.
+ * Deliberately not transactional: queued callers must not hold a connection while they wait.
+ */
+@Service
+@Timed(value = "service.invocations", histogram = true)
+public class EventJoinService {
+    final EventService eventService;
+    final EventJoinQueue eventJoinQueue;
+
+    @Autowired
+    public EventJoinService(EventService eventService, EventJoinQueue eventJoinQueue) {
+        this.eventService = eventService;
+        this.eventJoinQueue = eventJoinQueue;
+    }
+
+    public SeatResult join(Integer eventId, Integer userId) {
+        if (eventJoinQueue.isEnabled()) {
+            return eventJoinQueue.join(eventId, userId);
+        }
+        return eventService.join(eventId, userId);
+    }
+
+    public List<UserModel> addAttendee(Integer eventId, Integer userId) {
+        if (eventJoinQueue.isEnabled()) {
+            eventJoinQueue.join(eventId, userId).requireJoined(eventId, userId);
+            return eventService.getAttendees(eventId);
+        }
+        return eventService.addAttendee(eventId, userId);
+    }
+}
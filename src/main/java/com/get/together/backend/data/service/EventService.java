@@ -1,330 +1,630 @@
 package com.get.together.backend.data.service;
 
+import com.get.together.backend.data.cache.EntityCache;
+import com.get.together.backend.data.cache.EntityCaches;
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.index.EventNgramIndex;
+import com.get.together.backend.data.loader.BatchLoader;
+import com.get.together.backend.data.loader.BatchLoaders;
+import com.get.together.backend.data.metrics.SearchMetrics;
+import com.get.together.backend.data.model.EventMatch;
 import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.SeatResult;
 import com.get.together.backend.data.model.UserModel;
 import com.get.together.backend.data.repository.EventRepository;
 import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.routing.Bulkhead;
+import com.get.together.backend.data.routing.Workload;
 import com.get.together.backend.data.util.GenericPagedModel;
+import com.get.together.backend.data.util.KeysetCursor;
+import com.get.together.backend.data.util.PageQuery;
 import com.get.together.backend.data.validator.EventValidator;
+import com.get.together.backend.exception.BadRequestException;
+import com.get.together.backend.exception.NotAcceptableException;
+import com.get.together.backend.exception.NotFoundException;
 import com.get.together.backend.util.SortDirection;
+import io.micrometer.core.annotation.Timed;
 import lombok.val;
-import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
-import java.util.Date;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.invocations", histogram = true)
+@Transactional(readOnly = true)
 public class EventService {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}_]+");
 
     final EventRepository eventRepository;
     final UserRepository userRepository;
     final EventValidator eventValidator;
+    final EventNgramIndex eventNgramIndex;
+    final SearchCountCache searchCountCache;
+    final SearchMetrics searchMetrics;
+    final BatchLoader<Integer, EventModel> eventLoader;
+    final EntityCache<Integer, EventModel> eventCache;
+    final EntityCache<Integer, EventView> eventViewCache;
+    final int maxBatchKeys;
+    final boolean emptyPageNotFound;
+    final boolean fullTextEnabled;
+    final int fullTextMinTokenLength;
 
     @Autowired
-    public EventService(EventRepository eventRepository, UserRepository userRepository, EventValidator eventValidator) {
+    public EventService(EventRepository eventRepository, UserRepository userRepository, EventValidator eventValidator,
+                        EventNgramIndex eventNgramIndex, SearchCountCache searchCountCache,
+                        SearchMetrics searchMetrics, BatchLoaders batchLoaders,
+                        EntityCaches entityCaches, @Value("${get-together.batch.max-keys:100}") int maxBatchKeys,
+                        @Value("${get-together.search.empty-page-not-found:true}") boolean emptyPageNotFound,
+                        @Value("${get-together.search.full-text.enabled:true}") boolean fullTextEnabled,
+                        @Value("${get-together.search.full-text.min-token-length:3}") int fullTextMinTokenLength) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.eventValidator = eventValidator;
+        this.eventNgramIndex = eventNgramIndex;
+        this.searchCountCache = searchCountCache;
+        this.searchMetrics = searchMetrics;
+        this.eventLoader = batchLoaders.create("event", ids -> eventRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(EventModel::getId, Function.identity())));
+        this.eventCache = entityCaches.get(EntityCaches.EVENTS);
+        this.eventViewCache = entityCaches.get(EntityCaches.EVENT_VIEWS);
+        this.maxBatchKeys = maxBatchKeys;
+        this.emptyPageNotFound = emptyPageNotFound;
+        this.fullTextEnabled = fullTextEnabled;
+        this.fullTextMinTokenLength = fullTextMinTokenLength;
     }
 
+    /**
+     * Outside a transaction events come from the event {@link EntityCache}, and concurrent misses are
+     * coalesced by the event {@link BatchLoader}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public EventModel findById(Integer id) {
         try {
             if (Objects.isNull(id)) {
-                throw new ResponseStatusException
-                        (HttpStatus.NOT_ACCEPTABLE, "eventId must not be null");
+                throw new NotAcceptableException("eventId must not be null");
             }
-            val result = eventRepository.findById(id);
+            val result = eventCache.get(id, eventLoader::load);
             if (result.isEmpty()) {
-                throw new ResponseStatusException
-                        (HttpStatus.NOT_FOUND, "No event with id: ".concat(id.toString()));
+                throw new NotFoundException("No event with id: ".concat(id.toString()));
             }
             return result.get();
         } catch (final DataIntegrityViolationException e) {
             throw new ResponseStatusException
-                    (HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(e));
+                    (HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", e);
         }
     }
 
-    public GenericPagedModel<EventModel> findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EventView findViewById(Integer id) {
+        try {
+            if (Objects.isNull(id)) {
+                throw new NotAcceptableException("eventId must not be null");
+            }
+            return eventViewCache.get(id, eventRepository::findViewById)
+                    .orElseThrow(() -> new NotFoundException("No event with id: ".concat(id.toString())));
+        } catch (final DataIntegrityViolationException e) {
+            throw new ResponseStatusException
+                    (HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", e);
+        }
+    }
+
+    /**
+     * Events with any of the ids in one query; ids without an event are left out of the result.
+     */
+    public List<EventView> findViewsByIds(Collection<Integer> ids) {
+        try {
+            if (Objects.isNull(ids) || ids.isEmpty() || ids.contains(null)) {
+                throw new NotAcceptableException("ids must not be empty or contain null");
+            }
+            if (ids.size() > maxBatchKeys) {
+                throw new BadRequestException("At most " + maxBatchKeys + " ids per request");
+            }
+            return eventRepository.findViewsByIdIn(new LinkedHashSet<>(ids));
+        } catch (final DataIntegrityViolationException e) {
+            throw new ResponseStatusException
+                    (HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", e);
+        }
+    }
+
+    /**
+     * Hands every matching event to {@code sink} in id order, streamed from a database cursor.
+     */
+    @Bulkhead(Workload.BULK)
+    public void export(EventSearchCriteria criteria, Consumer<EventView> sink) {
+        try (val events = eventRepository.stream(criteria)) {
+            events.forEach(sink);
+        }
+    }
+
+    public GenericPagedModel<EventView> search(EventSearchCriteria criteria,
+                                               int page, int size, String sortBy, SortDirection sortDirection) {
+        return search(criteria, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> search(EventSearchCriteria criteria, PageQuery pageQuery) {
+        return search(criteria, pageQuery, () -> "No event matching: ".concat(criteria.toString()));
+    }
+
+    /**
+     * Events matching {@code query} in header or description, best match first, in keyset pages
+     * continuing {@code after}. A query without a word of the full-text minimum token length cannot
+     * use the FULLTEXT index; it matches as a substring of either column, in id order.
+     */
+    public GenericPagedModel<EventView> searchText(String query, int size, String after) {
+        if (StringUtils.isBlank(query)) {
+            throw new BadRequestException("query must not be blank");
+        }
+        val fullText = isFullTextQuery(query);
+        val pageQuery = PageQuery.builder()
+                .size(size)
+                .sortBy(fullText ? KeysetCursor.RELEVANCE : KeysetCursor.ID)
+                .sortDirection(fullText ? SortDirection.Descending : SortDirection.Ascending)
+                .after(Objects.requireNonNullElse(after, ""))
+                .build();
+        Supplier<String> notFoundMessage = () -> "No event matching text: ".concat(query);
+        if (!fullText) {
+            return search(EventSearchCriteria.builder().text(query).build(), pageQuery, notFoundMessage);
+        }
+
+        var rows = 0;
+        try {
+            val result = searchFullText(query, pageQuery, notFoundMessage);
+            rows = result.getNumberOfElements();
+            return result;
+        } finally {
+            searchMetrics.page(SearchCountCache.EVENTS, pageQuery, rows);
+        }
+    }
+
+    public GenericPagedModel<EventView> findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
             (String header, Boolean isActive,
              Date createdBefore, Date createdAfter,
              int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
-                    (header, isActive, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
-                    (header, isActive, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event with header: ".concat(header)
+        return findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
+                (header, isActive, createdBefore, createdAfter, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByHeaderContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
+            (String header, Boolean isActive,
+             Date createdBefore, Date createdAfter,
+             PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .header(header)
+                        .isActive(isActive)
+                        .createdBefore(createdBefore)
+                        .createdAfter(createdAfter)
+                        .build(),
+                pageQuery,
+                () -> "No event with header: ".concat(header)
                         .concat(" active: ".concat(isActive.toString())
                                 .concat(" createdBefore: ".concat(createdBefore.toString())
                                         .concat(" | createdAfter: ".concat(createdAfter.toString())))));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
-    public GenericPagedModel<EventModel> findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
+    public GenericPagedModel<EventView> findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
             (String description, Boolean isActive,
              Date createdBefore, Date createdAfter,
              int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
-                    (description, isActive, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
-                    (description, isActive, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event with description: ".concat(description)
+        return findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
+                (description, isActive, createdBefore, createdAfter, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByDescriptionContainingIgnoreCaseAndIsActiveAndCreatedBeforeAndCreatedAfter
+            (String description, Boolean isActive,
+             Date createdBefore, Date createdAfter,
+             PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .description(description)
+                        .isActive(isActive)
+                        .createdBefore(createdBefore)
+                        .createdAfter(createdAfter)
+                        .build(),
+                pageQuery,
+                () -> "No event with description: ".concat(description)
                         .concat(" active: ".concat(isActive.toString())
                                 .concat(" createdBefore: ".concat(createdBefore.toString())
                                         .concat(" | createdAfter: ".concat(createdAfter.toString())))));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
-    public GenericPagedModel<EventModel> findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+    public GenericPagedModel<EventView> findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
             (String header, Date createdBefore, Date createdAfter,
              int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
-                    (header, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
-                    (header, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event with header: ".concat(header)
+        return findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+                (header, createdBefore, createdAfter, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+            (String header, Date createdBefore, Date createdAfter,
+             PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .header(header)
+                        .createdBefore(createdBefore)
+                        .createdAfter(createdAfter)
+                        .build(),
+                pageQuery,
+                () -> "No event with header: ".concat(header)
                         .concat(" createdBefore: ".concat(createdBefore.toString())
                                 .concat(" | createdAfter: ".concat(createdAfter.toString()))));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
-    public GenericPagedModel<EventModel> findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+    public GenericPagedModel<EventView> findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
             (String description, Date createdBefore, Date createdAfter,
              int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
-                    (description, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
-                    (description, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event with description: ".concat(description)
+        return findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+                (description, createdBefore, createdAfter, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByDescriptionContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+            (String description, Date createdBefore, Date createdAfter,
+             PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .description(description)
+                        .createdBefore(createdBefore)
+                        .createdAfter(createdAfter)
+                        .build(),
+                pageQuery,
+                () -> "No event with description: ".concat(description)
                         .concat(" createdBefore: ".concat(createdBefore.toString())
                                 .concat(" | createdAfter: ".concat(createdAfter.toString()))));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
-    public GenericPagedModel<EventModel> findAllByIsActiveAndCreatedBeforeAndCreatedAfter
+    public GenericPagedModel<EventView> findAllByIsActiveAndCreatedBeforeAndCreatedAfter
             (Boolean isActive, Date createdBefore, Date createdAfter,
              int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByIsActiveAndCreatedBeforeAndCreatedAfter
-                    (isActive, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByIsActiveAndCreatedBeforeAndCreatedAfter
-                    (isActive, createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event with isActive: ".concat(isActive.toString())
+        return findAllByIsActiveAndCreatedBeforeAndCreatedAfter
+                (isActive, createdBefore, createdAfter, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByIsActiveAndCreatedBeforeAndCreatedAfter
+            (Boolean isActive, Date createdBefore, Date createdAfter,
+             PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .isActive(isActive)
+                        .createdBefore(createdBefore)
+                        .createdAfter(createdAfter)
+                        .build(),
+                pageQuery,
+                () -> "No event with isActive: ".concat(isActive.toString())
                         .concat(" createdBefore: ".concat(createdBefore.toString())
                                 .concat(" | createdAfter: ".concat(createdAfter.toString()))));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
-    public GenericPagedModel<EventModel> findAllByCreatedBeforeAndCreatedAfter
+    public GenericPagedModel<EventView> findAllByCreatedBeforeAndCreatedAfter
             (Date createdBefore, Date createdAfter,
              int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByCreatedBeforeAndCreatedAfter
-                    (createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByCreatedBeforeAndCreatedAfter
-                    (createdBefore, createdAfter, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event createdBefore: "
+        return findAllByCreatedBeforeAndCreatedAfter
+                (createdBefore, createdAfter, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByCreatedBeforeAndCreatedAfter
+            (Date createdBefore, Date createdAfter,
+             PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .createdBefore(createdBefore)
+                        .createdAfter(createdAfter)
+                        .build(),
+                pageQuery,
+                () -> "No event createdBefore: "
                         .concat(createdBefore.toString())
                         .concat(" | createdAfter: ".concat(createdAfter.toString())));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
-    public GenericPagedModel<EventModel> findAllByCapacityBetween(
+    public GenericPagedModel<EventView> findAllByCapacityBetween(
             Integer min, Integer max,
             int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByCapacityBetween
-                    (min,max, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByCapacityBetween
-                    (min, max, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event capacity between: "
-                        .concat(min.toString()).concat(" and ").concat(max.toString()));
-            }
+        return findAllByCapacityBetween
+                (min, max, PageQuery.of(page, size, sortBy, sortDirection));
+    }
 
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
+    public GenericPagedModel<EventView> findAllByCapacityBetween(
+            Integer min, Integer max,
+            PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .capacityMin(min)
+                        .capacityMax(max)
+                        .build(),
+                pageQuery,
+                () -> "No event capacity between: "
+                        .concat(min.toString()).concat(" and ").concat(max.toString()));
     }
 
-    public GenericPagedModel<EventModel> findAllByCapacityBetweenAndAttendingBetween(
+    public GenericPagedModel<EventView> findAllByCapacityBetweenAndAttendingBetween(
             Integer capacityMin, Integer capacityMax,
             Integer attendingMin, Integer attendingMax,
             int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? eventRepository.findAllByCapacityBetweenAndAttendingBetween
-                    (capacityMin,capacityMax, attendingMin, attendingMax,
-                            PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : eventRepository.findAllByCapacityBetweenAndAttendingBetween
-                    (capacityMin,capacityMax, attendingMin, attendingMax,
-                            PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event capacity between: "
+        return findAllByCapacityBetweenAndAttendingBetween
+                (capacityMin, capacityMax, attendingMin, attendingMax, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<EventView> findAllByCapacityBetweenAndAttendingBetween(
+            Integer capacityMin, Integer capacityMax,
+            Integer attendingMin, Integer attendingMax,
+            PageQuery pageQuery) {
+        return search(EventSearchCriteria.builder()
+                        .capacityMin(capacityMin)
+                        .capacityMax(capacityMax)
+                        .attendingMin(attendingMin)
+                        .attendingMax(attendingMax)
+                        .build(),
+                pageQuery,
+                () -> "No event capacity between: "
                         .concat(capacityMin.toString()).concat(" | ").concat(capacityMax.toString())
                         .concat(" and attending between: ".concat(attendingMin.toString())
                                 .concat(" | ").concat(attendingMax.toString())));
-            }
-
-            return GenericPagedModel.<EventModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
     }
 
     public List<UserModel> getAttendees(Integer id) {
         try {
-            val result = eventRepository.findById(id);
-            if(result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "event not found");
+            if (!eventRepository.existsById(id)) {
+                throw new NotFoundException("event not found");
             }
-            return result.get().getAttendees().stream().toList();
+            return userRepository.findAllByAttendedEventsId(id);
         } catch (final DataIntegrityViolationException e) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ExceptionUtils.getStackTrace(e));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", e);
         }
     }
 
+    @Transactional
     public List<UserModel> addAttendee(Integer eventId, Integer userId) {
+        join(eventId, userId).requireJoined(eventId, userId);
+        return userRepository.findAllByAttendedEventsId(eventId);
+    }
+
+    /**
+     * Seats the user with a conditional update of the attending counter and an insert of the
+     * attendee row, without loading the event or its attendees.
+     */
+    @Transactional
+    public SeatResult join(Integer eventId, Integer userId) {
         try {
-            val event = eventRepository.findById(eventId);
-            val user = userRepository.findById(userId);
-            if (user.isPresent() && event.isPresent()) {
-                event.get().getAttendees().add(user.get());
-                eventRepository.save(event.get());
-                return event.get().getAttendees().stream().toList();
-            } else {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "user or event not found");
+            if (Objects.isNull(eventId) || Objects.isNull(userId)) {
+                throw new NotAcceptableException("eventId and userId must not be null");
             }
+            if (eventRepository.takeSeat(eventId, userId) == 0) {
+                if (userRepository.existsByIdAndAttendedEventsId(userId, eventId)) {
+                    return SeatResult.ALREADY_ATTENDING;
+                }
+                if (!eventRepository.existsById(eventId) || !userRepository.existsById(userId)) {
+                    throw new NotFoundException("user or event not found");
+                }
+                return SeatResult.FULL;
+            }
+            if (eventRepository.insertAttendee(eventId, userId) == 0) {
+                // attendee row already present or user gone since the seat was taken
+                eventRepository.releaseSeat(eventId);
+                if (userRepository.existsByIdAndAttendedEventsId(userId, eventId)) {
+                    return SeatResult.ALREADY_ATTENDING;
+                }
+                throw new NotFoundException("user or event not found");
+            }
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            eventLoader.evict(eventId);
+            eventCache.evict(eventId);
+            eventViewCache.evict(eventId);
+            return SeatResult.JOINED;
         } catch (final DataIntegrityViolationException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(e));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", e);
         }
     }
 
+    @Transactional
     public EventModel save(EventModel eventModel) {
         try {
             eventValidator.validate(eventModel);
             eventModel.setCreated(new Date(Instant.now().toEpochMilli()));
-            return eventRepository.save(eventModel);
+            val saved = eventRepository.save(eventModel);
+            eventNgramIndex.put(saved);
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            eventLoader.evict(saved.getId());
+            eventCache.evict(saved.getId());
+            eventViewCache.evict(saved.getId());
+            return saved;
         } catch (final DataIntegrityViolationException ex) {
             throw new ResponseStatusException
-                    (HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+                    (HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
+    @Transactional
     public EventModel hardDelete(Integer id) {
         try {
             val eventToHardDelete = findById(id);
 
             eventRepository.delete(eventToHardDelete);
+            eventNgramIndex.remove(eventToHardDelete.getId());
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            eventLoader.evict(eventToHardDelete.getId());
+            eventCache.evict(eventToHardDelete.getId());
+            eventViewCache.evict(eventToHardDelete.getId());
 
             return eventToHardDelete;
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
+    @Transactional
     public void hardDeleteAll() {
         try {
             eventRepository.deleteAll();
+            eventNgramIndex.clear();
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            eventLoader.evictAll();
+            eventCache.evictAll();
+            eventViewCache.evictAll();
+        } catch (final DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
+        }
+    }
+
+    private GenericPagedModel<EventView> search(EventSearchCriteria criteria, PageQuery pageQuery,
+                                                Supplier<String> notFoundMessage) {
+        var rows = 0;
+        try {
+            val result = searchPage(criteria, pageQuery, notFoundMessage);
+            rows = result.getNumberOfElements();
+            return result;
+        } finally {
+            searchMetrics.page(SearchCountCache.EVENTS, pageQuery, rows);
+        }
+    }
+
+    private GenericPagedModel<EventView> searchPage(EventSearchCriteria criteria, PageQuery pageQuery,
+                                                    Supplier<String> notFoundMessage) {
+        try {
+            if (pageQuery.isKeyset()) {
+                val after = KeysetCursor.decode(pageQuery.getAfter(), pageQuery.getSortBy());
+                val result = narrow(criteria)
+                        .map(narrowed -> eventRepository.searchAfter(narrowed, after, pageQuery.getSortBy(),
+                                direction(pageQuery.getSortDirection()), pageQuery.getSize()))
+                        .orElseGet(() -> new SliceImpl<>(List.of()));
+                if (result.isEmpty()) {
+                    return emptyPage(pageQuery, notFoundMessage);
+                }
+
+                val last = result.getContent().get(result.getNumberOfElements() - 1);
+                return GenericPagedModel.<EventView>builder()
+                        .numberOfElements(result.getNumberOfElements())
+                        .hasNext(result.hasNext())
+                        .content(result.getContent())
+                        .nextCursor(result.hasNext()
+                                ? KeysetCursor.of(pageQuery.getSortBy(), last.getCreated(), last.getId()).encode()
+                                : null)
+                        .build();
+            }
+
+            val pageable = pageRequest(pageQuery);
+            val narrowed = narrow(criteria);
+            val result = narrowed
+                    .map(value -> eventRepository.searchSlice(value, pageable))
+                    .orElseGet(() -> new SliceImpl<>(List.of(), pageable, false));
+            if (result.isEmpty()) {
+                return emptyPage(pageQuery, notFoundMessage);
+            }
+            if (!pageQuery.isWithTotals()) {
+                return GenericPagedModel.<EventView>builder()
+                        .numberOfElements(result.getNumberOfElements())
+                        .hasNext(result.hasNext())
+                        .content(result.getContent())
+                        .build();
+            }
+
+            val page = PageableExecutionUtils.getPage(result.getContent(), pageable,
+                    () -> searchCountCache.get(SearchCountCache.EVENTS, criteria.parameters(),
+                            () -> searchMetrics.count(SearchCountCache.EVENTS,
+                                    () -> eventRepository.count(narrowed.get()))));
+            return GenericPagedModel.<EventView>builder()
+                    .totalElements(page.getTotalElements())
+                    .numberOfElements(page.getNumberOfElements())
+                    .hasNext(page.hasNext())
+                    .totalPages(page.getTotalPages())
+                    .content(page.getContent())
+                    .build();
+        } catch (final DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
+        }
+    }
+
+    private GenericPagedModel<EventView> searchFullText(String query, PageQuery pageQuery,
+                                                        Supplier<String> notFoundMessage) {
+        try {
+            val after = KeysetCursor.decodeRelevance(pageQuery.getAfter());
+            val pageable = PageRequest.of(0, pageQuery.getSize() + 1);
+            val matches = Objects.isNull(after)
+                    ? eventRepository.findAllMatching(query, pageable)
+                    : eventRepository.findAllMatchingAfter(query, (Double) after.getValue(), after.getId(), pageable);
+            if (matches.isEmpty()) {
+                return emptyPage(pageQuery, notFoundMessage);
+            }
+
+            val hasNext = matches.size() > pageQuery.getSize();
+            val page = hasNext ? matches.subList(0, pageQuery.getSize()) : matches;
+            val last = page.get(page.size() - 1);
+            return GenericPagedModel.<EventView>builder()
+                    .numberOfElements(page.size())
+                    .hasNext(hasNext)
+                    .content(page.stream().map(EventService::toView).toList())
+                    .nextCursor(hasNext ? KeysetCursor.ofRelevance(last.getScore(), last.getId()).encode() : null)
+                    .build();
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
+        }
+    }
+
+    /**
+     * MySQL drops words shorter than the minimum token length from full-text queries and indexes.
+     */
+    private boolean isFullTextQuery(String query) {
+        return fullTextEnabled && Arrays.stream(WORD_SEPARATOR.split(query))
+                .anyMatch(word -> word.length() >= fullTextMinTokenLength);
+    }
+
+    private static EventView toView(EventMatch match) {
+        return new EventView(match.getId(), match.getHeader(), match.getDescription(), match.getCapacity(),
+                match.getAttending(), match.getCreated(), match.getIsActive(), match.getHostId());
+    }
+
+    /**
+     * Restricts the criteria to ngram index candidates; empty when no event can match.
+     */
+    private Optional<EventSearchCriteria> narrow(EventSearchCriteria criteria) {
+        Set<Integer> ids = Objects.isNull(criteria.getIds()) ? null : new HashSet<>(criteria.getIds());
+        ids = narrow(ids, eventNgramIndex.findHeaderCandidates(criteria.getHeader()));
+        ids = narrow(ids, eventNgramIndex.findDescriptionCandidates(criteria.getDescription()));
+        if (Objects.nonNull(ids) && ids.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(criteria.toBuilder().ids(ids).build());
+    }
+
+    private static Set<Integer> narrow(Set<Integer> ids, Optional<Set<Integer>> candidates) {
+        if (candidates.isEmpty()) {
+            return ids;
+        }
+        if (Objects.isNull(ids)) {
+            return new HashSet<>(candidates.get());
+        }
+        ids.retainAll(candidates.get());
+        return ids;
+    }
+
+    private static PageRequest pageRequest(PageQuery pageQuery) {
+        return PageRequest.of(pageQuery.getPage(), pageQuery.getSize(),
+                Sort.by(direction(pageQuery.getSortDirection()), pageQuery.getSortBy()));
+    }
+
+    /**
+     * An empty result is 404 unless {@code get-together.search.empty-page-not-found} is off, then an
+     * empty page.
+     */
+    private GenericPagedModel<EventView> emptyPage(PageQuery pageQuery, Supplier<String> notFoundMessage) {
+        if (emptyPageNotFound) {
+            throw new NotFoundException(notFoundMessage.get());
         }
+        return GenericPagedModel.empty(pageQuery.isWithTotals());
+    }
+
+    private static Sort.Direction direction(SortDirection sortDirection) {
+        return sortDirection.equals(SortDirection.Ascending) ? Sort.Direction.ASC : Sort.Direction.DESC;
     }
 }
@@ -1,242 +1,424 @@
 package com.get.together.backend.data.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.get.together.backend.data.cache.EntityCache;
+import com.get.together.backend.data.cache.EntityCaches;
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.index.UserUniquenessIndex;
+import com.get.together.backend.data.loader.BatchLoader;
+import com.get.together.backend.data.loader.BatchLoaders;
+import com.get.together.backend.data.metrics.SearchMetrics;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventView;
 import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.model.UserSearchCriteria;
 import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.routing.Bulkhead;
+import com.get.together.backend.data.routing.Workload;
 import com.get.together.backend.data.util.GenericPagedModel;
+import com.get.together.backend.data.util.KeysetCursor;
+import com.get.together.backend.data.util.PageQuery;
+import com.get.together.backend.exception.BadRequestException;
+import com.get.together.backend.exception.NotAcceptableException;
+import com.get.together.backend.exception.NotFoundException;
 import com.get.together.backend.util.SortDirection;
 import com.get.together.backend.data.validator.UserValidator;
 import lombok.Data;
+import io.micrometer.core.annotation.Timed;
 import lombok.val;
-import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.invocations", histogram = true)
+@Transactional(readOnly = true)
 public class UserService {
     final UserRepository userRepository;
     final UserValidator userValidator;
+    final SearchCountCache searchCountCache;
+    final SearchMetrics searchMetrics;
+    final BatchLoader<Integer, UserModel> userLoader;
+    final EntityCache<Integer, UserModel> userCache;
+    final EntityCache<String, UserModel> userNameCache;
+    final EntityCache<Integer, EventModel> eventCache;
+    final EntityCache<Integer, EventView> eventViewCache;
+    final UserUniquenessIndex userUniquenessIndex;
+    final int maxBatchKeys;
+    final boolean emptyPageNotFound;
 
     @Autowired
-    public UserService(UserRepository userRepository, UserValidator userValidator) {
+    public UserService(UserRepository userRepository, UserValidator userValidator, SearchCountCache searchCountCache,
+                       SearchMetrics searchMetrics, BatchLoaders batchLoaders, EntityCaches entityCaches,
+                       UserUniquenessIndex userUniquenessIndex,
+                       @Value("${get-together.batch.max-keys:100}") int maxBatchKeys,
+                       @Value("${get-together.search.empty-page-not-found:true}") boolean emptyPageNotFound) {
         this.userRepository = userRepository;
         this.userValidator = userValidator;
+        this.searchCountCache = searchCountCache;
+        this.searchMetrics = searchMetrics;
+        this.userLoader = batchLoaders.create("user", ids -> userRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserModel::getId, Function.identity())));
+        this.userCache = entityCaches.get(EntityCaches.USERS);
+        this.userNameCache = entityCaches.get(EntityCaches.USER_NAMES);
+        this.eventCache = entityCaches.get(EntityCaches.EVENTS);
+        this.eventViewCache = entityCaches.get(EntityCaches.EVENT_VIEWS);
+        this.userUniquenessIndex = userUniquenessIndex;
+        this.maxBatchKeys = maxBatchKeys;
+        this.emptyPageNotFound = emptyPageNotFound;
     }
 
+    /**
+     * Outside a transaction users come from the user {@link EntityCache}, and concurrent misses are
+     * coalesced by the user {@link BatchLoader}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserModel findById(Integer id) {
         try {
             if (Objects.isNull(id)) {
-                throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "userId must not be null");
+                throw new NotAcceptableException("userId must not be null");
             }
-            val result = userRepository.findById(id);
+            val result = userCache.get(id, userLoader::load);
             if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with id: ".concat(id.toString()));
+                throw new NotFoundException("No user with id: ".concat(id.toString()));
             }
             return result.get();
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
     public GenericPagedModel<UserModel> findAllByUserNameContainingIgnoreCase
             (String userName, int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? userRepository.findAllByUserNameContainingIgnoreCase
-                    (userName, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : userRepository.findAllByUserNameContainingIgnoreCase
-                    (userName, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with userName: ".concat(userName));
-            }
+        return findAllByUserNameContainingIgnoreCase(userName, PageQuery.of(page, size, sortBy, sortDirection));
+    }
 
-            return GenericPagedModel.<UserModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
+    public GenericPagedModel<UserModel> findAllByUserNameContainingIgnoreCase
+            (String userName, PageQuery pageQuery) {
+        return search(UserSearchCriteria.builder()
+                        .userName(userName)
+                        .build(),
+                pageQuery,
+                () -> "No user with userName: ".concat(userName));
     }
 
     public GenericPagedModel<UserModel> findAllByFirstNameContainingIgnoreCase
             (String firstName, int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? userRepository.findAllByFirstNameContainingIgnoreCase
-                    (firstName, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : userRepository.findAllByFirstNameContainingIgnoreCase
-                    (firstName, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with firstName: ".concat(firstName));
-            }
+        return findAllByFirstNameContainingIgnoreCase(firstName, PageQuery.of(page, size, sortBy, sortDirection));
+    }
 
-            return GenericPagedModel.<UserModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
+    public GenericPagedModel<UserModel> findAllByFirstNameContainingIgnoreCase
+            (String firstName, PageQuery pageQuery) {
+        return search(UserSearchCriteria.builder()
+                        .firstName(firstName)
+                        .build(),
+                pageQuery,
+                () -> "No user with firstName: ".concat(firstName));
     }
 
     public GenericPagedModel<UserModel> findAllByLastNameContainingIgnoreCase
             (String lastName, int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? userRepository.findAllByLastNameContainingIgnoreCase
-                    (lastName, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : userRepository.findAllByLastNameContainingIgnoreCase
-                    (lastName, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with lastName: ".concat(lastName));
-            }
+        return findAllByLastNameContainingIgnoreCase(lastName, PageQuery.of(page, size, sortBy, sortDirection));
+    }
 
-            return GenericPagedModel.<UserModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
+    public GenericPagedModel<UserModel> findAllByLastNameContainingIgnoreCase
+            (String lastName, PageQuery pageQuery) {
+        return search(UserSearchCriteria.builder()
+                        .lastName(lastName)
+                        .build(),
+                pageQuery,
+                () -> "No user with lastName: ".concat(lastName));
     }
 
     public GenericPagedModel<UserModel> findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase
             (String firstName, String lastName, int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? userRepository.findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase
-                    (firstName, lastName, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : userRepository.findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase
-                    (firstName, lastName, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with firstName: ".concat(firstName)
-                        .concat(" and lastName: ").concat(lastName));
-            }
+        return findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase(firstName, lastName, PageQuery.of(page, size, sortBy, sortDirection));
+    }
 
-            return GenericPagedModel.<UserModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
+    public GenericPagedModel<UserModel> findAllByFirstNameContainingIgnoreCaseAndLastNameContainingIgnoreCase
+            (String firstName, String lastName, PageQuery pageQuery) {
+        return search(UserSearchCriteria.builder()
+                        .firstName(firstName)
+                        .lastName(lastName)
+                        .build(),
+                pageQuery,
+                () -> "No user with firstName: ".concat(firstName)
+                        .concat(" and lastName: ").concat(lastName));
     }
 
     public GenericPagedModel<UserModel> findAllByMailContainingIgnoreCase
             (String mail, int page, int size, String sortBy, SortDirection sortDirection) {
-        try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? userRepository.findAllByMailContainingIgnoreCase
-                    (mail, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : userRepository.findAllByMailContainingIgnoreCase
-                    (mail, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with mail: ".concat(mail));
-            }
+        return findAllByMailContainingIgnoreCase(mail, PageQuery.of(page, size, sortBy, sortDirection));
+    }
 
-            return GenericPagedModel.<UserModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
-        } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
-        }
+    public GenericPagedModel<UserModel> findAllByMailContainingIgnoreCase
+            (String mail, PageQuery pageQuery) {
+        return search(UserSearchCriteria.builder()
+                        .mail(mail)
+                        .build(),
+                pageQuery,
+                () -> "No user with mail: ".concat(mail));
     }
 
     public GenericPagedModel<UserModel> findAllByPhoneNumberContaining
             (String phoneNumber, int page, int size, String sortBy, SortDirection sortDirection) {
+        return findAllByPhoneNumberContaining(phoneNumber, PageQuery.of(page, size, sortBy, sortDirection));
+    }
+
+    public GenericPagedModel<UserModel> findAllByPhoneNumberContaining
+            (String phoneNumber, PageQuery pageQuery) {
+        return search(UserSearchCriteria.builder()
+                        .phoneNumber(phoneNumber)
+                        .build(),
+                pageQuery,
+                () -> "No user with phoneNumber: ".concat(phoneNumber));
+    }
+
+    /**
+     * Users with any of the ids or user names in one query; keys without a user are left out of the result.
+     */
+    public List<UserModel> findAllByIdsOrUserNames(Collection<Integer> ids, Collection<String> userNames) {
         try {
-            val result = sortDirection.equals(SortDirection.Ascending)
-                    ? userRepository.findAllByPhoneNumberContaining
-                    (phoneNumber, PageRequest.of(page, size, Sort.by(sortBy).ascending()))
-                    : userRepository.findAllByPhoneNumberContaining
-                    (phoneNumber, PageRequest.of(page, size, Sort.by(sortBy).descending()));
-            if (result.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with phoneNumber: ".concat(phoneNumber));
+            if (Objects.isNull(ids) || Objects.isNull(userNames)) {
+                throw new NotAcceptableException("ids and userNames must not be null");
             }
-
-            return GenericPagedModel.<UserModel>builder()
-                    .totalElements(result.getTotalElements())
-                    .numberOfElements(result.getNumberOfElements())
-                    .totalPages(result.getTotalPages())
-                    .content(result.getContent())
-                    .build();
+            val idSet = new LinkedHashSet<>(ids);
+            val userNameSet = new LinkedHashSet<>(userNames);
+            if (idSet.contains(null) || userNameSet.contains(null)) {
+                throw new NotAcceptableException("ids and userNames must not contain null");
+            }
+            if (idSet.isEmpty() && userNameSet.isEmpty()) {
+                throw new NotAcceptableException("ids or userNames must not be empty");
+            }
+            if (ids.size() + userNames.size() > maxBatchKeys) {
+                throw new BadRequestException("At most " + maxBatchKeys + " ids and userNames per request");
+            }
+            if (userNameSet.isEmpty()) {
+                return userRepository.findAllByIdIn(idSet);
+            }
+            if (idSet.isEmpty()) {
+                return userRepository.findAllByUserNameIn(userNameSet);
+            }
+            return userRepository.findAllByIdInOrUserNameIn(idSet, userNameSet);
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
+    /**
+     * Hands every matching user to {@code sink} in id order, streamed from a database cursor; the
+     * users are detached, their collections not loaded.
+     */
+    @Bulkhead(Workload.BULK)
+    public void export(UserSearchCriteria criteria, Consumer<UserModel> sink) {
+        try (val users = userRepository.stream(criteria)) {
+            users.forEach(sink);
+        }
+    }
+
+    /**
+     * User names are cached case-insensitively, as MySQL compares them.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserModel findByUserName(String userName) {
         try {
-            val result = userRepository.findByUserName(userName);
+            if (Objects.isNull(userName)) {
+                throw new NotAcceptableException("userName must not be null");
+            }
+            val result = userNameCache.get(userName.toLowerCase(Locale.ROOT),
+                    key -> Optional.ofNullable(userRepository.findByUserName(userName))).orElse(null);
             if (Objects.isNull(result)) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No user with this userName: ".concat(userName));
+                throw new NotFoundException("No user with this userName: ".concat(userName));
             }
             return result;
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
+    @Transactional
     public UserModel save(UserModel userModel) {
         try {
             userValidator.validate(userModel);
-            val userName = userRepository.existsByUserName(userModel.getUserName());
-            val mail = userRepository.existsByMail(userModel.getMail());
-            if(Objects.isNull(userModel.getId()) && (userName || mail)) {
-                if(userName) {
-                    throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE,
-                            "UserName: ".concat(userModel.getUserName()).concat(" already in use"));
-                }
-                else {
-                    throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE,
-                            "Mail: ".concat(userModel.getMail()).concat(" already in use"));
-                }
+            val update = Objects.nonNull(userModel.getId());
+            if (!update) {
+                requireUnique(userModel.getUserName(), userModel.getMail());
             }
             userModel.setCreated(new Date(Instant.now().toEpochMilli()));
-            return userRepository.save(userModel);
+            val saved = userRepository.save(userModel);
+            searchCountCache.invalidate(SearchCountCache.USERS);
+            userLoader.evict(saved.getId());
+            userCache.evict(saved.getId());
+            userUniquenessIndex.put(saved.getUserName(), saved.getMail());
+            if (update) {
+                // the old name of a renamed user is not known here
+                userNameCache.evictAll();
+            }
+            return saved;
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
+    @Transactional
     public UserModel hardDelete(Integer id) {
         try {
             val userToHardDelete = findById(id);
 
             userRepository.delete(userToHardDelete);
+            searchCountCache.invalidate(SearchCountCache.USERS);
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            userLoader.evict(userToHardDelete.getId());
+            userCache.evict(userToHardDelete.getId());
+            userUniquenessIndex.remove(userToHardDelete.getUserName(), userToHardDelete.getMail());
+            userNameCache.evict(userToHardDelete.getUserName().toLowerCase(Locale.ROOT));
+            // hosted events are deleted with the user
+            eventCache.evictAll();
+            eventViewCache.evictAll();
 
             return userToHardDelete;
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ExceptionUtils.getStackTrace(ex));
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
         }
     }
 
+    @Transactional
     public void hardDeleteAll() {
         try {
             userRepository.deleteAll();
+            searchCountCache.invalidate(SearchCountCache.USERS);
+            searchCountCache.invalidate(SearchCountCache.EVENTS);
+            userLoader.evictAll();
+            userCache.evictAll();
+            userNameCache.evictAll();
+            eventCache.evictAll();
+            eventViewCache.evictAll();
+        } catch (final DataIntegrityViolationException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
+        }
+    }
+
+    /**
+     * Checks the database only for values the uniqueness index cannot rule out, with one query for both.
+     */
+    private void requireUnique(String userName, String mail) {
+        val userNameMightBeTaken = userUniquenessIndex.mightContainUserName(userName);
+        val mailMightBeTaken = userUniquenessIndex.mightContainMail(mail);
+        if (!userNameMightBeTaken && !mailMightBeTaken) {
+            return;
+        }
+        val conflicts = userRepository.findUserNameOrMailConflicts(userName, mail);
+        if (conflicts.isEmpty()) {
+            if (userNameMightBeTaken) {
+                userUniquenessIndex.falsePositive();
+            }
+            if (mailMightBeTaken) {
+                userUniquenessIndex.falsePositive();
+            }
+            return;
+        }
+        if (conflicts.contains(true)) {
+            throw new NotAcceptableException("UserName: ".concat(userName).concat(" already in use"));
+        }
+        throw new NotAcceptableException("Mail: ".concat(mail).concat(" already in use"));
+    }
+
+    private GenericPagedModel<UserModel> search(UserSearchCriteria criteria, PageQuery pageQuery,
+                                                Supplier<String> notFoundMessage) {
+        var rows = 0;
+        try {
+            val result = searchPage(criteria, pageQuery, notFoundMessage);
+            rows = result.getNumberOfElements();
+            return result;
+        } finally {
+            searchMetrics.page(SearchCountCache.USERS, pageQuery, rows);
+        }
+    }
+
+    private GenericPagedModel<UserModel> searchPage(UserSearchCriteria criteria, PageQuery pageQuery,
+                                                    Supplier<String> notFoundMessage) {
+        try {
+            if (pageQuery.isKeyset()) {
+                val after = KeysetCursor.decode(pageQuery.getAfter(), pageQuery.getSortBy());
+                val result = userRepository.searchAfter(criteria, after, pageQuery.getSortBy(),
+                        direction(pageQuery.getSortDirection()), pageQuery.getSize());
+                if (result.isEmpty()) {
+                    return emptyPage(pageQuery, notFoundMessage);
+                }
+
+                val last = result.getContent().get(result.getNumberOfElements() - 1);
+                return GenericPagedModel.<UserModel>builder()
+                        .numberOfElements(result.getNumberOfElements())
+                        .hasNext(result.hasNext())
+                        .content(result.getContent())
+                        .nextCursor(result.hasNext()
+                                ? KeysetCursor.of(pageQuery.getSortBy(), last.getCreated(), last.getId()).encode()
+                                : null)
+                        .build();
+            }
+
+            val pageable = PageRequest.of(pageQuery.getPage(), pageQuery.getSize(),
+                    Sort.by(direction(pageQuery.getSortDirection()), pageQuery.getSortBy()));
+            val result = userRepository.searchSlice(criteria, pageable);
+            if (result.isEmpty()) {
+                return emptyPage(pageQuery, notFoundMessage);
+            }
+            if (!pageQuery.isWithTotals()) {
+                return GenericPagedModel.<UserModel>builder()
+                        .numberOfElements(result.getNumberOfElements())
+                        .hasNext(result.hasNext())
+                        .content(result.getContent())
+                        .build();
+            }
+
+            val page = PageableExecutionUtils.getPage(result.getContent(), pageable,
+                    () -> searchCountCache.get(SearchCountCache.USERS, criteria.parameters(),
+                            () -> searchMetrics.count(SearchCountCache.USERS, () -> userRepository.count(criteria))));
+            return GenericPagedModel.<UserModel>builder()
+                    .totalElements(page.getTotalElements())
+                    .numberOfElements(page.getNumberOfElements())
+                    .hasNext(page.hasNext())
+                    .totalPages(page.getTotalPages())
+                    .content(page.getContent())
+                    .build();
         } catch (final DataIntegrityViolationException ex) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Data integrity violation", ex);
+        }
+    }
+
+    /**
+     * An empty result is 404 unless {@code get-together.search.empty-page-not-found} is off, then an
+     * empty page.
+     */
+    private GenericPagedModel<UserModel> emptyPage(PageQuery pageQuery, Supplier<String> notFoundMessage) {
+        if (emptyPageNotFound) {
+            throw new NotFoundException(notFoundMessage.get());
         }
+        return GenericPagedModel.empty(pageQuery.isWithTotals());
+    }
+
+    private static Sort.Direction direction(SortDirection sortDirection) {
+        return sortDirection.equals(SortDirection.Ascending) ? Sort.Direction.ASC : Sort.Direction.DESC;
     }
 }
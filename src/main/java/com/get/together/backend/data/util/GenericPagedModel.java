@@ -4,11 +4,25 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.util.Collection;
+import java.util.List;
+
 @Builder
 @Data
 public class GenericPagedModel<T> {
     Long totalElements;
     Integer totalPages;
     Integer numberOfElements;
+    Boolean hasNext;
     Collection<T> content;
+    String nextCursor;
+
+    public static <T> GenericPagedModel<T> empty(boolean withTotals) {
+        return GenericPagedModel.<T>builder()
+                .totalElements(withTotals ? 0L : null)
+                .totalPages(withTotals ? 0 : null)
+                .numberOfElements(0)
+                .hasNext(false)
+                .content(List.of())
+                .build();
+    }
 }
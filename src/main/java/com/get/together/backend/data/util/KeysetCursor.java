@@ -0,0 +1,89 @@
+package com.get.together.backend.data.util;
+
+import com.get.together.backend.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.val;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Opaque position of the last row of a keyset page: the sort key value and the id tiebreaker.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetCursor {
+    public static final String ID = "id";
+    public static final String CREATED = "created";
+    public static final Set<String> SORT_KEYS = Set.of(ID, CREATED);
+    // full-text results only; not a sortBy of the criteria searches
+    public static final String RELEVANCE = "relevance";
+
+    private final String sortBy;
+    private final Object value;
+    private final Integer id;
+
+    public static KeysetCursor of(String sortBy, Date created, Integer id) {
+        return new KeysetCursor(sortBy, sortBy.equals(CREATED) ? created : id, id);
+    }
+
+    public static KeysetCursor ofRelevance(double score, Integer id) {
+        return new KeysetCursor(RELEVANCE, score, id);
+    }
+
+    /**
+     * Returns null for the empty token, i.e. the first keyset page.
+     */
+    public static KeysetCursor decode(String token, String sortBy) {
+        requireSortKey(sortBy);
+        return parse(token, sortBy);
+    }
+
+    /**
+     * Position in a full-text result ordered by relevance, then id; null for the empty token.
+     */
+    public static KeysetCursor decodeRelevance(String token) {
+        return parse(token, RELEVANCE);
+    }
+
+    private static KeysetCursor parse(String token, String sortBy) {
+        if (StringUtils.isEmpty(token)) {
+            return null;
+        }
+        try {
+            val parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                throw new IllegalArgumentException(token);
+            }
+            val id = Integer.valueOf(parts[2]);
+            return new KeysetCursor(sortBy, switch (sortBy) {
+                case CREATED -> new Date(Long.parseLong(parts[1]));
+                case RELEVANCE -> Double.valueOf(parts[1]);
+                default -> id;
+            }, id);
+        } catch (final IllegalArgumentException ex) {
+            throw new BadRequestException("after: invalid cursor for sortBy ".concat(sortBy));
+        }
+    }
+
+    public static void requireSortKey(String sortBy) {
+        if (!SORT_KEYS.contains(sortBy)) {
+            throw new BadRequestException("sortBy: keyset paging supports only ".concat(String.join(", ", SORT_KEYS)));
+        }
+    }
+
+    public String encode() {
+        // relevance scores are compared for equality, so they keep every digit
+        val key = value instanceof Date date ? Long.toString(date.getTime())
+                : value instanceof Double score ? Double.toString(score)
+                : Long.toString(((Number) value).longValue());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.join(":", sortBy, key, id.toString())
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+}
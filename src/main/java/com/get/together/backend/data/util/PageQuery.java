@@ -0,0 +1,39 @@
+package com.get.together.backend.data.util;
+
+import com.get.together.backend.util.SortDirection;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * Paging options of a list request. A non-null {@code after} token (empty for the first page)
+ * switches from offset paging on {@code page} to keyset paging. Offset pages only carry totals
+ * when {@code withTotals} is set; otherwise they are read as a slice that reports {@code hasNext}.
+ */
+@Getter
+@ToString
+@Builder
+public class PageQuery {
+    int page;
+    int size;
+    String sortBy;
+    SortDirection sortDirection;
+    String after;
+    @Builder.Default
+    boolean withTotals = true;
+
+    public static PageQuery of(int page, int size, String sortBy, SortDirection sortDirection) {
+        return PageQuery.builder()
+                .page(page)
+                .size(size)
+                .sortBy(sortBy)
+                .sortDirection(sortDirection)
+                .build();
+    }
+
+    public boolean isKeyset() {
+        return Objects.nonNull(after);
+    }
+}
@@ -0,0 +1,7 @@
+package com.get.together.backend.data.validator;
+
+import com.get.together.backend.data.model.CommentModel;
+
+public interface CommentValidator {
+    void validate(CommentModel model);
+}
@@ -0,0 +1,25 @@
+package com.get.together.backend.data.validator;
+
+import com.get.together.backend.data.model.CommentModel;
+import com.get.together.backend.validation.CompiledValidator;
+import org.springframework.stereotype.Component;
+
+import static com.get.together.backend.validation.Constants.COMMENT_DESCRIPTION_FIELD_FOR_VALIDATION;
+import static com.get.together.backend.validation.helper.StringValidationHelpers.lessThan;
+import static com.get.together.backend.validation.helper.StringValidationHelpers.notBlank;
+
+@Component
+public class CommentValidatorImpl implements CommentValidator {
+    // the width of comment.description
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+    public static final CompiledValidator<CommentModel> RULES = CompiledValidator.<CommentModel>builder()
+            .rule(COMMENT_DESCRIPTION_FIELD_FOR_VALIDATION, CommentModel::getDescription, notBlank)
+            .rule(COMMENT_DESCRIPTION_FIELD_FOR_VALIDATION, CommentModel::getDescription,
+                    lessThan(MAX_DESCRIPTION_LENGTH))
+            .build();
+
+    @Override
+    public void validate(CommentModel model) {
+        RULES.validate(model);
+    }
+}
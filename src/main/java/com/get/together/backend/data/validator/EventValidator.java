@@ -5,4 +5,9 @@ import com.get.together.backend.data.model.UserModel;
 
 public interface EventValidator {
     void validate(EventModel model);
+
+    /**
+     * Null when the model is valid, otherwise the message {@link #validate} would fail with.
+     */
+    String describe(EventModel model);
 }
@@ -1,6 +1,7 @@
 package com.get.together.backend.data.validator;
 
 import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.validation.CompiledValidator;
 import org.springframework.stereotype.Component;
 
 import static com.get.together.backend.validation.Constants.*;
@@ -10,10 +11,19 @@ import static com.get.together.backend.validation.helper.StringValidationHelpers
 
 @Component
 public class EventValidatorImpl implements EventValidator{
+    public static final CompiledValidator<EventModel> RULES = CompiledValidator.<EventModel>builder()
+            .rule(EVENT_HEADER_FIELD_FOR_VALIDATION, EventModel::getHeader, notBlank)
+            .rule(EVENT_CAPACITY_FIELD_FOR_VALIDATION, EventModel::getCapacity, notNullInteger)
+            .rule(EVENT_CAPACITY_FIELD_FOR_VALIDATION, EventModel::getCapacity, greaterThan(1))
+            .build();
+
     @Override
     public void validate(EventModel model) {
-        notBlank.test(model.getHeader()).throwIfInvalid(EVENT_HEADER_FIELD_FOR_VALIDATION);
-        notNullInteger.and(greaterThan(1)).test(model.getCapacity())
-                .throwIfInvalid(EVENT_CAPACITY_FIELD_FOR_VALIDATION);
+        RULES.validate(model);
+    }
+
+    @Override
+    public String describe(EventModel model) {
+        return RULES.describe(model);
     }
 }
@@ -4,4 +4,9 @@ import com.get.together.backend.data.model.UserModel;
 
 public interface UserValidator {
     void validate(UserModel model);
+
+    /**
+     * Null when the model is valid, otherwise the message {@link #validate} would fail with.
+     */
+    String describe(UserModel model);
 }
@@ -1,6 +1,7 @@
 package com.get.together.backend.data.validator;
 
 import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.validation.CompiledValidator;
 import org.springframework.stereotype.Component;
 
 import static com.get.together.backend.validation.Constants.*;
@@ -9,14 +10,22 @@ import static com.get.together.backend.validation.helper.StringValidationHelpers
 
 @Component
 public class UserValidatorImpl implements UserValidator {
+    public static final CompiledValidator<UserModel> RULES = CompiledValidator.<UserModel>builder()
+            .rule(USER_FIRST_NAME_FIELD_FOR_VALIDATION, UserModel::getFirstName, notBlank)
+            .rule(USER_LAST_NAME_FIELD_FOR_VALIDATION, UserModel::getLastName, notBlank)
+            .rule(USER_USERNAME_FIELD_FOR_VALIDATION, UserModel::getUserName, notBlank)
+            .rule(USER_MAIL_FIELD_FOR_VALIDATION, UserModel::getMail, notBlank)
+            .ruleShowingValue(USER_MAIL_FIELD_FOR_VALIDATION, UserModel::getMail, notValidEmail)
+            .rule(USER_PASSWORD_FIELD_FOR_VALIDATION, UserModel::getPassword, notBlank)
+            .build();
+
     @Override
     public void validate(UserModel model) {
-        notBlank.test(model.getFirstName()).throwIfInvalid(USER_FIRST_NAME_FIELD_FOR_VALIDATION);
-        notBlank.test(model.getLastName()).throwIfInvalid(USER_LAST_NAME_FIELD_FOR_VALIDATION);
-        notBlank.test(model.getUserName()).throwIfInvalid(USER_USERNAME_FIELD_FOR_VALIDATION);
-        notBlank.test(model.getMail()).throwIfInvalid(USER_MAIL_FIELD_FOR_VALIDATION);
-        notBlank.test(model.getPassword()).throwIfInvalid(USER_PASSWORD_FIELD_FOR_VALIDATION);
-        notValidEmail.test(model.getMail()).throwIfInvalid(USER_MAIL_FIELD_FOR_VALIDATION.concat(":")
-                .concat(model.getMail()));
+        RULES.validate(model);
+    }
+
+    @Override
+    public String describe(UserModel model) {
+        return RULES.describe(model);
     }
 }
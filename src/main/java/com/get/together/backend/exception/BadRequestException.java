@@ -0,0 +1,10 @@
+package com.get.together.backend.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class BadRequestException extends StacklessResponseStatusException {
+
+    public BadRequestException(String reason) {
+        super(HttpStatus.BAD_REQUEST, reason);
+    }
+}
@@ -0,0 +1,10 @@
+package com.get.together.backend.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends StacklessResponseStatusException {
+
+    public ConflictException(String reason) {
+        super(HttpStatus.CONFLICT, reason);
+    }
+}
@@ -0,0 +1,13 @@
+package com.get.together.backend.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Missing or unparsable input, reported with 406 as the v1 endpoints always have.
+ */
+public class NotAcceptableException extends StacklessResponseStatusException {
+
+    public NotAcceptableException(String reason) {
+        super(HttpStatus.NOT_ACCEPTABLE, reason);
+    }
+}
@@ -0,0 +1,10 @@
+package com.get.together.backend.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class NotFoundException extends StacklessResponseStatusException {
+
+    public NotFoundException(String reason) {
+        super(HttpStatus.NOT_FOUND, reason);
+    }
+}
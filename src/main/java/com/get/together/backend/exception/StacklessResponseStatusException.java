@@ -0,0 +1,21 @@
+package com.get.together.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * An expected outcome reported to the client, such as a missing entity or a rejected parameter.
+ * No stack trace is captured: it would never be looked at, and filling it in costs more than
+ * the rest of a request that only probes for an empty result.
+ */
+public class StacklessResponseStatusException extends ResponseStatusException {
+
+    public StacklessResponseStatusException(HttpStatus status, String reason) {
+        super(status, reason);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
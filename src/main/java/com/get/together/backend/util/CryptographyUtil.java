@@ -1,55 +1,94 @@
 package com.get.together.backend.util;
 
 import lombok.val;
-import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 
+/**
+ * AES encryption of stored values. The key is derived once and every thread keeps one initialized
+ * cipher per direction, so a call costs the cipher work only. Blank input maps to null; anything
+ * that cannot be encrypted or decrypted fails with 500 instead of passing the input through.
+ */
 @Component
 public class CryptographyUtil {
 
     private static final String KEY = "bxc0%xbax18x02nxd9Sx8c=gx8b,xa3L";
-    private final String ENCRYPTION_ALGORITHM = "AES";
-    private final String TRANSFORMATION_ECB = "AES/ECB/PKCS5Padding";
+    private static final String ENCRYPTION_ALGORITHM = "AES";
+    private static final String TRANSFORMATION_ECB = "AES/ECB/PKCS5Padding";
+    private static final SecretKeySpec SECRET_KEY =
+            new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), ENCRYPTION_ALGORITHM);
+
+    private static final ThreadLocal<Cipher> ENCRYPTORS = ThreadLocal.withInitial(() -> cipher(Cipher.ENCRYPT_MODE));
+    private static final ThreadLocal<Cipher> DECRYPTORS = ThreadLocal.withInitial(() -> cipher(Cipher.DECRYPT_MODE));
 
     public String encrypt(String data) {
-        try {
-            if (StringUtils.isBlank(data)) {
-                return null;
-            }
+        if (StringUtils.isBlank(data)) {
+            return null;
+        }
+        return encrypt(ENCRYPTORS.get(), data);
+    }
 
-            val cipher = Cipher.getInstance(TRANSFORMATION_ECB);
-            val secretKey = new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), ENCRYPTION_ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+    public String decrypt(String encryptedData) {
+        if (StringUtils.isBlank(encryptedData)) {
+            return null;
+        }
+        return decrypt(DECRYPTORS.get(), encryptedData);
+    }
 
-            return new Base64().encodeToString(cipher.doFinal(data.getBytes(StandardCharsets.UTF_8)));
-        } catch (BadPaddingException | InvalidKeyException | IllegalBlockSizeException | NoSuchPaddingException | NoSuchAlgorithmException e) {
-            return data;
+    public List<String> encryptAll(List<String> data) {
+        val cipher = ENCRYPTORS.get();
+        val result = new ArrayList<String>(data.size());
+        for (val value : data) {
+            result.add(StringUtils.isBlank(value) ? null : encrypt(cipher, value));
         }
+        return result;
     }
 
-    public String decrypt(String encryptedData) {
+    public List<String> decryptAll(List<String> encryptedData) {
+        val cipher = DECRYPTORS.get();
+        val result = new ArrayList<String>(encryptedData.size());
+        for (val value : encryptedData) {
+            result.add(StringUtils.isBlank(value) ? null : decrypt(cipher, value));
+        }
+        return result;
+    }
+
+    private static String encrypt(Cipher cipher, String data) {
         try {
-            if (StringUtils.isBlank(encryptedData)) {
-                return null;
-            }
+            return Base64.getEncoder().encodeToString(cipher.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            ENCRYPTORS.remove();
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not encrypt value", e);
+        }
+    }
 
-            val cipher = Cipher.getInstance(TRANSFORMATION_ECB);
-            val secretKey = new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), ENCRYPTION_ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
+    private static String decrypt(Cipher cipher, String encryptedData) {
+        try {
+            return new String(cipher.doFinal(Base64.getDecoder().decode(encryptedData)), StandardCharsets.UTF_8);
+        } catch (final GeneralSecurityException | IllegalArgumentException e) {
+            // a failed doFinal may leave the cipher mid-operation
+            DECRYPTORS.remove();
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not decrypt value", e);
+        }
+    }
 
-            return new String(cipher.doFinal(new Base64().decode(encryptedData)), StandardCharsets.UTF_8);
-        } catch (BadPaddingException | InvalidKeyException | IllegalBlockSizeException | NoSuchPaddingException | NoSuchAlgorithmException e) {
-            return encryptedData;
+    private static Cipher cipher(int mode) {
+        try {
+            val cipher = Cipher.getInstance(TRANSFORMATION_ECB);
+            cipher.init(mode, SECRET_KEY);
+            return cipher;
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("AES cipher unavailable", e);
         }
     }
 }
@@ -1,9 +1,8 @@
 package com.get.together.backend.util;
 
+import com.get.together.backend.exception.BadRequestException;
 import lombok.val;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -31,14 +30,13 @@ public enum SortDirection {
 
     public static SortDirection of(String alias) {
         if (StringUtils.isBlank(alias)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "SortDirection cannot be empty");
+            throw new BadRequestException("SortDirection cannot be empty");
         }
 
         val sd = sortDirections.get(alias.toLowerCase());
         if (Objects.isNull(sd)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "No enum alias for sort direction " + SortDirection.class.getCanonicalName() + "." + alias);
+            throw new BadRequestException
+                    ("No enum alias for sort direction " + SortDirection.class.getCanonicalName() + "." + alias);
         }
         return sd;
     }
@@ -0,0 +1,157 @@
+package com.get.together.backend.validation;
+
+import com.get.together.backend.exception.BadRequestException;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * The rules of a model declared once and checked in a single pass. Every field is tested, so one
+ * request reports all of its problems; the rules of a field stop at its first failure. Checking a
+ * valid model allocates nothing: results come from {@link Validation}s whose outcomes are shared
+ * constants and failures are collected in a per-thread buffer that is reused between calls.
+ */
+public final class CompiledValidator<T> {
+    private static final String SEPARATOR = " ";
+    private static final String DELIMITER = "; ";
+
+    private final Rule<T, ?>[] rules;
+    private final ThreadLocal<Violations> buffers;
+
+    private CompiledValidator(List<Rule<T, ?>> rules) {
+        @SuppressWarnings("unchecked")
+        final Rule<T, ?>[] compiled = rules.toArray(new Rule[0]);
+        this.rules = compiled;
+        this.buffers = ThreadLocal.withInitial(() -> new Violations(compiled.length));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Throws 400 listing every failed rule of {@code model}.
+     */
+    public void validate(T model) {
+        val violations = check(model);
+        if (violations.count > 0) {
+            throw new BadRequestException(violations.describe(model));
+        }
+    }
+
+    /**
+     * Messages of the invalid models by position; empty when all of them are valid.
+     */
+    public Map<Integer, String> validateAll(List<? extends T> models) {
+        Map<Integer, String> failures = Collections.emptyMap();
+        for (int i = 0; i < models.size(); i++) {
+            val model = models.get(i);
+            val violations = check(model);
+            if (violations.count > 0) {
+                if (failures.isEmpty()) {
+                    failures = new TreeMap<>();
+                }
+                failures.put(i, violations.describe(model));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Null when {@code model} is valid, otherwise every failure joined like {@link #validate}.
+     */
+    public String describe(T model) {
+        val violations = check(model);
+        return violations.count == 0 ? null : violations.describe(model);
+    }
+
+    private Violations check(T model) {
+        val violations = buffers.get();
+        violations.count = 0;
+        String failedField = null;
+        for (val rule : rules) {
+            // later rules of a field that already failed would only repeat it, or see a null
+            if (Objects.equals(rule.field, failedField)) {
+                continue;
+            }
+            val result = rule.test(model);
+            if (!result.isValid()) {
+                violations.add(rule, result);
+                failedField = rule.field;
+            }
+        }
+        return violations;
+    }
+
+    public static final class Builder<T> {
+        private final List<Rule<T, ?>> rules = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Rules of one field must be declared next to each other.
+         */
+        public <V> Builder<T> rule(String field, Function<T, V> getter, Validation<V> validation) {
+            rules.add(new Rule<>(field, getter, validation, false));
+            return this;
+        }
+
+        /**
+         * Like {@link #rule}, naming the rejected value in the message.
+         */
+        public <V> Builder<T> ruleShowingValue(String field, Function<T, V> getter, Validation<V> validation) {
+            rules.add(new Rule<>(field, getter, validation, true));
+            return this;
+        }
+
+        public CompiledValidator<T> build() {
+            return new CompiledValidator<>(rules);
+        }
+    }
+
+    private record Rule<T, V>(String field, Function<T, V> getter, Validation<V> validation, boolean showValue) {
+        ValidationResult test(T model) {
+            return validation.test(getter.apply(model));
+        }
+
+        String message(T model, ValidationResult result) {
+            val prefix = showValue ? field.concat(":").concat(String.valueOf(getter.apply(model))) : field;
+            return prefix.concat(SEPARATOR).concat(result.getMessage());
+        }
+    }
+
+    private static final class Violations {
+        private final Rule<?, ?>[] rules;
+        private final ValidationResult[] results;
+        private int count;
+
+        Violations(int capacity) {
+            this.rules = new Rule[capacity];
+            this.results = new ValidationResult[capacity];
+        }
+
+        void add(Rule<?, ?> rule, ValidationResult result) {
+            rules[count] = rule;
+            results[count++] = result;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> String describe(T model) {
+            val message = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    message.append(DELIMITER);
+                }
+                message.append(((Rule<T, ?>) rules[i]).message(model, results[i]));
+            }
+            return message.toString();
+        }
+    }
+}
@@ -8,4 +8,5 @@ public class Constants {
     public static final String USER_PASSWORD_FIELD_FOR_VALIDATION = "User password";
     public static final String EVENT_HEADER_FIELD_FOR_VALIDATION = "Event heaeder";
     public static final String EVENT_CAPACITY_FIELD_FOR_VALIDATION = "Event capacity";
+    public static final String COMMENT_DESCRIPTION_FIELD_FOR_VALIDATION = "Comment description";
 }
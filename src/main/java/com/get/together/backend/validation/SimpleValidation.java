@@ -8,7 +8,7 @@ import static com.get.together.backend.validation.ValidationResult.fail;
 public class SimpleValidation<K> implements Validation<K> {
 
 	private final Predicate<K> predicate;
-	private final String onErrorMessage;
+	private final ValidationResult failure;
 	
 	public static <K> SimpleValidation<K> from(Predicate<K> predicate, String onErrorMessage) {
 		 return new SimpleValidation<K>(predicate, onErrorMessage);
@@ -16,12 +16,12 @@ public class SimpleValidation<K> implements Validation<K> {
 	
 	private SimpleValidation(Predicate<K> predicate, String onErrorMessage) {
 		this.predicate = predicate;
-		this.onErrorMessage = onErrorMessage;
+		this.failure = fail(onErrorMessage);
 	}
 	
 	@Override
 	public ValidationResult test(K param) {
-		return predicate.test(param) ? ValidationResult.ok() : fail(onErrorMessage);
+		return predicate.test(param) ? ValidationResult.ok() : failure;
 	}
 
 }
@@ -1,9 +1,8 @@
 package com.get.together.backend.validation;
 
-
+import com.get.together.backend.exception.BadRequestException;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -11,11 +10,13 @@ import java.io.IOException;
 
 @Getter
 public class ValidationResult {
+    private static final ValidationResult OK = new ValidationResult(true, null);
+
     private final boolean valid;
     private final String message;
 
     public static ValidationResult ok() {
-        return new ValidationResult(true, null);
+        return OK;
     }
 
     public static ValidationResult fail(String message) {
@@ -29,13 +30,13 @@ public class ValidationResult {
 
     public void throwIfInvalid() {
         if (!isValid()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, getMessage());
+            throw new BadRequestException(getMessage());
         }
     }
 
     public void throwIfInvalid(String fieldName) {
         if (!isValid()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, fieldName + " " + getMessage());
+            throw new BadRequestException(fieldName + " " + getMessage());
         }
     }
 
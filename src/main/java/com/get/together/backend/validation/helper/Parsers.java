@@ -1,17 +1,25 @@
 package com.get.together.backend.validation.helper;
 
-import lombok.val;
-
 import java.util.Objects;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Parsers {
+    private static final Pattern UUID = Pattern.compile
+            ("[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}");
+    private static final Pattern EMAIL_ADDRESS = Pattern.compile
+            ("^[\\w!#$%&'*+/=?`{|}~^-]+(?:\\.[\\w!#$%&'*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,6}$");
+    // a matcher is reset for every check instead of being allocated with its group arrays
+    private static final ThreadLocal<Matcher> UUID_MATCHERS = ThreadLocal.withInitial(() -> UUID.matcher(""));
+    private static final ThreadLocal<Matcher> EMAIL_ADDRESS_MATCHERS =
+            ThreadLocal.withInitial(() -> EMAIL_ADDRESS.matcher(""));
+
     public static boolean notValidUUID(String uuid) {
         if (Objects.isNull(uuid)) {
             return false;
         }
 
-        return uuid.matches("[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}");
+        return UUID_MATCHERS.get().reset(uuid).matches();
     }
 
     public static boolean notValidEmailAddress(String emailAddress) {
@@ -19,8 +27,6 @@ public class Parsers {
             return false;
         }
 
-        val regex = "^[\\w!#$%&'*+/=?`{|}~^-]+(?:\\.[\\w!#$%&'*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,6}$";
-
-        return Pattern.compile(regex).matcher(emailAddress).matches();
+        return EMAIL_ADDRESS_MATCHERS.get().reset(emailAddress).matches();
     }
 }
@@ -0,0 +1,28 @@
+-- One index per lookup shape of UserRepository and EventRepository. Secondary indexes end in the
+-- primary key implicitly, so (created) also serves the (created, id) keyset order.
+
+-- existsByUserName, findByUserName, findAllByUserNameIn, findExistingUserNames and the user name
+-- half of findUserNameOrMailConflicts / findAllByIdInOrUserNameIn
+CREATE INDEX idx_user_user_name ON user (user_name);
+
+-- existsByMail, findExistingMails and the mail half of findUserNameOrMailConflicts
+CREATE INDEX idx_user_mail ON user (mail);
+
+-- existsByPhoneNumber
+CREATE INDEX idx_user_phone_number ON user (phone_number);
+
+-- user keyset pages sorted by created
+CREATE INDEX idx_user_created ON user (created);
+
+-- event searches on a created range and event keyset pages sorted by created
+CREATE INDEX idx_event_created ON event (created);
+
+-- event searches on isActive within a created range
+CREATE INDEX idx_event_active_created ON event (is_active, created);
+
+-- event searches by host; replaces the implicit foreign key index on host_id
+CREATE INDEX idx_event_host_created ON event (host_id, created);
+
+-- findAllByAttendedEventsId and findAttendingUserIds read attendees by event; the primary key
+-- leads with user_id
+CREATE INDEX idx_user_event_event ON user_event (event_id, user_id);
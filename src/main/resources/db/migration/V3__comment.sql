@@ -0,0 +1,27 @@
+-- Comments, indexed for the CommentRepository lookups: by owner, by event, by both and by a
+-- created range, each ordered by created.
+
+CREATE TABLE comment
+(
+    id               INT          NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    description      VARCHAR(255) NOT NULL,
+    created          DATETIME     NOT NULL,
+    owner_id         INT          NOT NULL,
+    related_event_id INT          NOT NULL,
+    FOREIGN KEY (owner_id) REFERENCES user (id)
+        ON DELETE CASCADE ON UPDATE CASCADE,
+    FOREIGN KEY (related_event_id) REFERENCES event (id)
+        ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+-- findAllByRelatedEvent
+CREATE INDEX idx_comment_event_created ON comment (related_event_id, created);
+
+-- findAllByOwner, findAllByOwnerAndCreatedBeforeAndCreatedAfter
+CREATE INDEX idx_comment_owner_created ON comment (owner_id, created);
+
+-- findAllByOwnerAndRelatedEvent, findAllByOwnerAndRelatedEventAndCreatedBeforeAndCreatedAfter
+CREATE INDEX idx_comment_owner_event_created ON comment (owner_id, related_event_id, created);
+
+-- findAllByCreatedBeforeAndCreatedAfter
+CREATE INDEX idx_comment_created ON comment (created);
@@ -0,0 +1,2 @@
+-- EventRepository.findAllMatching; the first FULLTEXT index rebuilds the table to add FTS_DOC_ID.
+CREATE FULLTEXT INDEX ft_event_header_description ON event (header, description);
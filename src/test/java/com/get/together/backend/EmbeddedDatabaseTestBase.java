@@ -0,0 +1,87 @@
+package com.get.together.backend;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.get.together.backend.data.service.EventService;
+import com.get.together.backend.data.service.UserService;
+import lombok.val;
+import org.junit.Ignore;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Like {@link TestBase}, but against an embedded MariaDB started from the mariaDB4j binaries instead
+ * of a MySQL container, so it runs without Docker. MariaDB understands the native queries and
+ * FULLTEXT indexes used here; tests of MySQL 8 specific behaviour belong on {@link TestBase}.
+ */
+@DirtiesContext
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = GetTogetherBackendApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Ignore
+public abstract class EmbeddedDatabaseTestBase {
+    public static final String LOCALHOST = "http://localhost:";
+    public static final String DATABASE = "get_together";
+    private static final int DATABASE_PORT = startServer();
+
+    @LocalServerPort
+    public int port;
+
+    @Autowired
+    public RestTemplate restTemplate;
+
+    @Autowired
+    public UserService userService;
+
+    @Autowired
+    public EventService eventService;
+
+    /**
+     * Starts another embedded server, e.g. to stand in for a replica, and returns its port.
+     */
+    public static int startServer() {
+        // port 0 picks a free port
+        val builder = DBConfigurationBuilder.newBuilder()
+                .setPort(0)
+                .addArg("--character-set-server=utf8mb4")
+                .addArg("--collation-server=utf8mb4_unicode_ci");
+        if ("root".equals(System.getProperty("user.name"))) {
+            builder.addArg("--user=root");
+        }
+        val configuration = builder.build();
+        try {
+            DB.newEmbeddedDB(configuration).start();
+        } catch (final ManagedProcessException e) {
+            throw new IllegalStateException("Embedded MariaDB did not start", e);
+        }
+        return configuration.getPort();
+    }
+
+    /**
+     * JDBC URL of {@code database} on the embedded server at {@code serverPort}; the database is
+     * created on first connect.
+     */
+    public static String url(int serverPort, String database) {
+        return "jdbc:mysql://localhost:" + serverPort + "/" + database + "?createDatabaseIfNotExist=true";
+    }
+
+    public static String url(String database) {
+        return url(DATABASE_PORT, database);
+    }
+
+    @DynamicPropertySource
+    public static void overrideDatabaseProperties(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("spring.datasource.url", () -> url(DATABASE));
+        dynamicPropertyRegistry.add("spring.datasource.username", () -> "root");
+        dynamicPropertyRegistry.add("spring.datasource.password", () -> "");
+    }
+}
@@ -0,0 +1,35 @@
+package com.get.together.backend;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate prepares. Enable with the
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} property.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> selects() {
+        return STATEMENTS.stream().filter(sql -> sql.startsWith("select")).toList();
+    }
+
+    public static List<String> selectedColumns(String sql) {
+        return Arrays.stream(sql.substring("select ".length(), sql.indexOf(" from ")).split(","))
+                .map(String::trim)
+                .toList();
+    }
+}
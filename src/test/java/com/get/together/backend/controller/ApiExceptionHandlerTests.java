@@ -0,0 +1,39 @@
+package com.get.together.backend.controller;
+
+import com.get.together.backend.exception.BadRequestException;
+import com.get.together.backend.exception.NotFoundException;
+import lombok.val;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.Assert.*;
+
+public class ApiExceptionHandlerTests {
+    private final ApiExceptionHandler handler = new ApiExceptionHandler();
+
+    @Test
+    public void expected_outcomes_carry_no_stack_trace_test() {
+        assertEquals(0, new NotFoundException("No event with id: 1").getStackTrace().length);
+        assertTrue(new ResponseStatusException(HttpStatus.NOT_FOUND).getStackTrace().length > 0);
+    }
+
+    @Test
+    public void status_exceptions_map_to_compact_bodies_test() {
+        val response = handler.handle(new BadRequestException("SortDirection cannot be empty"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(Integer.valueOf(400), response.getBody().getStatus());
+        assertEquals("Bad Request", response.getBody().getError());
+        assertEquals("SortDirection cannot be empty", response.getBody().getMessage());
+    }
+
+    @Test
+    public void server_errors_do_not_leak_their_cause_test() {
+        val response = handler.handle(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Data integrity violation", new IllegalStateException("constraint fk_host")));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Data integrity violation", response.getBody().getMessage());
+    }
+}
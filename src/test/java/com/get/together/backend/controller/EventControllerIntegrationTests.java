@@ -1,23 +1,34 @@
 package com.get.together.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.get.together.backend.TestBase;
 import com.get.together.backend.controller.model.Event;
 import com.get.together.backend.controller.model.PagedData;
 import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.ImportReport;
 import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.util.SortDirection;
 import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertTrue;
 
@@ -325,4 +336,125 @@ public class EventControllerIntegrationTests extends TestBase {
                         HttpMethod.GET, null,
                         new ParameterizedTypeReference<PagedData<Event>>() {}).getBody());
     }
+
+    @Test
+    public void search_v2_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        val yesterday = Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli();
+
+        val url = TestBase.LOCALHOST
+                .concat(String.valueOf(port))
+                .concat("/v2/event/search");
+
+        testPagedDataResponse(restTemplate.exchange
+                (url.concat("?header=header&active=true&capacityMin=5&hostId=").concat(newUser.getId().toString())
+                                .concat("&createdAfter=").concat(String.valueOf(yesterday)),
+                        HttpMethod.GET, null,
+                        new ParameterizedTypeReference<PagedData<Event>>() {}).getBody());
+    }
+
+    @Test
+    public void search_v2_with_exception_test() {
+        insertNewUser();
+        insertNewEvent1();
+
+        val url = TestBase.LOCALHOST
+                .concat(String.valueOf(port))
+                .concat("/v2/event/search?description=nothing&attendingMax=1");
+        try {
+            restTemplate.exchange(url, HttpMethod.GET, null,
+                    new ParameterizedTypeReference<PagedData<Event>>() {});
+            fail();
+        } catch (final HttpClientErrorException e) {
+            assertThat(e.getMessage(), containsString("404"));
+        }
+    }
+
+    @Test
+    public void find_all_between_created_before_and_after_keyset_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        val yesterday = Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli();
+        val tomorrow = Instant.now().plus(1, ChronoUnit.DAYS).toEpochMilli();
+
+        val url = TestBase.LOCALHOST
+                .concat(String.valueOf(port))
+                .concat("/v1/event/find_all_between_created_before_and_after?createdBefore=")
+                .concat(String.valueOf(tomorrow)).concat("&createdAfter=").concat(String.valueOf(yesterday))
+                .concat("&pageSize=1&sortBy=created&after=");
+
+        val first = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedData<Event>>() {}).getBody();
+
+        assertNotNull(first);
+        assertEquals(1, first.getContent().size());
+        assertNotNull(first.getNextCursor());
+
+        val second = restTemplate.exchange(url.concat(first.getNextCursor()), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedData<Event>>() {}).getBody();
+
+        assertNotNull(second);
+        assertEquals(newEvent2.getId(), second.getContent().iterator().next().getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void import_events_test() {
+        insertNewUser();
+
+        val body = String.join("\n",
+                "{\"hostId\": " + newUser.getId() + ", \"header\": \"imported1\", \"capacity\": 5}",
+                "{not json",
+                "",
+                "{\"hostId\": " + newUser.getId() + ", \"header\": \"\", \"capacity\": 5}",
+                "{\"hostId\": 0, \"header\": \"imported2\", \"capacity\": 5}",
+                "{\"hostId\": " + newUser.getId() + ", \"header\": \"imported3\", \"description\": \"d\", " +
+                        "\"capacity\": 10, \"isActive\": false}");
+        val headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        val report = restTemplate.postForObject(TestBase.LOCALHOST.concat(String.valueOf(port))
+                .concat("/v1/event/import"), new HttpEntity<>(body, headers), ImportReport.class);
+
+        assertNotNull(report);
+        assertEquals(6, report.getLines());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2L, 4L, 5L), report.getErrors().stream()
+                .map(ImportReport.LineError::getLine).sorted().toList());
+
+        val imported = new ArrayList<>(eventService.search(EventSearchCriteria.builder().hostId(newUser.getId()).build(),
+                0, 10, "id", SortDirection.Ascending).getContent());
+        assertEquals(List.of("imported1", "imported3"), imported.stream().map(EventView::getHeader).toList());
+        assertEquals(Integer.valueOf(0), imported.get(0).getAttending());
+        assertFalse(imported.get(1).getIsActive());
+    }
+
+    @Test
+    public void export_events_test() throws Exception {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        val url = TestBase.LOCALHOST.concat(String.valueOf(port)).concat("/v1/event/export");
+
+        val ndjson = restTemplate.getForEntity(url, String.class);
+        assertEquals(MediaType.APPLICATION_NDJSON, ndjson.getHeaders().getContentType());
+        val lines = ndjson.getBody().split("\n");
+        assertEquals(2, lines.length);
+        val first = new ObjectMapper().readValue(lines[0], Event.class);
+        assertEquals(newEvent1.getId(), first.getId());
+        assertEquals(newUser.getId(), first.getHostId());
+
+        val csv = restTemplate.getForObject(url.concat("?format=csv&hostId=").concat(newUser.getId().toString()),
+                String.class).split("\n");
+        assertEquals(3, csv.length);
+        assertEquals("id,header,description,capacity,attending,created,isActive,hostId", csv[0]);
+        assertTrue(csv[2].startsWith(newEvent2.getId() + ",header2,description2,"));
+    }
 }
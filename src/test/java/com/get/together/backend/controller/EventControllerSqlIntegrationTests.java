@@ -0,0 +1,163 @@
+package com.get.together.backend.controller;
+
+import com.get.together.backend.SqlStatementRecorder;
+import com.get.together.backend.TestBase;
+import com.get.together.backend.controller.model.BatchItem;
+import com.get.together.backend.controller.model.Event;
+import com.get.together.backend.controller.model.PagedData;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Pins the SQL each event read endpoint issues: one select of the eight event columns, never the
+ * user table, plus a count only when totals are requested and not cached.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.get.together.backend.SqlStatementRecorder")
+public class EventControllerSqlIntegrationTests extends TestBase {
+    private static final int EVENT_VIEW_COLUMNS = 8;
+
+    private static UserModel newUser;
+    private static EventModel newEvent1;
+
+    public void insertNewUser() {
+        newUser = userService.save(UserModel.builder()
+                .userName("user1")
+                .mail("user@gmail.com")
+                .firstName("F1")
+                .lastName("L1")
+                .password("P1")
+                .biography("")
+                .phoneNumber("12345")
+                .created(new Date(Instant.now().toEpochMilli()))
+                .build());
+    }
+
+    public void insertNewEvents() {
+        for (int i = 1; i <= 2; i++) {
+            val event = eventService.save(EventModel.builder()
+                    .host(newUser)
+                    .header("header" + i)
+                    .description("description" + i)
+                    .capacity(5)
+                    .attending(2)
+                    .isActive(true)
+                    .attendees(new ArrayList<>())
+                    .build());
+            if (i == 1) {
+                newEvent1 = event;
+            }
+        }
+    }
+
+    private PagedData<Event> getPagedData(String path) {
+        return restTemplate.exchange(TestBase.LOCALHOST.concat(String.valueOf(port)).concat(path),
+                HttpMethod.GET, null, new ParameterizedTypeReference<PagedData<Event>>() {}).getBody();
+    }
+
+    private static void assertEventViewSelect(String sql) {
+        assertEquals(EVENT_VIEW_COLUMNS, SqlStatementRecorder.selectedColumns(sql).size());
+        assertFalse(sql, sql.contains("get_together.user"));
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        insertNewUser();
+        insertNewEvents();
+        SqlStatementRecorder.clear();
+    }
+
+    @Test
+    public void find_by_id_selects_event_columns_only_test() {
+        val response = restTemplate.exchange(TestBase.LOCALHOST.concat(String.valueOf(port))
+                .concat("/v1/event/").concat(newEvent1.getId().toString()), HttpMethod.GET, null, Event.class);
+
+        assertNotNull(response.getBody());
+        assertEquals(newUser.getId(), response.getBody().getHostId());
+
+        val selects = SqlStatementRecorder.selects();
+        assertEquals(selects.toString(), 1, selects.size());
+        assertEventViewSelect(selects.get(0));
+    }
+
+    @Test
+    public void find_all_without_totals_issues_single_select_test() {
+        val response = getPagedData("/v1/event/find_all_by_capacity_between/1/10?pageSize=1&withTotals=false");
+
+        assertNotNull(response);
+        assertTrue(response.getHasNext());
+        assertEquals(newUser.getId(), response.getContent().iterator().next().getHostId());
+
+        val selects = SqlStatementRecorder.selects();
+        assertEquals(selects.toString(), 1, selects.size());
+        assertEventViewSelect(selects.get(0));
+    }
+
+    @Test
+    public void find_all_with_totals_counts_once_test() {
+        val yesterday = Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli();
+        val path = "/v2/event/search?createdAfter=".concat(String.valueOf(yesterday)).concat("&pageSize=1");
+
+        assertEquals(2L, getPagedData(path).getTotalElements().longValue());
+
+        var selects = SqlStatementRecorder.selects();
+        assertEquals(selects.toString(), 2, selects.size());
+        assertEventViewSelect(selects.get(0));
+        assertTrue(selects.get(1).startsWith("select count("));
+        assertEquals(1, SqlStatementRecorder.selectedColumns(selects.get(1)).size());
+
+        SqlStatementRecorder.clear();
+        assertEquals(2L, getPagedData(path).getTotalElements().longValue());
+
+        selects = SqlStatementRecorder.selects();
+        assertEquals(selects.toString(), 1, selects.size());
+        assertEventViewSelect(selects.get(0));
+    }
+
+    @Test
+    public void find_all_keyset_issues_single_select_test() {
+        val response = getPagedData("/v1/event/find_all_by_capacity_between/1/10?pageSize=1&after=");
+
+        assertNotNull(response);
+        assertNotNull(response.getNextCursor());
+
+        val selects = SqlStatementRecorder.selects();
+        assertEquals(selects.toString(), 1, selects.size());
+        assertEventViewSelect(selects.get(0));
+    }
+
+    @Test
+    public void find_batch_issues_single_padded_select_test() {
+        val path = "/v1/event/batch?ids=0,".concat(newEvent1.getId().toString()).concat(",999999,0");
+        val response = restTemplate.exchange(TestBase.LOCALHOST.concat(String.valueOf(port)).concat(path),
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<BatchItem<Event>>>() {}).getBody();
+
+        assertNotNull(response);
+        assertEquals(List.of(false, true, false, false), response.stream().map(BatchItem::getFound).toList());
+        assertEquals(newEvent1.getId(), response.get(1).getValue().getId());
+        assertEquals(newUser.getId(), response.get(1).getValue().getHostId());
+
+        val selects = SqlStatementRecorder.selects();
+        assertEquals(selects.toString(), 1, selects.size());
+        assertEventViewSelect(selects.get(0));
+        // three distinct ids, padded to the next power of two
+        val inList = selects.get(0).substring(selects.get(0).indexOf(" in ("));
+        assertEquals(selects.get(0), 4, inList.substring(0, inList.indexOf(')')).chars().filter(c -> c == '?').count());
+    }
+}
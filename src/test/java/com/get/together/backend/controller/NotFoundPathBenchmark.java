@@ -0,0 +1,148 @@
+package com.get.together.backend.controller;
+
+import com.get.together.backend.exception.NotFoundException;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load on a search that comes back empty, over HTTP against embedded Tomcat: the former
+ * stack-capturing {@link ResponseStatusException} forwarded to Boot's error page, against a
+ * {@link NotFoundException} written by {@link ApiExceptionHandler}. The controller throws from 150
+ * frames down, about where a service behind filters and transaction proxies sits. Client and
+ * server share the machine, so fewer operations per second means more CPU per request. Not part
+ * of the surefire run; execute with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.get.together.backend.controller.NotFoundPathBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class NotFoundPathBenchmark {
+    private static final int DEPTH = 150;
+
+    private ConfigurableApplicationContext stackTraces;
+    private ConfigurableApplicationContext stackless;
+    private HttpClient client;
+    private HttpRequest stackTraceRequest;
+    private HttpRequest stacklessRequest;
+
+    @Setup
+    public void setup() {
+        stackTraces = start(StackTraceApplication.class);
+        stackless = start(StacklessApplication.class);
+        client = HttpClient.newHttpClient();
+        stackTraceRequest = HttpRequest.newBuilder(uri(stackTraces)).build();
+        stacklessRequest = HttpRequest.newBuilder(uri(stackless)).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        stackTraces.close();
+        stackless.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String not_found_with_stack_trace() throws Exception {
+        return client.send(stackTraceRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String not_found_stackless() throws Exception {
+        return client.send(stacklessRequest, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static ConfigurableApplicationContext start(Class<?> application) {
+        return new SpringApplicationBuilder(application)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0", "--spring.main.banner-mode=off", "--logging.level.root=warn");
+    }
+
+    private static URI uri(ConfigurableApplicationContext context) {
+        val port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port + "/probe");
+    }
+
+    // imported rather than annotated, so the application's component scan never picks these up
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class, ErrorMvcAutoConfiguration.class})
+    static class WebConfiguration {
+    }
+
+    @Import({WebConfiguration.class, StackTraceProbe.class})
+    static class StackTraceApplication {
+    }
+
+    @Import({WebConfiguration.class, StacklessProbe.class, ApiExceptionHandler.class})
+    static class StacklessApplication {
+    }
+
+    @ResponseBody
+    @RequestMapping("/probe")
+    static class StackTraceProbe {
+        @GetMapping
+        public String probe() {
+            return search(DEPTH);
+        }
+
+        private String search(int depth) {
+            if (depth > 0) {
+                return search(depth - 1);
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No event with header: probe");
+        }
+    }
+
+    @ResponseBody
+    @RequestMapping("/probe")
+    static class StacklessProbe {
+        @GetMapping
+        public String probe() {
+            return search(DEPTH);
+        }
+
+        private String search(int depth) {
+            if (depth > 0) {
+                return search(depth - 1);
+            }
+            throw new NotFoundException("No event with header: probe");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotFoundPathBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,166 @@
+package com.get.together.backend.controller;
+
+import com.get.together.backend.TestBase;
+import com.get.together.backend.controller.model.Comment;
+import com.get.together.backend.controller.model.Event;
+import com.get.together.backend.controller.model.PagedData;
+import com.get.together.backend.controller.model.User;
+import com.get.together.backend.data.cache.EntityCaches;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Statement budgets per endpoint, measured with Hibernate statistics. A budget that starts failing
+ * usually means an association is loaded lazily again instead of through its fetch plan.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class StatementBudgetIntegrationTests extends TestBase {
+    private static UserModel newUser;
+    private static EventModel newEvent1;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    EntityCaches entityCaches;
+
+    Statistics statistics;
+
+    public void insertNewUser() {
+        newUser = userService.save(UserModel.builder()
+                .userName("user1")
+                .mail("user@gmail.com")
+                .firstName("F1")
+                .lastName("L1")
+                .password("P1")
+                .biography("")
+                .phoneNumber("12345")
+                .created(new Date(Instant.now().toEpochMilli()))
+                .build());
+    }
+
+    public void insertNewEvents() {
+        for (int i = 1; i <= 2; i++) {
+            val event = eventService.save(EventModel.builder()
+                    .host(newUser)
+                    .header("header" + i)
+                    .description("description" + i)
+                    .capacity(5)
+                    .attending(2)
+                    .isActive(true)
+                    .attendees(new ArrayList<>())
+                    .build());
+            if (i == 1) {
+                newEvent1 = event;
+            }
+        }
+    }
+
+    private String url(String path) {
+        return TestBase.LOCALHOST.concat(String.valueOf(port)).concat(path);
+    }
+
+    private void assertBudget(long budget, Runnable call) {
+        statistics.clear();
+        call.run();
+        assertTrue("statements: " + statistics.getPrepareStatementCount() + " > budget: " + budget,
+                statistics.getPrepareStatementCount() <= budget);
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        insertNewUser();
+        insertNewEvents();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void event_reads_within_budget_test() {
+        val yesterday = Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli();
+
+        assertBudget(1, () -> restTemplate.getForObject
+                (url("/v1/event/").concat(newEvent1.getId().toString()), Event.class));
+        assertBudget(1, () -> restTemplate.exchange
+                (url("/v1/event/find_all_by_capacity_between/1/10?pageSize=1&withTotals=false"), HttpMethod.GET,
+                        null, new ParameterizedTypeReference<PagedData<Event>>() {}));
+        assertBudget(2, () -> restTemplate.exchange
+                (url("/v2/event/search?pageSize=1&createdAfter=").concat(String.valueOf(yesterday)), HttpMethod.GET,
+                        null, new ParameterizedTypeReference<PagedData<Event>>() {}));
+    }
+
+    @Test
+    public void event_reads_on_a_cold_cache_within_budget_test() {
+        entityCaches.get(EntityCaches.EVENT_VIEWS).evictAll();
+        val event = url("/v1/event/").concat(newEvent1.getId().toString());
+
+        assertBudget(1, () -> restTemplate.getForObject(event, Event.class));
+        assertBudget(0, () -> restTemplate.getForObject(event, Event.class));
+
+        // owner and event by id; the host of the event is not loaded with it
+        entityCaches.get(EntityCaches.USERS).evictAll();
+        entityCaches.get(EntityCaches.EVENTS).evictAll();
+        assertBudget(2, () -> restTemplate.postForEntity(url("/v1/comment/save"), Comment.builder()
+                .eventId(newEvent1.getId())
+                .ownerId(newUser.getId())
+                .description("cold")
+                .build(), Comment.class));
+    }
+
+    @Test
+    public void attendee_endpoints_within_budget_test() {
+        val attendees = url("/v1/event/get_event_attendees/").concat(newEvent1.getId().toString());
+
+        assertBudget(2, () -> restTemplate.exchange(attendees, HttpMethod.GET,
+                null, new ParameterizedTypeReference<List<User>>() {}));
+        // seat update, attendee insert, attendee list
+        assertBudget(3, () -> restTemplate.exchange(url("/v1/event/add_user_to_event_attendees/")
+                        .concat(newEvent1.getId().toString()).concat("/").concat(newUser.getId().toString()),
+                HttpMethod.GET, null, new ParameterizedTypeReference<List<User>>() {}));
+        assertBudget(2, () -> assertEquals(1, restTemplate.exchange(attendees, HttpMethod.GET,
+                null, new ParameterizedTypeReference<List<User>>() {}).getBody().size()));
+    }
+
+    @Test
+    public void user_reads_within_budget_test() {
+        assertBudget(1, () -> restTemplate.getForObject
+                (url("/v1/user/").concat(newUser.getId().toString()), User.class));
+        assertBudget(1, () -> restTemplate.exchange
+                (url("/v1/user/find_all_like_user_name/user?withTotals=false"), HttpMethod.GET,
+                        null, new ParameterizedTypeReference<PagedData<User>>() {}));
+    }
+
+    @Test
+    public void event_writes_within_budget_test() {
+        assertBudget(2, () -> restTemplate.exchange(url("/v1/event/save"), HttpMethod.POST,
+                new HttpEntity<>(Event.builder()
+                        .hostId(newUser.getId())
+                        .header("header3")
+                        .description("description3")
+                        .capacity(5)
+                        .attending(0)
+                        .build()), Event.class));
+        assertBudget(3, () -> restTemplate.exchange(url("/v1/event/delete/").concat(newEvent1.getId().toString()),
+                HttpMethod.DELETE, null, Event.class));
+    }
+}
@@ -1,27 +1,41 @@
 package com.get.together.backend.controller;
 
 import com.get.together.backend.TestBase;
+import com.get.together.backend.controller.model.BatchItem;
 import com.get.together.backend.controller.model.PagedData;
 import com.get.together.backend.controller.model.User;
+import com.get.together.backend.data.model.ImportReport;
+import com.get.together.backend.data.model.UniquenessIndexReport;
 import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.util.CryptographyUtil;
 import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.platform.commons.util.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import static org.hamcrest.MatcherAssert.assertThat;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.*;
 
 public class UserControllerIntegrationTests extends TestBase {
+    @Autowired
+    CryptographyUtil cryptographyUtil;
+
     private static UserModel newUser;
     private static UserModel newUser2;
 
@@ -372,4 +386,128 @@ public class UserControllerIntegrationTests extends TestBase {
             assertThat(e.getMessage(), containsString("404"));
         }
     }
+
+    @Test
+    public void find_batch_by_ids_and_user_names_test() {
+        insertNewUser();
+        insertNewUser2();
+
+        val url = TestBase.LOCALHOST.concat(String.valueOf(port))
+                .concat("/v1/user/batch?ids=").concat(newUser2.getId().toString())
+                .concat(",0,").concat(newUser.getId().toString())
+                .concat("&userNames=USER1,nobody");
+
+        val response = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<BatchItem<User>>>() {
+                }).getBody();
+
+        assertNotNull(response);
+        assertEquals(List.of(newUser2.getId().toString(), "0", newUser.getId().toString(), "USER1", "nobody"),
+                response.stream().map(BatchItem::getKey).toList());
+        assertEquals(List.of(true, false, true, true, false),
+                response.stream().map(BatchItem::getFound).toList());
+        assertEquals(newUser2.getId(), response.get(0).getValue().getId());
+        assertNull(response.get(1).getValue());
+        assertEquals(newUser.getId(), response.get(3).getValue().getId());
+    }
+
+    @Test
+    public void find_batch_with_too_many_keys_test() {
+        val ids = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        val url = TestBase.LOCALHOST.concat(String.valueOf(port)).concat("/v1/user/batch?ids=").concat(ids);
+        try {
+            restTemplate.exchange(url, HttpMethod.GET, null,
+                    new ParameterizedTypeReference<List<BatchItem<User>>>() {
+                    });
+            fail();
+        } catch (final HttpClientErrorException e) {
+            assertThat(e.getMessage(), containsString("400"));
+        }
+    }
+
+    private ImportReport importUsers(String body, MediaType mediaType, long from) {
+        val headers = new HttpHeaders();
+        headers.setContentType(mediaType);
+        return restTemplate.postForObject(TestBase.LOCALHOST.concat(String.valueOf(port))
+                .concat("/v1/user/import?from=").concat(String.valueOf(from)),
+                new HttpEntity<>(body, headers), ImportReport.class);
+    }
+
+    @Test
+    public void import_users_csv_test() {
+        insertNewUser();
+
+        val body = String.join("\n",
+                "userName,firstName,lastName,mail,password,biography",
+                "USER1,F,L,other@gmail.com,P,",
+                "user3,F,L,USER@gmail.com,P,",
+                "user4,F,L,not-a-mail,P,",
+                "user5,F,L,user5@gmail.com,P,\"hi, \"\"there\"\"\"",
+                "User5,F,L,user6@gmail.com,P,",
+                "user7,F,L,user7@gmail.com,P,");
+
+        val report = importUsers(body, new MediaType("text", "csv"), 0);
+
+        assertNotNull(report);
+        assertTrue(report.isCompleted());
+        assertEquals(7, report.getLines());
+        assertEquals(7, report.getResumeFrom());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(2L, 3L, 4L, 6L), report.getErrors().stream().map(ImportReport.LineError::getLine).toList());
+
+        val imported = userService.findByUserName("user5");
+        assertEquals("hi, \"there\"", imported.getBiography());
+        assertEquals("P", cryptographyUtil.decrypt(imported.getPassword()));
+    }
+
+    @Test
+    public void import_users_ndjson_resume_test() {
+        val body = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> "{\"userName\": \"user" + i + "\", \"firstName\": \"F\", \"lastName\": \"L\", " +
+                        "\"mail\": \"user" + i + "@gmail.com\", \"password\": \"P\"}")
+                .collect(Collectors.joining("\n"));
+
+        val report = importUsers(body, MediaType.APPLICATION_NDJSON, 3);
+
+        assertNotNull(report);
+        assertEquals(2, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertEquals(5, report.getResumeFrom());
+        assertThrows(ResponseStatusException.class, () -> userService.findByUserName("user3"));
+        assertNotNull(userService.findByUserName("user4"));
+    }
+
+    @Test
+    public void export_users_csv_test() {
+        insertNewUser();
+        insertNewUser2();
+
+        val csv = restTemplate.getForObject(TestBase.LOCALHOST.concat(String.valueOf(port))
+                .concat("/v1/user/export?format=csv"), String.class).split("\n");
+
+        assertEquals(3, csv.length);
+        assertEquals("id,userName,firstName,lastName,phoneNumber,biography,mail,created", csv[0]);
+        assertTrue(csv[1].startsWith(newUser.getId() + ",user1,F1,L1,12345,,user@gmail.com,"));
+        assertTrue(csv[2].startsWith(newUser2.getId() + ",user2,"));
+    }
+
+    @Test
+    public void rebuild_uniqueness_index_test() {
+        insertNewUser();
+        insertNewUser2();
+
+        val report = restTemplate.postForObject(TestBase.LOCALHOST.concat(String.valueOf(port))
+                .concat("/v1/user/uniqueness-index/rebuild"), null, UniquenessIndexReport.class);
+
+        assertEquals(2, report.getUsers());
+        assertTrue(report.getExpectedFalsePositiveRate() < 0.01);
+        val duplicate = assertThrows(ResponseStatusException.class, () -> userService.save(UserModel.builder()
+                .userName("USER2")
+                .mail("other@gmail.com")
+                .firstName("F3")
+                .lastName("L3")
+                .password("P3")
+                .build()));
+        assertThat(duplicate.getMessage(), containsString("already in use"));
+    }
 }
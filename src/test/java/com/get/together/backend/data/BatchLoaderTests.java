@@ -0,0 +1,185 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.loader.BatchLoader;
+import com.get.together.backend.data.loader.BatchLoaders;
+import com.get.together.backend.data.routing.ReadYourWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class BatchLoaderTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Set<Integer>> queries = new CopyOnWriteArrayList<>();
+
+    private BatchLoader<Integer, String> loader(Function<Collection<Integer>, Map<Integer, String>> loadAll) {
+        return new BatchLoaders(meterRegistry, new ReadYourWrites(Duration.ZERO), transactionManager(), true, Duration.ZERO, 100, Duration.ofSeconds(5),
+                1)
+                .create("test", ids -> {
+                    queries.add(new HashSet<>(ids));
+                    return loadAll.apply(ids);
+                });
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        val transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        return transactionManager;
+    }
+
+    private static Map<Integer, String> evenOnly(Collection<Integer> ids) {
+        return ids.stream().filter(id -> id % 2 == 0).collect(Collectors.toMap(id -> id, id -> "v" + id));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("loader", "test").counter().count();
+    }
+
+    @After
+    public void teardown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void loads_queued_during_a_query_share_the_next_one_test() throws Exception {
+        val firstStarted = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val loader = loader(ids -> {
+            if (ids.contains(0)) {
+                firstStarted.countDown();
+                await(release);
+            }
+            return evenOnly(ids);
+        });
+
+        val pool = Executors.newFixedThreadPool(9);
+        try {
+            val first = pool.submit(() -> loader.load(0));
+            firstStarted.await();
+            val rest = new ArrayList<Future<Optional<String>>>();
+            for (int i = 1; i <= 8; i++) {
+                val id = i % 4 + 1;
+                rest.add(pool.submit(() -> loader.load(id)));
+            }
+            // wait until all eight are queued behind the running query
+            while (meterRegistry.get("data.loader.keys").counter().count() < 9) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(Optional.of("v0"), first.get());
+            for (int i = 1; i <= 8; i++) {
+                assertEquals((i % 4 + 1) % 2 == 0, rest.get(i - 1).get().isPresent());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(List.of(Set.of(0), Set.of(1, 2, 3, 4)), queries);
+        assertEquals(2.0, counter("data.loader.queries"), 0);
+        assertEquals(7.0, counter("data.loader.saved.round.trips"), 0);
+        val batchSizes = meterRegistry.get("data.loader.batch.size").tag("loader", "test").summary();
+        assertEquals(2, batchSizes.count());
+        assertEquals(4.0, batchSizes.max(), 0);
+    }
+
+    @Test
+    public void a_load_returns_without_waiting_for_keys_queued_after_it_test() throws Exception {
+        val firstStarted = new CountDownLatch(1);
+        val releaseFirst = new CountDownLatch(1);
+        val releaseSecond = new CountDownLatch(1);
+        val loader = loader(ids -> {
+            if (ids.contains(0)) {
+                firstStarted.countDown();
+                await(releaseFirst);
+            } else {
+                await(releaseSecond);
+            }
+            return evenOnly(ids);
+        });
+
+        val pool = Executors.newFixedThreadPool(2);
+        try {
+            val first = pool.submit(() -> loader.load(0));
+            firstStarted.await();
+            val second = pool.submit(() -> loader.load(2));
+            while (meterRegistry.get("data.loader.keys").counter().count() < 2) {
+                Thread.sleep(1);
+            }
+            releaseFirst.countDown();
+
+            // the next query is still running, but not on the thread of the first load
+            assertEquals(Optional.of("v0"), first.get(5, TimeUnit.SECONDS));
+            assertFalse(second.isDone());
+            releaseSecond.countDown();
+            assertEquals(Optional.of("v2"), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            releaseSecond.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void request_remembers_hits_and_misses_test() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        val loader = loader(BatchLoaderTests::evenOnly);
+
+        assertEquals(Optional.of("v2"), loader.load(2));
+        assertEquals(Optional.of("v2"), loader.load(2));
+        assertTrue(loader.load(3).isEmpty());
+        assertTrue(loader.load(3).isEmpty());
+        assertEquals(2, queries.size());
+
+        loader.evict(2);
+        loader.load(2);
+        assertEquals(3, queries.size());
+        assertEquals(2.0, counter("data.loader.saved.round.trips"), 0);
+    }
+
+    @Test
+    public void without_request_every_load_queries_test() {
+        val loader = loader(BatchLoaderTests::evenOnly);
+
+        loader.load(2);
+        loader.load(2);
+
+        assertEquals(2, queries.size());
+    }
+
+    @Test
+    public void failed_query_fails_every_waiting_load_test() {
+        val loader = loader(ids -> {
+            throw new IllegalStateException("down");
+        });
+
+        try {
+            loader.load(1);
+            fail();
+        } catch (final IllegalStateException e) {
+            assertEquals("down", e.getMessage());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.EmbeddedDatabaseTestBase;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.UserModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Latency of event saves alone and while more exports run than there are bulk connections, each
+ * export holding its connection for seconds. With the bulkheads the saves keep their latency; run
+ * with {@code -Dget-together.datasource.bulkheads.enabled=false} to see them queue behind the
+ * exports on one shared pool of the same total size. Not part of the default surefire run; execute
+ * with {@code mvn test -Dtest=BulkheadBenchmark}.
+ */
+@Slf4j
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=8",
+        "spring.datasource.hikari.connection-timeout=30000",
+        "get-together.datasource.bulkheads.read.maximum-pool-size=3",
+        "get-together.datasource.bulkheads.write.maximum-pool-size=3",
+        "get-together.datasource.bulkheads.bulk.maximum-pool-size=2",
+        "get-together.datasource.bulkheads.bulk.connection-timeout=60s"
+})
+public class BulkheadBenchmark extends EmbeddedDatabaseTestBase {
+    private static final int EVENTS = 2_000;
+    private static final int EXPORTERS = 8;
+    private static final int WRITES = 300;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private UserModel host;
+
+    private long[] saves() {
+        val nanos = new long[WRITES];
+        for (int i = 0; i < WRITES; i++) {
+            val started = System.nanoTime();
+            eventService.save(EventModel.builder()
+                    .host(host)
+                    .header("written " + i)
+                    .description("written")
+                    .capacity(5)
+                    .attending(0)
+                    .isActive(true)
+                    .attendees(new ArrayList<>())
+                    .build());
+            nanos[i] = System.nanoTime() - started;
+        }
+        return nanos;
+    }
+
+    private void report(String name, long[] nanos) {
+        Arrays.sort(nanos);
+        log.info("{}: {} saves, p50 {} ms, p99 {} ms, max {} ms", name, nanos.length,
+                nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6, nanos[nanos.length - 1] / 1e6);
+    }
+
+    private double pendingExports() {
+        val pending = meterRegistry.find("hikaricp.connections.pending").tag("pool", "bulk").gauge();
+        return Objects.isNull(pending) ? Double.NaN : pending.value();
+    }
+
+    @Before
+    public void seed() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        host = userService.save(UserModel.builder()
+                .userName("host")
+                .mail("host@gmail.com")
+                .firstName("F")
+                .lastName("L")
+                .password("P")
+                .biography("")
+                .build());
+        jdbcTemplate.batchUpdate("insert into get_together.event (header, host_id, description, capacity, created) "
+                        + "values (?, ?, 'exported', 5, now())", Arrays.stream(new Object[EVENTS])
+                .map(ignored -> new Object[]{"exported", host.getId()})
+                .toList());
+    }
+
+    @Test
+    public void save_latency_alone_and_during_exports() throws InterruptedException {
+        report("alone", saves());
+
+        val exporting = new AtomicBoolean(true);
+        val exports = new AtomicInteger();
+        val executor = Executors.newFixedThreadPool(EXPORTERS);
+        for (int i = 0; i < EXPORTERS; i++) {
+            executor.execute(() -> {
+                while (exporting.get()) {
+                    // a slow client, about 2 s per export
+                    eventService.export(EventSearchCriteria.builder().build(),
+                            event -> LockSupport.parkNanos(1_000_000));
+                    exports.incrementAndGet();
+                }
+            });
+        }
+        Thread.sleep(500);
+
+        val pending = pendingExports();
+        val during = saves();
+        exporting.set(false);
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+
+        assertEquals(EVENTS + 2L * WRITES,
+                jdbcTemplate.queryForObject("select count(*) from get_together.event", Long.class).longValue());
+        report("during " + EXPORTERS + " exports", during);
+        log.info("{} exports completed, {} waiting for a bulk connection", exports.get(), pending);
+    }
+}
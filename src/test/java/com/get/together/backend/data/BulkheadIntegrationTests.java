@@ -0,0 +1,128 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.EmbeddedDatabaseTestBase;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.UserModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@TestPropertySource(properties = {
+        "get-together.datasource.bulkheads.bulk.maximum-pool-size=1",
+        "get-together.datasource.bulkheads.bulk.connection-timeout=2s"
+})
+public class BulkheadIntegrationTests extends EmbeddedDatabaseTestBase {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserModel host;
+
+    private double gauge(String name, String pool) {
+        return meterRegistry.get(name).tag("pool", pool).gauge().value();
+    }
+
+    private EventModel insertEvent(String header) {
+        return eventService.save(EventModel.builder()
+                .host(host)
+                .header(header)
+                .description(header)
+                .capacity(5)
+                .attending(0)
+                .isActive(true)
+                .attendees(new ArrayList<>())
+                .build());
+    }
+
+    /**
+     * Starts an export that holds its connection until {@code release} opens.
+     */
+    private CompletableFuture<Void> blockedExport(CountDownLatch exporting, CountDownLatch release) {
+        return CompletableFuture.runAsync(() -> eventService.export(EventSearchCriteria.builder().build(), event -> {
+            exporting.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        host = userService.save(UserModel.builder()
+                .userName("host")
+                .mail("host@gmail.com")
+                .firstName("F1")
+                .lastName("L1")
+                .password("P1")
+                .biography("")
+                .build());
+        insertEvent("exported");
+    }
+
+    @Test
+    public void exports_draw_from_the_bulk_pool_test() throws Exception {
+        val exporting = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val export = blockedExport(exporting, release);
+        assertTrue(exporting.await(10, TimeUnit.SECONDS));
+
+        assertEquals(1, gauge("hikaricp.connections.active", "bulk"), 0);
+        release.countDown();
+        export.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void writes_and_reads_proceed_while_the_bulk_pool_is_exhausted_test() throws Exception {
+        val exporting = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val first = blockedExport(exporting, release);
+        assertTrue(exporting.await(10, TimeUnit.SECONDS));
+        val queued = blockedExport(new CountDownLatch(1), release);
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge("hikaricp.connections.pending", "bulk") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, gauge("hikaricp.connections.pending", "bulk"), 0);
+
+        val saved = insertEvent("saved meanwhile");
+        assertEquals("saved meanwhile", eventService.findViewById(saved.getId()).getHeader());
+        assertFalse(queued.isDone());
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void bulk_work_times_out_on_the_bulk_connection_timeout_test() throws Exception {
+        val exporting = new CountDownLatch(1);
+        val release = new CountDownLatch(1);
+        val first = blockedExport(exporting, release);
+        assertTrue(exporting.await(10, TimeUnit.SECONDS));
+
+        val started = System.nanoTime();
+        assertThrows(DataAccessException.class, () -> eventService.export(EventSearchCriteria.builder().build(),
+                event -> {
+                }));
+        val waitedMillis = (System.nanoTime() - started) / 1_000_000;
+        assertTrue(String.valueOf(waitedMillis), waitedMillis >= 2_000 && waitedMillis < 10_000);
+
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,207 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.EmbeddedDatabaseTestBase;
+import com.get.together.backend.controller.model.Comment;
+import com.get.together.backend.controller.model.PagedData;
+import com.get.together.backend.data.model.CommentView;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.service.CommentService;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@TestPropertySource(properties = {
+        "get-together.comment.write-behind.capacity=5",
+        "get-together.comment.write-behind.offer-timeout=200ms"
+})
+public class CommentServiceIntegrationTests extends EmbeddedDatabaseTestBase {
+    @Autowired
+    CommentService commentService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private UserModel first;
+    private UserModel second;
+    private EventModel event;
+
+    private UserModel insertUser(String userName) {
+        return userService.save(UserModel.builder()
+                .userName(userName)
+                .mail(userName.concat("@gmail.com"))
+                .firstName("F")
+                .lastName("L")
+                .password("P")
+                .biography("")
+                .build());
+    }
+
+    private EventModel insertEvent(String header) {
+        return eventService.save(EventModel.builder()
+                .host(first)
+                .header(header)
+                .description(header)
+                .capacity(5)
+                .attending(0)
+                .isActive(true)
+                .attendees(new ArrayList<>())
+                .build());
+    }
+
+    /**
+     * Waits for the writer to insert every comment accepted so far.
+     */
+    private void awaitComments(long expected) throws InterruptedException {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long written;
+        while ((written = jdbcTemplate.queryForObject("select count(*) from get_together.comment", Long.class))
+                < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, written);
+    }
+
+    private static List<String> descriptions(PagedData<Comment> page) {
+        return page.getContent().stream().map(Comment::getDescription).toList();
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        first = insertUser("first");
+        second = insertUser("second");
+        event = insertEvent("commented");
+    }
+
+    @Test
+    public void buffered_comments_are_written_and_paged_newest_first_test() throws InterruptedException {
+        for (int i = 0; i < 25; i++) {
+            val accepted = commentService.add(event.getId(), (i % 2 == 0 ? first : second).getId(), "comment " + i);
+            assertNull(accepted.getId());
+        }
+        awaitComments(25);
+
+        val paged = new ArrayList<String>();
+        String after = null;
+        do {
+            val page = commentService.findByEvent(event.getId(), 10, after);
+            assertTrue(page.getNumberOfElements() <= 10);
+            page.getContent().stream().map(CommentView::getDescription).forEach(paged::add);
+            after = page.getNextCursor();
+        } while (Objects.nonNull(after));
+
+        val expected = new ArrayList<String>();
+        for (int i = 24; i >= 0; i--) {
+            expected.add("comment " + i);
+        }
+        assertEquals(expected, paged);
+
+        val ofSecond = commentService.findByUser(second.getId(), 20, null);
+        assertEquals(12, ofSecond.getNumberOfElements().intValue());
+        assertFalse(ofSecond.getHasNext());
+        assertTrue(ofSecond.getContent().stream().allMatch(comment -> comment.getOwnerId().equals(second.getId())));
+    }
+
+    @Test
+    public void unknown_events_are_not_found_and_empty_feeds_are_empty_test() {
+        assertEquals(404, assertThrows(ResponseStatusException.class,
+                () -> commentService.findByEvent(event.getId() + 1000, 10, null)).getRawStatusCode());
+        assertEquals(404, assertThrows(ResponseStatusException.class,
+                () -> commentService.add(event.getId() + 1000, first.getId(), "lost")).getRawStatusCode());
+        assertEquals(400, assertThrows(ResponseStatusException.class,
+                () -> commentService.add(event.getId(), first.getId(), " ")).getRawStatusCode());
+
+        val empty = commentService.findByEvent(insertEvent("quiet").getId(), 10, null);
+        assertEquals(0, empty.getNumberOfElements().intValue());
+        assertFalse(empty.getHasNext());
+    }
+
+    @Test
+    public void oversized_pages_are_refused_test() {
+        assertEquals(400, assertThrows(ResponseStatusException.class,
+                () -> commentService.findByEvent(event.getId(), 101, null)).getRawStatusCode());
+        assertEquals(400, assertThrows(ResponseStatusException.class,
+                () -> commentService.findByUser(first.getId(), Integer.MAX_VALUE, null)).getRawStatusCode());
+    }
+
+    @Test
+    public void a_full_buffer_refuses_comments_test() throws InterruptedException {
+        // the writer's foreign key check waits for the event row, so the buffer fills up
+        val lock = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        jdbcTemplate.queryForObject("select id from get_together.event where id = ? for update", Integer.class,
+                event.getId());
+        try {
+            commentService.add(event.getId(), first.getId(), "blocked");
+            Thread.sleep(200);
+            for (int i = 0; i < 5; i++) {
+                commentService.add(event.getId(), first.getId(), "buffered " + i);
+            }
+
+            val started = System.nanoTime();
+            val ex = assertThrows(ResponseStatusException.class,
+                    () -> commentService.add(event.getId(), first.getId(), "refused"));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+            assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(200));
+        } finally {
+            transactionManager.rollback(lock);
+        }
+
+        awaitComments(6);
+    }
+
+    @Test
+    public void comment_endpoints_test() throws InterruptedException {
+        val saved = restTemplate.postForEntity(LOCALHOST.concat(String.valueOf(port)).concat("/v1/comment/save"),
+                Comment.builder().eventId(event.getId()).ownerId(first.getId()).description("via api").build(),
+                Comment.class);
+        assertEquals(HttpStatus.ACCEPTED, saved.getStatusCode());
+        assertNotNull(saved.getBody());
+        assertNull(saved.getBody().getId());
+        commentService.add(event.getId(), second.getId(), "second");
+        awaitComments(2);
+
+        val url = LOCALHOST.concat(String.valueOf(port)).concat("/v2/comment/event/")
+                .concat(event.getId().toString()).concat("?pageSize=1");
+        val firstPage = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedData<Comment>>() {
+                }).getBody();
+        assertNotNull(firstPage);
+        assertEquals(List.of("second"), descriptions(firstPage));
+        assertTrue(firstPage.getHasNext());
+
+        val secondPage = restTemplate.exchange(url.concat("&after=").concat(firstPage.getNextCursor()),
+                HttpMethod.GET, null, new ParameterizedTypeReference<PagedData<Comment>>() {
+                }).getBody();
+        assertNotNull(secondPage);
+        assertEquals(List.of("via api"), descriptions(secondPage));
+        assertFalse(secondPage.getHasNext());
+
+        val ofFirst = restTemplate.exchange(LOCALHOST.concat(String.valueOf(port)).concat("/v2/comment/user/")
+                .concat(first.getId().toString()), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedData<Comment>>() {
+                }).getBody();
+        assertNotNull(ofFirst);
+        assertEquals(List.of("via api"), descriptions(ofFirst));
+    }
+}
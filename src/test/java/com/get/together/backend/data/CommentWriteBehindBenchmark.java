@@ -0,0 +1,118 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.EmbeddedDatabaseTestBase;
+import com.get.together.backend.data.model.CommentModel;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.repository.CommentRepository;
+import com.get.together.backend.data.service.CommentService;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Sustained comment inserts per second of concurrent clients, each saving its comments one by one
+ * as a request with write-behind off would, against the same clients handing them to the write
+ * buffer. Throughput counts a comment once it is in the table. Not part of the default surefire run;
+ * execute with {@code mvn test -Dtest=CommentWriteBehindBenchmark}.
+ */
+@Slf4j
+@TestPropertySource(properties = "get-together.comment.write-behind.offer-timeout=5s")
+public class CommentWriteBehindBenchmark extends EmbeddedDatabaseTestBase {
+    private static final int CLIENTS = 16;
+    private static final long SECONDS = 5;
+
+    @Autowired
+    CommentService commentService;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private UserModel owner;
+    private EventModel event;
+
+    private long comments() {
+        return jdbcTemplate.queryForObject("select count(*) from get_together.comment", Long.class);
+    }
+
+    /**
+     * Runs the clients for the benchmark duration and returns the comments written per second.
+     */
+    private double run(String name, Runnable comment) throws InterruptedException {
+        val before = comments();
+        val accepted = new AtomicLong();
+        val started = System.nanoTime();
+        val deadline = started + TimeUnit.SECONDS.toNanos(SECONDS);
+        val executor = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    comment.run();
+                    accepted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        while (comments() - before < accepted.get()) {
+            Thread.sleep(1);
+        }
+        val seconds = (System.nanoTime() - started) / 1e9;
+
+        assertEquals(accepted.get(), comments() - before);
+        val perSecond = accepted.get() / seconds;
+        log.info("{}: {} comments in {} s, {} inserts/s", name, accepted.get(), seconds, Math.round(perSecond));
+        return perSecond;
+    }
+
+    @Before
+    public void seed() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        owner = userService.save(UserModel.builder()
+                .userName("owner")
+                .mail("owner@gmail.com")
+                .firstName("F")
+                .lastName("L")
+                .password("P")
+                .biography("")
+                .build());
+        event = eventService.save(EventModel.builder()
+                .host(owner)
+                .header("commented")
+                .description("commented")
+                .capacity(5)
+                .attending(0)
+                .isActive(true)
+                .attendees(new ArrayList<>())
+                .build());
+    }
+
+    @Test
+    public void inserts_per_second_saved_one_by_one_and_write_behind() throws InterruptedException {
+        val oneByOne = run("saved one by one", () -> commentRepository.save(CommentModel.builder()
+                .description("one by one")
+                .created(new Date())
+                .owner(owner)
+                .relatedEvent(event)
+                .build()));
+        val writeBehind = run("write-behind", () -> commentService.add(event.getId(), owner.getId(), "buffered"));
+
+        log.info("write-behind: {}x the inserts/s of one by one saves", Math.round(writeBehind / oneByOne * 10) / 10.0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.cache.EntityCache;
+import com.get.together.backend.data.cache.EntityCaches;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class EntityCacheTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EntityCaches entityCaches = new EntityCaches(meterRegistry, true, 100, Duration.ofMinutes(1));
+    private final List<Integer> loads = new ArrayList<>();
+
+    private Optional<String> evenOnly(Integer id) {
+        loads.add(id);
+        return id % 2 == 0 ? Optional.of("v" + id) : Optional.empty();
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "test").tag("result", result)
+                .functionCounter().count();
+    }
+
+    @After
+    public void teardown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void hits_skip_the_load_and_misses_are_not_kept_test() {
+        EntityCache<Integer, String> cache = entityCaches.get("test");
+
+        assertEquals(Optional.of("v2"), cache.get(2, this::evenOnly));
+        assertEquals(Optional.of("v2"), cache.get(2, this::evenOnly));
+        assertTrue(cache.get(3, this::evenOnly).isEmpty());
+        assertTrue(cache.get(3, this::evenOnly).isEmpty());
+
+        assertEquals(List.of(2, 3, 3), loads);
+        assertEquals(1.0, gets("hit"), 0);
+        assertEquals(3.0, gets("miss"), 0);
+    }
+
+    @Test
+    public void value_loaded_across_an_eviction_is_not_kept_test() {
+        EntityCache<Integer, String> cache = entityCaches.get("test");
+
+        assertEquals(Optional.of("stale"), cache.get(2, id -> {
+            cache.evict(id);
+            return Optional.of("stale");
+        }));
+        assertEquals(Optional.of("v2"), cache.get(2, this::evenOnly));
+        assertEquals(List.of(2), loads);
+    }
+
+    @Test
+    public void transactions_bypass_and_evict_again_on_completion_test() {
+        EntityCache<Integer, String> cache = entityCaches.get("test");
+        cache.get(2, this::evenOnly);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        cache.get(2, this::evenOnly);
+        cache.evict(2);
+        val synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        teardown();
+
+        // a reader outside the transaction caches the pre-commit row before the commit lands
+        cache.get(2, this::evenOnly);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.get(2, this::evenOnly);
+
+        assertEquals(List.of(2, 2, 2, 2), loads);
+    }
+
+    @Test
+    public void disabled_cache_always_loads_test() {
+        EntityCache<Integer, String> cache = new EntityCaches(meterRegistry, false, 100, Duration.ofMinutes(1))
+                .get("test");
+
+        cache.get(2, this::evenOnly);
+        cache.get(2, this::evenOnly);
+
+        assertEquals(List.of(2, 2), loads);
+    }
+
+    @Test
+    public void every_hit_gets_a_copy_of_its_own_test() {
+        EntityCache<Integer, EventModel> cache = entityCaches.get(EntityCaches.EVENTS);
+        val host = UserModel.builder().id(1).userName("host").hostedEvents(List.of()).build();
+        val loaded = EventModel.builder().id(2).header("cached").host(host).attendees(List.of()).build();
+        cache.get(2, id -> Optional.of(loaded));
+
+        loaded.setHeader("changed by the loader");
+        val first = cache.get(2, id -> Optional.empty()).orElseThrow();
+        first.setHeader("changed by a reader");
+        first.getHost().setUserName("changed by a reader");
+        val second = cache.get(2, id -> Optional.empty()).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("cached", second.getHeader());
+        assertEquals("host", second.getHost().getUserName());
+        assertNull(second.getAttendees());
+        assertNull(second.getHost().getHostedEvents());
+    }
+
+    @Test
+    public void caches_are_shared_by_name_test() {
+        assertSame(entityCaches.get(EntityCaches.EVENTS), entityCaches.get(EntityCaches.EVENTS));
+        assertNotSame(entityCaches.get(EntityCaches.EVENTS), entityCaches.get(EntityCaches.EVENT_VIEWS));
+    }
+}
@@ -0,0 +1,137 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.EmbeddedDatabaseTestBase;
+import com.get.together.backend.controller.model.Event;
+import com.get.together.backend.controller.model.PagedData;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.UserModel;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class EventFullTextSearchIntegrationTests extends EmbeddedDatabaseTestBase {
+    private final List<EventModel> events = new ArrayList<>();
+
+    private void insertEvent(UserModel host, String header, String description) {
+        events.add(eventService.save(EventModel.builder()
+                .host(host)
+                .header(header)
+                .description(description)
+                .capacity(5)
+                .attending(0)
+                .isActive(true)
+                .attendees(new ArrayList<>())
+                .build()));
+    }
+
+    private List<Integer> ids(int... positions) {
+        val ids = new ArrayList<Integer>();
+        for (val position : positions) {
+            ids.add(events.get(position).getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> ids(List<EventView> views) {
+        return views.stream().map(EventView::getId).toList();
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        events.clear();
+
+        val host = userService.save(UserModel.builder()
+                .userName("host")
+                .mail("host@gmail.com")
+                .firstName("F1")
+                .lastName("L1")
+                .password("P1")
+                .biography("")
+                .build());
+        insertEvent(host, "Board game night", "Bring your favourite board games");
+        insertEvent(host, "Chess club", "Weekly chess evening, board provided");
+        insertEvent(host, "Hiking trip", "A day in the mountains");
+        insertEvent(host, "Game jam", "Build a game over the weekend");
+        insertEvent(host, "Board meeting", "Quarterly review");
+        insertEvent(host, "AI lab", "Hands-on machine learning");
+    }
+
+    @Test
+    public void best_match_comes_first_test() {
+        val result = eventService.searchText("board games", 10, null);
+
+        assertEquals(events.get(0).getId(), result.getContent().iterator().next().getId());
+        assertTrue(ids(new ArrayList<>(result.getContent())).containsAll(ids(0, 1, 4)));
+        assertFalse(result.getHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void keyset_pages_continue_in_relevance_order_test() {
+        val all = ids(new ArrayList<>(eventService.searchText("board game", 10, null).getContent()));
+        assertEquals(4, all.size());
+
+        val paged = new ArrayList<Integer>();
+        String after = null;
+        do {
+            val page = eventService.searchText("board game", 1, after);
+            assertEquals(1, page.getContent().size());
+            paged.addAll(ids(new ArrayList<>(page.getContent())));
+            after = page.getNextCursor();
+        } while (Objects.nonNull(after));
+
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void queries_below_the_token_length_match_substrings_in_id_order_test() {
+        // shorter than innodb_ft_min_token_size: "mountAIns" and "AI lab" match as substrings
+        val result = eventService.searchText("ai", 10, null);
+
+        assertEquals(ids(2, 5), ids(new ArrayList<>(result.getContent())));
+
+        val first = eventService.searchText("ai", 1, null);
+        val second = eventService.searchText("ai", 1, first.getNextCursor());
+        assertEquals(ids(5), ids(new ArrayList<>(second.getContent())));
+        assertFalse(second.getHasNext());
+    }
+
+    @Test
+    public void no_match_is_not_found_test() {
+        val ex = assertThrows(ResponseStatusException.class, () -> eventService.searchText("xylophone", 10, null));
+        assertEquals(404, ex.getRawStatusCode());
+        assertEquals(400, assertThrows(ResponseStatusException.class,
+                () -> eventService.searchText(" ", 10, null)).getRawStatusCode());
+    }
+
+    @Test
+    public void text_search_endpoint_test() {
+        val url = LOCALHOST.concat(String.valueOf(port)).concat("/v2/event/search/text?pageSize=2&query=");
+
+        val first = restTemplate.exchange(url.concat("board games"), HttpMethod.GET, null,
+                new ParameterizedTypeReference<PagedData<Event>>() {
+                }).getBody();
+        assertNotNull(first);
+        assertEquals("Board game night", first.getContent().iterator().next().getHeader());
+        assertTrue(first.getHasNext());
+
+        val second = restTemplate.exchange(url.concat("board games&after=").concat(first.getNextCursor()),
+                HttpMethod.GET, null, new ParameterizedTypeReference<PagedData<Event>>() {
+                }).getBody();
+        assertNotNull(second);
+        assertEquals(1, second.getNumberOfElements().intValue());
+        assertFalse(second.getHasNext());
+    }
+}
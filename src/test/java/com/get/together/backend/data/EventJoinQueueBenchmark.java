@@ -0,0 +1,125 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.TestBase;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.service.EventJoinService;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Sellout throughput of the row-locking addAttendee path against the hot event queue. Not part of
+ * the default surefire run; execute with {@code mvn test -Dtest=EventJoinQueueBenchmark}.
+ */
+@Slf4j
+@TestPropertySource(properties = "get-together.join.hot-events.enabled=true")
+public class EventJoinQueueBenchmark extends TestBase {
+    private static final int USERS = 2_000;
+    private static final int CAPACITY = 1_000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EventJoinService eventJoinService;
+
+    private final List<UserModel> users = new ArrayList<>();
+
+    private EventModel insertEvent() {
+        return eventService.save(EventModel.builder()
+                .host(users.get(0))
+                .header("sellout")
+                .description("sellout")
+                .capacity(CAPACITY)
+                .attending(0)
+                .isActive(true)
+                .attendees(new ArrayList<>())
+                .build());
+    }
+
+    private void sellout(String name, BiPredicate<Integer, Integer> join) throws InterruptedException {
+        val event = insertEvent();
+        val executor = Executors.newFixedThreadPool(THREADS);
+        val start = new CountDownLatch(1);
+        val joined = new AtomicInteger();
+        for (val user : users) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (join.test(event.getId(), user.getId())) {
+                        joined.incrementAndGet();
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        val started = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        val millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+
+        assertEquals(CAPACITY, joined.get());
+        assertEquals(CAPACITY, eventService.findViewById(event.getId()).getAttending().intValue());
+        log.info("{}: {} joins in {} ms, {} joins/s", name, USERS, millis, USERS * 1000L / millis);
+    }
+
+    private static boolean seated(Runnable addAttendee) {
+        try {
+            addAttendee.run();
+            return true;
+        } catch (final ResponseStatusException e) {
+            return false;
+        }
+    }
+
+    @Before
+    public void seed() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        users.clear();
+        val batch = new ArrayList<UserModel>();
+        for (int i = 0; i < USERS; i++) {
+            batch.add(UserModel.builder()
+                    .userName("user" + i)
+                    .mail("user" + i + "@gmail.com")
+                    .firstName("F")
+                    .lastName("L")
+                    .password("P")
+                    .created(new Date())
+                    .build());
+        }
+        userRepository.saveAll(batch).forEach(users::add);
+    }
+
+    @Test
+    public void add_attendee_vs_hot_event_queue() throws InterruptedException {
+        sellout("EventService.addAttendee", (eventId, userId) -> seated(() -> eventService.addAttendee(eventId, userId)));
+        sellout("EventJoinService.addAttendee (queue)",
+                (eventId, userId) -> seated(() -> eventJoinService.addAttendee(eventId, userId)));
+        sellout("EventService.join", (eventId, userId) -> eventService.join(eventId, userId) == SeatResult.JOINED);
+        sellout("EventJoinService.join (queue)",
+                (eventId, userId) -> eventJoinService.join(eventId, userId) == SeatResult.JOINED);
+    }
+}
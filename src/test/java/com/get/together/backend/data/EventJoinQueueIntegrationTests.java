@@ -0,0 +1,12 @@
+package com.get.together.backend.data;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the seat tests through the hot event queue; small batches so a run spans several commits.
+ */
+@TestPropertySource(properties = {
+        "get-together.join.hot-events.enabled=true",
+        "get-together.join.hot-events.batch-size=4"})
+public class EventJoinQueueIntegrationTests extends EventSeatIntegrationTests {
+}
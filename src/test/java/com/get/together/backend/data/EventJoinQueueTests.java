@@ -0,0 +1,106 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.cache.EntityCaches;
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.queue.EventJoinQueue;
+import com.get.together.backend.data.repository.EventRepository;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.routing.ReadYourWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+
+public class EventJoinQueueTests {
+    private static final int EVENT = 1;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EventRepository eventRepository;
+    private JdbcTemplate jdbcTemplate;
+    private EventJoinQueue queue;
+
+    @Before
+    public void setup() {
+        eventRepository = Mockito.mock(EventRepository.class);
+        // the writer holds the event row until the test releases it
+        Mockito.when(eventRepository.lockFreeSeats(EVENT)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return 10;
+        });
+        Mockito.when(eventRepository.findAttendingUserIds(eq(EVENT), anyCollection())).thenReturn(List.of());
+        val userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findExistingIds(anyCollection()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<Collection<Integer>>getArgument(0)));
+        val transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        Mockito.when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+        queue = new EventJoinQueue(eventRepository, userRepository, jdbcTemplate, transactionManager,
+                Mockito.mock(SearchCountCache.class), new ReadYourWrites(Duration.ZERO),
+                new EntityCaches(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1)),
+                true, 100, 1, Duration.ofMillis(200));
+    }
+
+    @After
+    public void cleanup() {
+        release.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    public void a_timed_out_join_takes_no_seat_test() throws InterruptedException {
+        val ex = assertThrows(ResponseStatusException.class, () -> queue.join(EVENT, 7));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatus());
+
+        release.countDown();
+        Thread.sleep(200);
+        Mockito.verify(jdbcTemplate, Mockito.never()).batchUpdate(anyString(), anyList());
+        Mockito.verify(eventRepository, Mockito.never()).addSeats(anyInt(), anyInt());
+    }
+
+    @Test
+    public void drained_lanes_are_removed_test() throws Exception {
+        release.countDown();
+        assertEquals(SeatResult.JOINED, queue.submit(EVENT, 7).get(5, TimeUnit.SECONDS));
+
+        val lanes = (Map<?, ?>) ReflectionTestUtils.getField(queue, "lanes");
+        assertNotNull(lanes);
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!lanes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(lanes.isEmpty());
+    }
+
+    @Test
+    public void shutdown_fails_queued_joins_test() throws Exception {
+        queue.submit(EVENT, 7);
+        Thread.sleep(100);
+        val queued = queue.submit(EVENT, 8);
+
+        queue.shutdown();
+
+        val ex = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseStatusException) ex.getCause()).getStatus());
+    }
+}
@@ -0,0 +1,128 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.TestBase;
+import com.get.together.backend.data.index.EventNgramIndex;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.repository.EventRepository;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.util.SortDirection;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the LIKE scan with the ngram index path on a seeded event table. Not part of the
+ * default surefire run; execute with {@code mvn test -Dtest=EventNgramIndexBenchmark}.
+ */
+@Slf4j
+@TestPropertySource(properties = "get-together.search.ngram-index.enabled=true")
+public class EventNgramIndexBenchmark extends TestBase {
+    private static final int EVENTS = 50_000;
+    private static final int ITERATIONS = 200;
+    private static final List<String> WORDS = List.of("board", "games", "hiking", "coffee", "jazz", "python",
+            "running", "chess", "quiz", "karaoke", "vinyl", "climbing", "poetry", "startup", "yoga");
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EventNgramIndex eventNgramIndex;
+
+    @Before
+    public void seed() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+
+        val host = userRepository.save(UserModel.builder()
+                .userName("host")
+                .mail("host@gmail.com")
+                .firstName("F")
+                .lastName("L")
+                .password("P")
+                .created(new Date())
+                .build());
+
+        val random = new Random(42);
+        val batch = new ArrayList<EventModel>();
+        for (int i = 0; i < EVENTS; i++) {
+            batch.add(EventModel.builder()
+                    .host(host)
+                    .header(WORDS.get(random.nextInt(WORDS.size())) + " " + WORDS.get(random.nextInt(WORDS.size()))
+                            + " #" + i)
+                    .description("description " + i)
+                    .capacity(10)
+                    .attending(0)
+                    .isActive(true)
+                    .created(new Date())
+                    .build());
+            if (batch.size() == 1000) {
+                eventRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        eventRepository.saveAll(batch);
+
+        eventNgramIndex.clear();
+        eventNgramIndex.build();
+    }
+
+    @Test
+    public void like_scan_vs_ngram_index() {
+        val tomorrow = new Date(Instant.now().plus(1, ChronoUnit.DAYS).toEpochMilli());
+        val yesterday = new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli());
+        val queries = List.of("karaoke", "#4242", "jazz vinyl", "poet");
+
+        for (val query : queries) {
+            val pageRequest = PageRequest.of(0, 10, Sort.by("id").ascending());
+
+            val criteria = EventSearchCriteria.builder()
+                    .header(query)
+                    .createdBefore(tomorrow)
+                    .createdAfter(yesterday)
+                    .build();
+
+            val likeResult = eventRepository.search(criteria, pageRequest);
+            val indexResult = eventService.findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+                    (query, tomorrow, yesterday, 0, 10, "id", SortDirection.Ascending);
+            assertEquals(likeResult.getTotalElements(), indexResult.getTotalElements().longValue());
+            assertEquals(likeResult.getContent().stream().map(EventView::getId).toList(),
+                    indexResult.getContent().stream().map(EventView::getId).toList());
+
+            var started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                eventRepository.search(criteria, pageRequest);
+            }
+            val likeMicros = (System.nanoTime() - started) / 1_000 / ITERATIONS;
+
+            started = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                eventService.findAllByHeaderContainingIgnoreCaseAndCreatedBeforeAndCreatedAfter
+                        (query, tomorrow, yesterday, 0, 10, "id", SortDirection.Ascending);
+            }
+            val indexMicros = (System.nanoTime() - started) / 1_000 / ITERATIONS;
+
+            log.info("query '{}' ({} matches): like {} us/op, ngram index {} us/op",
+                    query, likeResult.getTotalElements(), likeMicros, indexMicros);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.index.EventNgramIndex;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.repository.EventRepository;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+
+public class EventNgramIndexTests {
+    private EventNgramIndex index;
+
+    private static EventModel event(Integer id, String header, String description) {
+        return EventModel.builder()
+                .id(id)
+                .header(header)
+                .description(description)
+                .build();
+    }
+
+    @Before
+    public void setup() {
+        val eventRepository = Mockito.mock(EventRepository.class);
+        Mockito.when(eventRepository.findAllByIdGreaterThanOrderByIdAsc(anyInt(), any()))
+                .thenReturn(List.of());
+        index = new EventNgramIndex(eventRepository, true, 100);
+        index.build();
+    }
+
+    @Test
+    public void find_header_candidates_ignores_case_and_accents_test() {
+        index.put(event(1, "Café Meetup", "coffee"));
+        index.put(event(2, "Board games", "CAFE crawl"));
+
+        assertEquals(Set.of(1), index.findHeaderCandidates("cafe").orElseThrow());
+        assertEquals(Set.of(1), index.findHeaderCandidates("FÉ M").orElseThrow());
+        assertEquals(Set.of(2), index.findDescriptionCandidates("afe cr").orElseThrow());
+        assertTrue(index.findHeaderCandidates("tennis").orElseThrow().isEmpty());
+    }
+
+    @Test
+    public void short_or_non_ascii_queries_fall_back_test() {
+        index.put(event(1, "Straße party", null));
+
+        assertTrue(index.findHeaderCandidates("st").isEmpty());
+        assertTrue(index.findHeaderCandidates("straße").isEmpty());
+        // text that does not fold to ASCII is always a candidate
+        assertEquals(Set.of(1), index.findHeaderCandidates("strasse").orElseThrow());
+    }
+
+    @Test
+    public void changes_apply_only_once_the_transaction_commits_test() {
+        index.put(event(1, "Board games", "fun"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.clear();
+            index.put(event(2, "Board meeting", "work"));
+            assertEquals(Set.of(1), index.findHeaderCandidates("board").orElseThrow());
+
+            // a rollback drops the pending changes
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertEquals(Set.of(1), index.findHeaderCandidates("board").orElseThrow());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(Set.of(2), index.findHeaderCandidates("board").orElseThrow());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void put_and_remove_keep_index_current_test() {
+        index.put(event(1, "header1", "description1"));
+        index.put(event(1, "renamed", "description1"));
+
+        assertTrue(index.findHeaderCandidates("header").orElseThrow().isEmpty());
+        assertEquals(Set.of(1), index.findHeaderCandidates("rename").orElseThrow());
+
+        index.remove(1);
+
+        assertTrue(index.findHeaderCandidates("rename").orElseThrow().isEmpty());
+        assertTrue(index.findDescriptionCandidates("description").orElseThrow().isEmpty());
+    }
+
+    @Test
+    public void too_many_candidates_fall_back_test() {
+        for (int i = 1; i <= 101; i++) {
+            index.put(event(i, "header" + i, null));
+        }
+
+        assertTrue(index.findHeaderCandidates("header").isEmpty());
+        assertEquals(Set.of(42), index.findHeaderCandidates("header42").orElseThrow());
+    }
+
+    @Test
+    public void disabled_index_never_answers_test() {
+        val disabled = new EventNgramIndex(Mockito.mock(EventRepository.class), false, 100);
+        disabled.build();
+        disabled.put(event(1, "header1", null));
+
+        assertFalse(disabled.isReady());
+        assertTrue(disabled.findHeaderCandidates("header").isEmpty());
+    }
+}
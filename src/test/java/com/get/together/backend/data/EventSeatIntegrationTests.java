@@ -0,0 +1,109 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.TestBase;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.service.EventJoinService;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+
+public class EventSeatIntegrationTests extends TestBase {
+    @Autowired
+    EventJoinService eventJoinService;
+
+    private static final int CAPACITY = 5;
+    private static final int THREADS = 20;
+
+    private EventModel event;
+    private final List<UserModel> users = new ArrayList<>();
+
+    private UserModel insertUser(int i) {
+        return userService.save(UserModel.builder()
+                .userName("user" + i)
+                .mail("user" + i + "@gmail.com")
+                .firstName("F" + i)
+                .lastName("L" + i)
+                .password("P" + i)
+                .biography("")
+                .build());
+    }
+
+    private List<SeatResult> joinConcurrently(IntFunction<UserModel> user) throws Exception {
+        val executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            val start = new CountDownLatch(1);
+            val results = new ArrayList<Future<SeatResult>>();
+            for (int i = 0; i < THREADS; i++) {
+                val joining = user.apply(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return eventJoinService.join(event.getId(), joining.getId());
+                }));
+            }
+            start.countDown();
+
+            val seats = new ArrayList<SeatResult>();
+            for (val result : results) {
+                seats.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return seats;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        users.clear();
+        for (int i = 0; i < THREADS; i++) {
+            users.add(insertUser(i));
+        }
+        event = eventService.save(EventModel.builder()
+                .host(users.get(0))
+                .header("header1")
+                .description("description1")
+                .capacity(CAPACITY)
+                .attending(0)
+                .isActive(true)
+                .attendees(new ArrayList<>())
+                .build());
+    }
+
+    @Test
+    public void concurrent_joins_never_overbook_test() throws Exception {
+        val seats = joinConcurrently(users::get);
+
+        assertEquals(CAPACITY, seats.stream().filter(SeatResult.JOINED::equals).count());
+        assertEquals(THREADS - CAPACITY, seats.stream().filter(SeatResult.FULL::equals).count());
+        assertEquals(CAPACITY, eventService.findViewById(event.getId()).getAttending().intValue());
+        assertEquals(CAPACITY, eventService.getAttendees(event.getId()).size());
+    }
+
+    @Test
+    public void concurrent_joins_of_same_user_seat_once_test() throws Exception {
+        val seats = joinConcurrently(i -> users.get(1));
+
+        assertEquals(1, seats.stream().filter(SeatResult.JOINED::equals).count());
+        assertEquals(THREADS - 1, seats.stream().filter(SeatResult.ALREADY_ATTENDING::equals).count());
+        assertEquals(1, eventService.findViewById(event.getId()).getAttending().intValue());
+        assertEquals(1, eventService.getAttendees(event.getId()).size());
+    }
+
+    @Test(expected = ResponseStatusException.class)
+    public void join_unknown_user_exception_test() {
+        eventJoinService.join(event.getId(), users.get(THREADS - 1).getId() + 1);
+    }
+}
@@ -2,12 +2,17 @@ package com.get.together.backend.data;
 
 import com.get.together.backend.TestBase;
 import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventView;
+import com.get.together.backend.data.model.SeatResult;
+import com.get.together.backend.data.model.EventSearchCriteria;
 import com.get.together.backend.data.model.UserModel;
 import com.get.together.backend.data.util.GenericPagedModel;
+import com.get.together.backend.data.util.PageQuery;
 import com.get.together.backend.util.SortDirection;
 import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -60,7 +65,7 @@ public class EventServiceIntegrationTests extends TestBase {
                 .build());
     }
 
-    public void testCollection(GenericPagedModel<EventModel> users) {
+    public void testCollection(GenericPagedModel<EventView> users) {
         assertFalse(users.getContent().isEmpty());
 
         assertTrue(users.getContent()
@@ -243,4 +248,140 @@ public class EventServiceIntegrationTests extends TestBase {
         assertEquals(found.get(0).getId(), newUser.getId());
         assertEquals(found.get(0).getUserName(), newUser.getUserName());
     }
+
+    @Test
+    public void search_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        val yesterday = new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli());
+
+        testCollection(eventService.search(EventSearchCriteria.builder()
+                        .description("DESCRIPTION")
+                        .isActive(true)
+                        .createdAfter(yesterday)
+                        .attendingMin(2)
+                        .hostId(newUser.getId())
+                        .build(),
+                0, 10, "created", SortDirection.Descending));
+    }
+
+    @Test(expected = ResponseStatusException.class)
+    public void search_with_exception_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        eventService.search(EventSearchCriteria.builder()
+                        .header("header")
+                        .capacityMin(11)
+                        .build(),
+                0, 10, "id", SortDirection.Ascending);
+    }
+
+    @Test
+    public void find_all_by_created_before_and_after_keyset_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        val tomorrow = new Date(Instant.now().plus(1, ChronoUnit.DAYS).toEpochMilli());
+        val yesterday = new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli());
+        val pageQuery = PageQuery.builder()
+                .size(1)
+                .sortBy("created")
+                .sortDirection(SortDirection.Ascending)
+                .after("");
+
+        val first = eventService.findAllByCreatedBeforeAndCreatedAfter(tomorrow, yesterday, pageQuery.build());
+
+        assertEquals(1, first.getContent().size());
+        assertNull(first.getTotalElements());
+        assertNotNull(first.getNextCursor());
+
+        val second = eventService.findAllByCreatedBeforeAndCreatedAfter
+                (tomorrow, yesterday, pageQuery.after(first.getNextCursor()).build());
+
+        assertEquals(1, second.getContent().size());
+        assertNull(second.getNextCursor());
+        assertEquals(newEvent1.getId(), first.getContent().iterator().next().getId());
+        assertEquals(newEvent2.getId(), second.getContent().iterator().next().getId());
+    }
+
+    @Test(expected = ResponseStatusException.class)
+    public void find_all_keyset_with_unsupported_sort_exception_test() {
+        insertNewUser();
+        insertNewEvent1();
+
+        eventService.search(EventSearchCriteria.builder().build(), PageQuery.builder()
+                .size(10)
+                .sortBy("header")
+                .sortDirection(SortDirection.Ascending)
+                .after("")
+                .build());
+    }
+
+    @Test
+    public void find_all_by_created_before_and_after_without_totals_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        val tomorrow = new Date(Instant.now().plus(1, ChronoUnit.DAYS).toEpochMilli());
+        val yesterday = new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli());
+        val pageQuery = PageQuery.builder()
+                .size(1)
+                .sortBy("id")
+                .sortDirection(SortDirection.Ascending)
+                .withTotals(false);
+
+        val first = eventService.findAllByCreatedBeforeAndCreatedAfter(tomorrow, yesterday, pageQuery.page(0).build());
+        val second = eventService.findAllByCreatedBeforeAndCreatedAfter(tomorrow, yesterday, pageQuery.page(1).build());
+
+        assertNull(first.getTotalElements());
+        assertNull(first.getTotalPages());
+        assertTrue(first.getHasNext());
+        assertFalse(second.getHasNext());
+        assertEquals(newEvent2.getId(), second.getContent().iterator().next().getId());
+    }
+
+    @Test
+    public void find_all_by_created_before_and_after_totals_follow_writes_test() {
+        insertNewUser();
+        insertNewEvent1();
+
+        val tomorrow = new Date(Instant.now().plus(1, ChronoUnit.DAYS).toEpochMilli());
+        val yesterday = new Date(Instant.now().minus(1, ChronoUnit.DAYS).toEpochMilli());
+        val pageQuery = PageQuery.of(0, 1, "id", SortDirection.Ascending);
+
+        assertEquals(1L, eventService.findAllByCreatedBeforeAndCreatedAfter(tomorrow, yesterday, pageQuery)
+                .getTotalElements().longValue());
+
+        insertNewEvent2();
+
+        val result = eventService.findAllByCreatedBeforeAndCreatedAfter(tomorrow, yesterday, pageQuery);
+        assertEquals(2L, result.getTotalElements().longValue());
+        assertTrue(result.getHasNext());
+    }
+
+    @Test(expected = ResponseStatusException.class)
+    public void add_attendee_to_full_event_exception_test() {
+        insertNewUser();
+        insertNewEvent2();
+
+        eventService.addAttendee(newEvent2.getId(), newUser.getId());
+    }
+
+    @Test
+    public void join_event_test() {
+        insertNewUser();
+        insertNewEvent1();
+        insertNewEvent2();
+
+        assertEquals(SeatResult.JOINED, eventService.join(newEvent1.getId(), newUser.getId()));
+        assertEquals(SeatResult.ALREADY_ATTENDING, eventService.join(newEvent1.getId(), newUser.getId()));
+        assertEquals(SeatResult.FULL, eventService.join(newEvent2.getId(), newUser.getId()));
+        assertEquals(3, eventService.findViewById(newEvent1.getId()).getAttending().intValue());
+    }
 }
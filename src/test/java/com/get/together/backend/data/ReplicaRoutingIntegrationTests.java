@@ -0,0 +1,172 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.EmbeddedDatabaseTestBase;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.util.SortDirection;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.val;
+import org.flywaydb.core.Flyway;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.Assert.*;
+
+/**
+ * A second embedded server stands in for a replica that never catches up, so where a read went
+ * shows in what it finds.
+ */
+@TestPropertySource(properties = "get-together.datasource.replica-lag-tolerance=1s")
+public class ReplicaRoutingIntegrationTests extends EmbeddedDatabaseTestBase {
+    private static final int REPLICA_PORT = startServer();
+
+    private final JdbcTemplate primary = jdbcTemplate(url(DATABASE));
+    private final JdbcTemplate replica = jdbcTemplate(url(REPLICA_PORT, DATABASE));
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    static {
+        Flyway.configure()
+                .dataSource(url(REPLICA_PORT, DATABASE), "root", "")
+                .defaultSchema(DATABASE)
+                .load()
+                .migrate();
+    }
+
+    @DynamicPropertySource
+    public static void replicaProperties(DynamicPropertyRegistry dynamicPropertyRegistry) {
+        dynamicPropertyRegistry.add("get-together.datasource.replica-urls", () -> url(REPLICA_PORT, DATABASE));
+    }
+
+    private static JdbcTemplate jdbcTemplate(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "root", ""));
+    }
+
+    private static UserModel user(String userName) {
+        return UserModel.builder()
+                .userName(userName)
+                .mail(userName.concat("@gmail.com"))
+                .firstName("F1")
+                .lastName("L1")
+                .password("P1")
+                .biography("")
+                .build();
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private static final int REPLICATED_USER = 1000;
+    private static final int REPLICATED_EVENT = 2000;
+
+    private void replicate() {
+        replica.update("insert into user (id, user_name, password, first_name, last_name, mail, created) "
+                + "values (?, 'replicated', 'P1', 'F1', 'L1', 'replicated@gmail.com', now())", REPLICATED_USER);
+        replica.update("insert into event (id, header, description, capacity, attending, created, is_active, host_id) "
+                + "values (?, 'replicated', 'replicated', 5, 0, now(), true, ?)", REPLICATED_EVENT, REPLICATED_USER);
+    }
+
+    private int findByUserName(String userName) {
+        return userService.findAllByUserNameContainingIgnoreCase(userName, 0, 10, "id", SortDirection.Ascending)
+                .getNumberOfElements();
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+        replica.update("delete from event");
+        replica.update("delete from user");
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void writes_go_to_the_primary_test() {
+        newRequest();
+        userService.save(user("writer"));
+
+        assertEquals(1, primary.queryForObject("select count(*) from user", Integer.class).intValue());
+        assertEquals(0, replica.queryForObject("select count(*) from user", Integer.class).intValue());
+    }
+
+    @Test
+    public void reads_go_to_the_replica_test() {
+        replica.update("insert into user (user_name, password, first_name, last_name, mail, created) "
+                + "values ('replicated', 'P1', 'F1', 'L1', 'replicated@gmail.com', now())");
+        newRequest();
+        assertEquals(1, findByUserName("replicated"));
+        assertEquals(0, primary.queryForObject("select count(*) from user", Integer.class).intValue());
+    }
+
+    @Test
+    public void reads_after_a_write_in_the_same_request_stay_on_the_primary_test() {
+        newRequest();
+        userService.save(user("pinned"));
+        assertEquals(1, findByUserName("pinned"));
+
+        newRequest();
+        assertEquals(404, assertThrows(ResponseStatusException.class, () -> findByUserName("pinned"))
+                .getRawStatusCode());
+    }
+
+    @Test
+    public void lookups_by_id_go_to_the_replica_test() {
+        replicate();
+        newRequest();
+
+        assertEquals("replicated", userService.findById(REPLICATED_USER).getUserName());
+        assertEquals("replicated", eventService.findById(REPLICATED_EVENT).getHeader());
+        assertEquals(0, primary.queryForObject("select count(*) from user", Integer.class).intValue());
+    }
+
+    @Test
+    public void lookups_by_id_after_a_write_in_the_same_request_stay_on_the_primary_test() {
+        replicate();
+        newRequest();
+        val saved = userService.save(user("pinned"));
+
+        assertEquals("pinned", userService.findById(saved.getId()).getUserName());
+        assertEquals(404, assertThrows(ResponseStatusException.class, () -> userService.findById(REPLICATED_USER))
+                .getRawStatusCode());
+        assertEquals(404, assertThrows(ResponseStatusException.class, () -> eventService.findById(REPLICATED_EVENT))
+                .getRawStatusCode());
+    }
+
+    @Test
+    public void reads_return_to_the_replica_after_the_lag_tolerance_test() throws InterruptedException {
+        newRequest();
+        userService.save(user("lagging"));
+        Thread.sleep(1100);
+
+        assertEquals(404, assertThrows(ResponseStatusException.class, () -> findByUserName("lagging"))
+                .getRawStatusCode());
+    }
+
+    @Test
+    public void every_pool_has_its_own_meters_test() {
+        userService.save(user("metered"));
+        // outside a request nothing is pinned
+        assertThrows(ResponseStatusException.class, () -> findByUserName("metered"));
+
+        for (val pool : new String[]{"write", "replica-1"}) {
+            assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", pool).gauge());
+            assertTrue(meterRegistry.get("hikaricp.connections.acquire").tag("pool", pool).timer().count() > 0);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.ExecutedSqlRecorder;
+import com.get.together.backend.TestBase;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.EventSearchCriteria;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.model.UserSearchCriteria;
+import com.get.together.backend.data.repository.CommentRepository;
+import com.get.together.backend.data.repository.EventRepository;
+import com.get.together.backend.data.repository.EventSearchRepository;
+import com.get.together.backend.data.repository.UserRepository;
+import com.get.together.backend.data.repository.UserSearchRepository;
+import com.get.together.backend.data.util.KeysetCursor;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs every repository query against a seeded database and fails if MySQL plans a full table scan
+ * for any statement it executes. A new repository method needs a case here, and a failing case
+ * usually needs an index in {@code db/migration}.
+ * <p>
+ * The search fragments accept any filter combination; their cases cover the indexed filters.
+ * Substring, capacity and attending filters scan by design.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.data-source-properties.queryInterceptors=" +
+        "com.get.together.backend.ExecutedSqlRecorder")
+public class RepositoryIndexIntegrationTests extends TestBase {
+    private static final int USERS = 1000;
+    private static final int EVENTS = 1000;
+    private static final Instant START = Instant.parse("2023-01-01T00:00:00Z");
+    private static final List<Class<?>> REPOSITORIES = List.of(UserRepository.class, UserSearchRepository.class,
+            EventRepository.class, EventSearchRepository.class, CommentRepository.class);
+    // exports read every user; no user filter is indexable
+    private static final Set<String> SCANS_BY_DESIGN = Set.of("UserSearchRepository.stream");
+    // the driver's own SET and rollback statements are skipped
+    private static final Pattern STATEMENT = Pattern.compile("(select|insert|update|delete) ");
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private int firstUserId;
+    private int firstEventId;
+
+    private static Timestamp created(int i) {
+        return Timestamp.from(START.plus(i, ChronoUnit.MINUTES));
+    }
+
+    @Before
+    public void setup() {
+        eventService.hardDeleteAll();
+        userService.hardDeleteAll();
+
+        jdbcTemplate.batchUpdate("insert into get_together.user (user_name, password, first_name, last_name, " +
+                        "phone_number, biography, mail, created) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, USERS).mapToObj(i -> new Object[]{"user" + i, "P" + i, "F" + i, "L" + i,
+                        String.valueOf(100000 + i), "", "user" + i + "@gmail.com", created(i)}).toList());
+        firstUserId = jdbcTemplate.queryForObject("select min(id) from get_together.user", Integer.class);
+
+        jdbcTemplate.batchUpdate("insert into get_together.event (header, host_id, description, capacity, " +
+                        "attending, created, is_active) values (?, ?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, EVENTS).mapToObj(i -> new Object[]{"header" + i, firstUserId + i % USERS,
+                        "description" + i, 10, 2, created(i), i % 2 == 0}).toList());
+        firstEventId = jdbcTemplate.queryForObject("select min(id) from get_together.event", Integer.class);
+
+        jdbcTemplate.batchUpdate("insert into get_together.user_event (user_id, event_id) values (?, ?)",
+                IntStream.range(0, EVENTS * 2).mapToObj(i -> new Object[]{firstUserId + (i * 7 + i / EVENTS) % USERS,
+                        firstEventId + i % EVENTS}).toList());
+        jdbcTemplate.batchUpdate("insert into get_together.comment (description, created, owner_id, " +
+                        "related_event_id) values (?, ?, ?, ?)",
+                IntStream.range(0, EVENTS * 2).mapToObj(i -> new Object[]{"comment" + i, created(i),
+                        firstUserId + (i * 3) % USERS, firstEventId + i % EVENTS}).toList());
+
+        jdbcTemplate.execute("analyze table get_together.user, get_together.event, " +
+                "get_together.user_event, get_together.comment");
+    }
+
+    @After
+    public void cleanup() {
+        jdbcTemplate.update("delete from get_together.comment");
+        jdbcTemplate.update("delete from get_together.user_event");
+        jdbcTemplate.update("delete from get_together.event");
+        jdbcTemplate.update("delete from get_together.user");
+    }
+
+    @Test
+    public void every_repository_method_has_a_case_test() {
+        val declared = new TreeSet<String>();
+        for (val repository : REPOSITORIES) {
+            Arrays.stream(repository.getDeclaredMethods())
+                    .filter(method -> !method.isSynthetic())
+                    .map(Method::getName)
+                    .forEach(name -> declared.add(repository.getSimpleName() + "." + name));
+        }
+
+        declared.removeAll(cases().keySet());
+        assertEquals("repository methods without an index case", Set.of(), declared);
+    }
+
+    @Test
+    public void no_repository_query_scans_a_whole_table_test() {
+        val scans = new ArrayList<String>();
+        cases().forEach((name, query) -> {
+            ExecutedSqlRecorder.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+
+            val statements = ExecutedSqlRecorder.statements().stream()
+                    .filter(sql -> STATEMENT.matcher(sql).lookingAt())
+                    .toList();
+            assertFalse(name + " executed no statement", statements.isEmpty());
+
+            for (val sql : statements) {
+                // inserts have no access path to check
+                if (sql.startsWith("insert") || SCANS_BY_DESIGN.contains(name)) {
+                    continue;
+                }
+                for (val plan : jdbcTemplate.queryForList("explain " + sql)) {
+                    if ("ALL".equals(plan.get("type"))) {
+                        scans.add(name + ": " + plan.get("table") + " in " + sql);
+                    }
+                }
+            }
+        });
+
+        assertEquals("full table scans", List.of(), scans);
+    }
+
+    private Map<String, Runnable> cases() {
+        val userId = firstUserId + USERS / 2;
+        val eventId = firstEventId + EVENTS / 2;
+        val userIds = List.of(userId, userId + 1, userId + 2);
+        val userNames = List.of("user1", "user2", "user3");
+        val recent = Date.from(START.plus(EVENTS - 10, ChronoUnit.MINUTES));
+        val later = Date.from(START.plus(EVENTS + 10, ChronoUnit.MINUTES));
+        val page = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, KeysetCursor.CREATED));
+        val owner = UserModel.builder().id(userId).build();
+        val event = EventModel.builder().id(eventId).build();
+        val createdRange = EventSearchCriteria.builder().createdAfter(recent).createdBefore(later).build();
+        val activeRange = createdRange.toBuilder().isActive(true).build();
+        val byHost = EventSearchCriteria.builder().hostId(userId).build();
+        val afterCreated = KeysetCursor.of(KeysetCursor.CREATED, recent, eventId);
+        val noFilter = new UserSearchCriteria();
+
+        val cases = new LinkedHashMap<String, Runnable>();
+        cases.put("UserRepository.existsByUserName", () -> userRepository.existsByUserName("user1"));
+        cases.put("UserRepository.existsByPhoneNumber", () -> userRepository.existsByPhoneNumber("100001"));
+        cases.put("UserRepository.existsByMail", () -> userRepository.existsByMail("user1@gmail.com"));
+        cases.put("UserRepository.findByUserName", () -> userRepository.findByUserName("user1"));
+        cases.put("UserRepository.findAllByAttendedEventsId", () -> userRepository.findAllByAttendedEventsId(eventId));
+        cases.put("UserRepository.existsByIdAndAttendedEventsId",
+                () -> userRepository.existsByIdAndAttendedEventsId(userId, eventId));
+        cases.put("UserRepository.findAllByIdIn", () -> userRepository.findAllByIdIn(userIds));
+        cases.put("UserRepository.findAllByUserNameIn", () -> userRepository.findAllByUserNameIn(userNames));
+        cases.put("UserRepository.findAllByIdInOrUserNameIn",
+                () -> userRepository.findAllByIdInOrUserNameIn(userIds, userNames));
+        cases.put("UserRepository.findExistingIds", () -> userRepository.findExistingIds(userIds));
+        cases.put("UserRepository.findExistingUserNames", () -> userRepository.findExistingUserNames(userNames));
+        cases.put("UserRepository.findExistingMails",
+                () -> userRepository.findExistingMails(List.of("user1@gmail.com", "user2@gmail.com")));
+        cases.put("UserRepository.findUserNameOrMailConflicts",
+                () -> userRepository.findUserNameOrMailConflicts("user1", "user2@gmail.com"));
+
+        cases.put("UserSearchRepository.search",
+                () -> userRepository.search(noFilter, PageRequest.of(0, 20, Sort.by(KeysetCursor.ID))));
+        cases.put("UserSearchRepository.searchSlice",
+                () -> userRepository.searchSlice(noFilter, PageRequest.of(1, 20, Sort.by(KeysetCursor.ID))));
+        cases.put("UserSearchRepository.count", () -> userRepository.count(noFilter));
+        cases.put("UserSearchRepository.searchAfter", () -> userRepository.searchAfter(noFilter,
+                KeysetCursor.of(KeysetCursor.CREATED, recent, userId), KeysetCursor.CREATED, Sort.Direction.ASC, 20));
+        cases.put("UserSearchRepository.stream", () -> {
+            try (Stream<UserModel> users = userRepository.stream(noFilter)) {
+                users.limit(20).forEach(user -> { });
+            }
+        });
+
+        cases.put("EventRepository.findAllByIdGreaterThanOrderByIdAsc",
+                () -> eventRepository.findAllByIdGreaterThanOrderByIdAsc(eventId, PageRequest.of(0, 20)));
+        cases.put("EventRepository.findAllByIdIn",
+                () -> eventRepository.findAllByIdIn(List.of(eventId, eventId + 1)));
+        cases.put("EventRepository.takeSeat", () -> eventRepository.takeSeat(eventId, userId));
+        cases.put("EventRepository.releaseSeat", () -> eventRepository.releaseSeat(eventId));
+        cases.put("EventRepository.addSeats", () -> eventRepository.addSeats(eventId, 2));
+        cases.put("EventRepository.lockFreeSeats", () -> eventRepository.lockFreeSeats(eventId));
+        cases.put("EventRepository.findAttendingUserIds",
+                () -> eventRepository.findAttendingUserIds(eventId, userIds));
+        cases.put("EventRepository.insertAttendee", () -> eventRepository.insertAttendee(eventId, userId));
+        cases.put("EventRepository.findAllMatching",
+                () -> eventRepository.findAllMatching("header500", PageRequest.of(0, 20)));
+        cases.put("EventRepository.findAllMatchingAfter",
+                () -> eventRepository.findAllMatchingAfter("header500", 1.0, eventId, PageRequest.of(0, 20)));
+        cases.put("EventRepository.findViewById", () -> eventRepository.findViewById(eventId));
+        cases.put("EventRepository.findViewsByIdIn",
+                () -> eventRepository.findViewsByIdIn(List.of(eventId, eventId + 1)));
+
+        cases.put("EventSearchRepository.search", () -> eventRepository.search(activeRange, page));
+        cases.put("EventSearchRepository.searchSlice", () -> eventRepository.searchSlice(byHost, page));
+        cases.put("EventSearchRepository.count", () -> eventRepository.count(createdRange));
+        cases.put("EventSearchRepository.searchAfter", () -> eventRepository.searchAfter(activeRange,
+                afterCreated, KeysetCursor.CREATED, Sort.Direction.ASC, 20));
+        cases.put("EventSearchRepository.stream", () -> {
+            try (val events = eventRepository.stream(createdRange)) {
+                events.forEach(view -> { });
+            }
+        });
+
+        cases.put("CommentRepository.findAllByOwner", () -> commentRepository.findAllByOwner(owner, page));
+        cases.put("CommentRepository.findAllByRelatedEvent",
+                () -> commentRepository.findAllByRelatedEvent(event, page));
+        cases.put("CommentRepository.findAllByOwnerAndRelatedEvent",
+                () -> commentRepository.findAllByOwnerAndRelatedEvent(owner, event, page));
+        cases.put("CommentRepository.findAllByCreatedBeforeAndCreatedAfter",
+                () -> commentRepository.findAllByCreatedBeforeAndCreatedAfter(later, recent, page));
+        cases.put("CommentRepository.findAllByOwnerAndCreatedBeforeAndCreatedAfter",
+                () -> commentRepository.findAllByOwnerAndCreatedBeforeAndCreatedAfter(owner, later, recent, page));
+        cases.put("CommentRepository.findAllByOwnerAndRelatedEventAndCreatedBeforeAndCreatedAfter",
+                () -> commentRepository.findAllByOwnerAndRelatedEventAndCreatedBeforeAndCreatedAfter
+                        (owner, event, later, recent, page));
+        cases.put("CommentRepository.findFeedByEvent",
+                () -> commentRepository.findFeedByEvent(eventId, PageRequest.of(0, 21)));
+        cases.put("CommentRepository.findFeedByEventAfter",
+                () -> commentRepository.findFeedByEventAfter(eventId, later, eventId, PageRequest.of(0, 21)));
+        cases.put("CommentRepository.findFeedByOwner",
+                () -> commentRepository.findFeedByOwner(userId, PageRequest.of(0, 21)));
+        cases.put("CommentRepository.findFeedByOwnerAfter",
+                () -> commentRepository.findFeedByOwnerAfter(userId, later, eventId, PageRequest.of(0, 21)));
+        return cases;
+    }
+}
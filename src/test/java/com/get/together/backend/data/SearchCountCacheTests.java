@@ -0,0 +1,64 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.cache.SearchCountCache;
+import lombok.val;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchCountCacheTests {
+    private final SearchCountCache cache = new SearchCountCache(Duration.ofMinutes(1), 100);
+    private final AtomicInteger counted = new AtomicInteger();
+
+    private long count(String namespace, Map<String, Object> filter, long value) {
+        return cache.get(namespace, filter, () -> {
+            counted.incrementAndGet();
+            return value;
+        });
+    }
+
+    @Test
+    public void same_normalized_filter_counts_once_test() {
+        assertEquals(3, count(SearchCountCache.EVENTS, Map.of("header", "Jazz", "ids", List.of(2, 1)), 3));
+        assertEquals(3, count(SearchCountCache.EVENTS, Map.of("ids", List.of(1, 2), "header", "JAZZ"), 4));
+        assertEquals(5, count(SearchCountCache.EVENTS, Map.of("header", "jazz night"), 5));
+
+        assertEquals(2, counted.get());
+    }
+
+    @Test
+    public void invalidate_only_clears_its_namespace_test() {
+        count(SearchCountCache.EVENTS, Map.of("header", "jazz"), 3);
+        count(SearchCountCache.USERS, Map.of("userName", "jazz"), 7);
+
+        cache.invalidate(SearchCountCache.EVENTS);
+
+        assertEquals(4, count(SearchCountCache.EVENTS, Map.of("header", "jazz"), 4));
+        assertEquals(7, count(SearchCountCache.USERS, Map.of("userName", "jazz"), 8));
+        assertEquals(3, counted.get());
+    }
+
+    @Test
+    public void count_overlapping_invalidation_is_not_stored_test() {
+        val result = cache.get(SearchCountCache.EVENTS, Map.of(), () -> {
+            cache.invalidate(SearchCountCache.EVENTS);
+            return 3;
+        });
+
+        assertEquals(3, result);
+        assertEquals(4, count(SearchCountCache.EVENTS, Map.of(), 4));
+    }
+
+    @Test
+    public void zero_ttl_disables_cache_test() {
+        val disabled = new SearchCountCache(Duration.ZERO, 100);
+
+        assertEquals(1, disabled.get(SearchCountCache.EVENTS, Map.of(), () -> 1));
+        assertEquals(2, disabled.get(SearchCountCache.EVENTS, Map.of(), () -> 2));
+    }
+}
@@ -0,0 +1,36 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.cache.SearchCountCache;
+import com.get.together.backend.data.metrics.SearchMetrics;
+import com.get.together.backend.data.util.PageQuery;
+import com.get.together.backend.util.SortDirection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SearchMetricsTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SearchMetrics searchMetrics = new SearchMetrics(meterRegistry);
+
+    @Test
+    public void pages_are_recorded_by_namespace_and_paging_test() {
+        searchMetrics.page(SearchCountCache.EVENTS, PageQuery.of(0, 20, "id", SortDirection.Ascending), 7);
+        searchMetrics.page(SearchCountCache.EVENTS, PageQuery.builder().size(50).sortBy("id")
+                .sortDirection(SortDirection.Ascending).after("").build(), 50);
+
+        val offsetRows = meterRegistry.get("search.rows").tag("namespace", "event").tag("paging", "offset")
+                .summary();
+        assertEquals(1, offsetRows.count());
+        assertEquals(7, offsetRows.totalAmount(), 0);
+        assertEquals(50, meterRegistry.get("search.page.size").tag("paging", "keyset").summary().totalAmount(), 0);
+    }
+
+    @Test
+    public void count_queries_are_timed_test() {
+        assertEquals(42, searchMetrics.count(SearchCountCache.USERS, () -> 42));
+
+        assertEquals(1, meterRegistry.get("search.count").tag("namespace", "user").timer().count());
+    }
+}
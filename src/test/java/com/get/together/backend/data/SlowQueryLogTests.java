@@ -0,0 +1,126 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.profiling.SlowQueryDataSourcePostProcessor;
+import com.get.together.backend.data.profiling.SlowQueryLog;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class SlowQueryLogTests {
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(true, Duration.ZERO, 2, false);
+    private DataSource target;
+    private DataSource dataSource;
+    private PreparedStatement statement;
+
+    @SuppressWarnings("unchecked")
+    private DataSource wrap(SlowQueryLog log) {
+        ObjectProvider<SlowQueryLog> provider = Mockito.mock(ObjectProvider.class);
+        Mockito.when(provider.getObject()).thenReturn(log);
+        return (DataSource) new SlowQueryDataSourcePostProcessor(provider, true)
+                .postProcessAfterInitialization(target, "dataSource");
+    }
+
+    private void selectWithBinds(DataSource dataSource) throws Exception {
+        try (val connection = dataSource.getConnection();
+             val statement = connection.prepareStatement("select *\n  from event where id in (?, ?, ?)")) {
+            statement.setInt(1, 7);
+            statement.setString(2, "a");
+            statement.setNull(3, Types.INTEGER);
+            try (val resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    resultSet.getInt(1);
+                }
+            }
+        }
+    }
+
+    @Before
+    public void setup() throws Exception {
+        target = Mockito.mock(DataSource.class, Mockito.withSettings().extraInterfaces(Closeable.class));
+        val connection = Mockito.mock(Connection.class);
+        statement = Mockito.mock(PreparedStatement.class);
+        val resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(target.getConnection()).thenReturn(connection);
+        Mockito.when(connection.prepareStatement(anyString())).thenReturn(statement);
+        Mockito.when(statement.executeQuery()).thenReturn(resultSet);
+        Mockito.when(statement.executeUpdate()).thenReturn(3);
+        Mockito.when(resultSet.next()).thenReturn(true, true, false);
+        dataSource = wrap(slowQueryLog);
+    }
+
+    @Test
+    public void queries_are_recorded_with_masked_binds_rows_and_caller_test() throws Exception {
+        selectWithBinds(dataSource);
+
+        val recorded = slowQueryLog.slowest();
+        assertEquals(1, recorded.size());
+        val query = recorded.get(0);
+        assertEquals("select * from event where id in (?, ...)", query.getSql());
+        assertEquals(List.of("<Integer>", "<String, 1 chars>", "null"), query.getBinds());
+        assertEquals(Long.valueOf(2), query.getRows());
+        assertEquals("SlowQueryLogTests.selectWithBinds", query.getCaller());
+    }
+
+    @Test
+    public void bind_values_are_recorded_when_enabled_test() throws Exception {
+        val withValues = new SlowQueryLog(true, Duration.ZERO, 2, true);
+        selectWithBinds(wrap(withValues));
+
+        assertEquals(List.of("7", "a", "null"), withValues.slowest().get(0).getBinds());
+    }
+
+    @Test
+    public void only_the_slowest_statements_are_kept_slowest_first_test() throws Exception {
+        val sleeps = List.of(30L, 1L, 20L).iterator();
+        Mockito.when(statement.executeUpdate()).thenAnswer(invocation -> {
+            Thread.sleep(sleeps.next());
+            return 3;
+        });
+        for (int i = 0; i < 3; i++) {
+            try (val connection = dataSource.getConnection();
+                 val statement = connection.prepareStatement("update event set attending = " + i)) {
+                statement.executeUpdate();
+            }
+        }
+
+        val recorded = slowQueryLog.slowest();
+        assertEquals(2, recorded.size());
+        assertEquals("update event set attending = 0", recorded.get(0).getSql());
+        assertEquals("update event set attending = 2", recorded.get(1).getSql());
+        assertEquals(Long.valueOf(3), recorded.get(0).getRows());
+    }
+
+    @Test
+    public void fast_statements_are_not_recorded_test() throws Exception {
+        slowQueryLog.setThreshold(Duration.ofMinutes(1));
+        try (val connection = dataSource.getConnection();
+             val statement = connection.prepareStatement("update event set attending = 0")) {
+            statement.executeUpdate();
+        }
+
+        assertTrue(slowQueryLog.slowest().isEmpty());
+    }
+
+    @Test
+    public void the_pool_is_still_closed_through_the_proxy_test() throws Exception {
+        assertTrue(dataSource instanceof Closeable);
+        ((Closeable) dataSource).close();
+
+        Mockito.verify((Closeable) target).close();
+        assertSame(dataSource, dataSource.unwrap(DataSource.class));
+    }
+}
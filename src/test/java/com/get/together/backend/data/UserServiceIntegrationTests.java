@@ -4,6 +4,7 @@ package com.get.together.backend.data;
 import com.get.together.backend.TestBase;
 import com.get.together.backend.data.model.UserModel;
 import com.get.together.backend.data.util.GenericPagedModel;
+import com.get.together.backend.data.util.PageQuery;
 import com.get.together.backend.util.SortDirection;
 import lombok.val;
 import org.junit.Before;
@@ -123,6 +124,28 @@ public class UserServiceIntegrationTests extends TestBase {
         assertEquals(updated.getId(), newUser.getId());
     }
 
+    @Test
+    public void cached_user_follows_update_test() {
+        insertNewUser();
+        assertEquals("user1", userService.findById(newUser.getId()).getUserName());
+        assertEquals(newUser.getId(), userService.findByUserName("USER1").getId());
+
+        userService.save(UserModel.builder()
+                .id(newUser.getId())
+                .userName("kerim")
+                .firstName(newUser.getFirstName())
+                .lastName(newUser.getLastName())
+                .password(newUser.getPassword())
+                .biography(newUser.getBiography())
+                .phoneNumber(newUser.getPhoneNumber())
+                .mail(newUser.getMail())
+                .build());
+
+        assertEquals("kerim", userService.findById(newUser.getId()).getUserName());
+        assertEquals(newUser.getId(), userService.findByUserName("kerim").getId());
+        assertThrows(ResponseStatusException.class, () -> userService.findByUserName("user1"));
+    }
+
     @Test(expected = ResponseStatusException.class)
     public void update_user_with_exception_test() {
         insertNewUser();
@@ -238,4 +261,24 @@ public class UserServiceIntegrationTests extends TestBase {
         testCollection(userService.findAllByPhoneNumberContaining
                 ("000", 0, 10, "id", SortDirection.Ascending));
     }
+
+    @Test
+    public void find_all_like_user_name_keyset_test() {
+        insertNewUser();
+        insertNewUser2();
+
+        val pageQuery = PageQuery.builder()
+                .size(1)
+                .sortBy("id")
+                .sortDirection(SortDirection.Descending)
+                .after("");
+
+        val first = userService.findAllByUserNameContainingIgnoreCase("user", pageQuery.build());
+        val second = userService.findAllByUserNameContainingIgnoreCase
+                ("user", pageQuery.after(first.getNextCursor()).build());
+
+        assertEquals(newUser2.getId(), first.getContent().iterator().next().getId());
+        assertEquals(newUser.getId(), second.getContent().iterator().next().getId());
+        assertNull(second.getNextCursor());
+    }
 }
@@ -0,0 +1,111 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.index.UserUniquenessIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class UserUniquenessIndexTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String[]> rows = new ArrayList<>();
+    private UserUniquenessIndex index;
+
+    @Before
+    public void setup() throws Exception {
+        val jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        Mockito.when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+                .thenAnswer(invocation -> (long) rows.size());
+        Mockito.doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (val row : rows) {
+                val resultSet = Mockito.mock(ResultSet.class);
+                Mockito.when(resultSet.getString(1)).thenReturn(row[0]);
+                Mockito.when(resultSet.getString(2)).thenReturn(row[1]);
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        rows.add(new String[]{"José", "jose@gmail.com"});
+        rows.add(new String[]{"Straße", "strasse@gmail.com"});
+        index = new UserUniquenessIndex(jdbcTemplate, meterRegistry, true, 1000, 0.01);
+    }
+
+    @Test
+    public void answers_positively_until_built_test() {
+        assertTrue(index.mightContainUserName("anyone"));
+
+        index.build();
+
+        assertFalse(index.mightContainUserName("anyone"));
+    }
+
+    @Test
+    public void collation_equal_values_are_never_ruled_out_test() {
+        index.build();
+
+        assertTrue(index.mightContainUserName("jose"));
+        assertTrue(index.mightContainUserName("JOSÉ"));
+        assertTrue(index.mightContainUserName("strasse"));
+        assertTrue(index.mightContainMail("Jose@Gmail.com"));
+        // not plain ASCII after folding, so the index cannot answer
+        assertTrue(index.mightContainUserName("Иван"));
+        assertFalse(index.mightContainMail("jose@yahoo.com"));
+    }
+
+    @Test
+    public void collation_keys_equal_exactly_for_collation_equal_values_test() {
+        assertEquals(UserUniquenessIndex.collationKey("jose"), UserUniquenessIndex.collationKey("José"));
+        assertEquals(UserUniquenessIndex.collationKey("Strasse"), UserUniquenessIndex.collationKey("STRAßE"));
+        // characters without an ASCII folding still tell values apart
+        assertNotEquals(UserUniquenessIndex.collationKey("日本"), UserUniquenessIndex.collationKey("中国"));
+        assertNotEquals(UserUniquenessIndex.collationKey("jose"), UserUniquenessIndex.collationKey("josé1"));
+    }
+
+    @Test
+    public void saves_and_deletes_update_the_filters_test() {
+        index.build();
+
+        index.put("halil", "halil@gmail.com");
+        assertTrue(index.mightContainUserName("Halil"));
+        assertTrue(index.mightContainMail("halil@gmail.com"));
+
+        index.remove("halil", "halil@gmail.com");
+        assertFalse(index.mightContainUserName("halil"));
+        assertFalse(index.mightContainMail("halil@gmail.com"));
+        assertTrue(index.mightContainUserName("jose"));
+    }
+
+    @Test
+    public void false_positive_rate_stays_near_target_test() {
+        IntStream.range(0, 1000).forEach(i -> rows.add(new String[]{"user" + i, "user" + i + "@gmail.com"}));
+        val report = index.rebuild();
+        assertEquals(1002, report.getUsers());
+
+        val positives = IntStream.range(0, 10_000)
+                .filter(i -> index.mightContainUserName("free" + i))
+                .peek(i -> index.falsePositive())
+                .count();
+
+        assertTrue("false positives: " + positives, positives < 100);
+        assertEquals(positives / 10_000.0,
+                meterRegistry.get("user.uniqueness.index.false.positive.rate").gauge().value(), 1e-9);
+        assertEquals(10_000 - positives,
+                meterRegistry.get("user.uniqueness.index.checks").tag("result", "negative").counter().count(), 0);
+    }
+}
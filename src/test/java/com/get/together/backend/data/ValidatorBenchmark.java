@@ -0,0 +1,103 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.validator.UserValidatorImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.get.together.backend.validation.Constants.*;
+import static com.get.together.backend.validation.helper.StringValidationHelpers.notBlank;
+import static com.get.together.backend.validation.helper.StringValidationHelpers.notValidEmail;
+
+/**
+ * Validating one user and a 1000-user import chunk with one invalid user in ten: the former chain
+ * of checks, which stops at the first failure by throwing, against {@link UserValidatorImpl#RULES},
+ * which reports every failure without an exception. Not part of the surefire
+ * run; execute with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.get.together.backend.data.ValidatorBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidatorBenchmark {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final UserValidatorImpl validator = new UserValidatorImpl();
+    private UserModel user;
+    private List<UserModel> chunk;
+
+    @Setup
+    public void setup() {
+        user = user(0);
+        chunk = IntStream.range(0, CHUNK_SIZE).mapToObj(ValidatorBenchmark::user).toList();
+    }
+
+    @Benchmark
+    public void validate_one_rule_chain() {
+        validatePerCall(user);
+    }
+
+    @Benchmark
+    public void validate_one_compiled() {
+        validator.validate(user);
+    }
+
+    @Benchmark
+    public Map<Integer, String> validate_chunk_rule_chain() {
+        Map<Integer, String> failures = new TreeMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                validatePerCall(chunk.get(i));
+            } catch (final ResponseStatusException e) {
+                failures.put(i, e.getReason());
+            }
+        }
+        return failures;
+    }
+
+    @Benchmark
+    public Map<Integer, String> validate_chunk_compiled() {
+        return UserValidatorImpl.RULES.validateAll(chunk);
+    }
+
+    private static void validatePerCall(UserModel model) {
+        notBlank.test(model.getFirstName()).throwIfInvalid(USER_FIRST_NAME_FIELD_FOR_VALIDATION);
+        notBlank.test(model.getLastName()).throwIfInvalid(USER_LAST_NAME_FIELD_FOR_VALIDATION);
+        notBlank.test(model.getUserName()).throwIfInvalid(USER_USERNAME_FIELD_FOR_VALIDATION);
+        notBlank.test(model.getMail()).throwIfInvalid(USER_MAIL_FIELD_FOR_VALIDATION);
+        notBlank.test(model.getPassword()).throwIfInvalid(USER_PASSWORD_FIELD_FOR_VALIDATION);
+        notValidEmail.test(model.getMail()).throwIfInvalid(USER_MAIL_FIELD_FOR_VALIDATION.concat(":")
+                .concat(model.getMail()));
+    }
+
+    private static UserModel user(int i) {
+        return UserModel.builder()
+                .userName("user" + i)
+                .firstName("First")
+                .lastName("Last")
+                .mail(i % 10 == 9 ? "user" + i : "user" + i + "@gmail.com")
+                .password("password")
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ValidatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
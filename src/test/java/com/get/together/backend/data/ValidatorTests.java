@@ -0,0 +1,81 @@
+package com.get.together.backend.data;
+
+import com.get.together.backend.data.model.CommentModel;
+import com.get.together.backend.data.model.EventModel;
+import com.get.together.backend.data.model.UserModel;
+import com.get.together.backend.data.validator.CommentValidatorImpl;
+import com.get.together.backend.data.validator.EventValidatorImpl;
+import com.get.together.backend.data.validator.UserValidatorImpl;
+import lombok.val;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ValidatorTests {
+    private final UserValidatorImpl userValidator = new UserValidatorImpl();
+    private final EventValidatorImpl eventValidator = new EventValidatorImpl();
+    private final CommentValidatorImpl commentValidator = new CommentValidatorImpl();
+
+    @Test
+    public void valid_models_pass_test() {
+        userValidator.validate(user("halil", "halil@gmail.com"));
+        eventValidator.validate(EventModel.builder().header("Header").capacity(10).build());
+
+        assertNull(userValidator.describe(user("halil", "halil@gmail.com")));
+    }
+
+    @Test
+    public void every_invalid_field_is_reported_test() {
+        val model = UserModel.builder().userName(" ").mail("halil").build();
+
+        val ex = assertThrows(ResponseStatusException.class, () -> userValidator.validate(model));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        assertEquals("User firstName must not be empty.; User lastName must not be empty.; "
+                + "User userName must not be empty.; User mail:halil must be valid.; "
+                + "User password must not be empty.", ex.getReason());
+    }
+
+    @Test
+    public void a_field_reports_its_first_failure_only_test() {
+        assertEquals("User mail must not be empty.",
+                userValidator.describe(user("halil", null)));
+        assertEquals("Event heaeder must not be empty.; Event capacity must not be null.",
+                eventValidator.describe(EventModel.builder().build()));
+        assertEquals("Event capacity must be greater than 1.",
+                eventValidator.describe(EventModel.builder().header("Header").capacity(1).build()));
+    }
+
+    @Test
+    public void comment_description_must_fit_its_column_test() {
+        commentValidator.validate(CommentModel.builder().description("x".repeat(255)).build());
+
+        assertEquals("Comment description must not be empty.",
+                CommentValidatorImpl.RULES.describe(CommentModel.builder().build()));
+        assertEquals("Comment description must have less than 255 chars.",
+                CommentValidatorImpl.RULES.describe(CommentModel.builder().description("x".repeat(256)).build()));
+    }
+
+    @Test
+    public void bulk_validation_reports_invalid_positions_test() {
+        val models = List.of(user("a", "a@gmail.com"), user("b", "b"), user("c", "c@gmail.com"));
+
+        assertEquals(Map.of(1, "User mail:b must be valid."), UserValidatorImpl.RULES.validateAll(models));
+        assertTrue(UserValidatorImpl.RULES.validateAll(List.of(models.get(0))).isEmpty());
+    }
+
+    private static UserModel user(String userName, String mail) {
+        return UserModel.builder()
+                .userName(userName)
+                .firstName("First")
+                .lastName("Last")
+                .mail(mail)
+                .password("password")
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.get.together.backend.util;
+
+import lombok.val;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Decrypting the passwords of a 100-user page: the former per-call cipher lookup against
+ * {@link CryptographyUtil}, one value at a time and in bulk. Not part of the surefire run; execute
+ * with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.get.together.backend.util.CryptographyUtilBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CryptographyUtilBenchmark {
+    private static final String KEY = "bxc0%xbax18x02nxd9Sx8c=gx8b,xa3L";
+    private static final int PAGE_SIZE = 100;
+
+    private final CryptographyUtil cryptographyUtil = new CryptographyUtil();
+    private List<String> page;
+
+    @Setup
+    public void setup() {
+        page = cryptographyUtil.encryptAll(IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> "password-" + i)
+                .toList());
+    }
+
+    @Benchmark
+    public List<String> decrypt_page_per_call_cipher() throws Exception {
+        val result = new ArrayList<String>(page.size());
+        for (val value : page) {
+            val cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES"));
+            result.add(new String(cipher.doFinal(new Base64().decode(value)), StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> decrypt_page_one_by_one() {
+        val result = new ArrayList<String>(page.size());
+        for (val value : page) {
+            result.add(cryptographyUtil.decrypt(value));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> decrypt_page_bulk() {
+        return cryptographyUtil.decryptAll(page);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CryptographyUtilBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.get.together.backend.util;
+
+import lombok.val;
+import org.junit.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CryptographyUtilTests {
+    private final CryptographyUtil cryptographyUtil = new CryptographyUtil();
+
+    @Test
+    public void round_trip_test() {
+        val encrypted = cryptographyUtil.encrypt("pässword");
+
+        assertNotEquals("pässword", encrypted);
+        assertEquals("pässword", cryptographyUtil.decrypt(encrypted));
+    }
+
+    @Test
+    public void reads_values_written_before_the_cipher_was_pooled_test() {
+        // "P" as stored by the per-call implementation
+        assertEquals("P", cryptographyUtil.decrypt("4onZ5uB6j+gFIOdznLGM5g=="));
+        assertEquals("4onZ5uB6j+gFIOdznLGM5g==", cryptographyUtil.encrypt("P"));
+    }
+
+    @Test
+    public void blank_values_map_to_null_test() {
+        assertNull(cryptographyUtil.encrypt(" "));
+        assertNull(cryptographyUtil.decrypt(null));
+        assertEquals(Arrays.asList("a", null), cryptographyUtil.decryptAll
+                (cryptographyUtil.encryptAll(Arrays.asList("a", ""))));
+    }
+
+    @Test
+    public void undecryptable_values_fail_instead_of_passing_through_test() {
+        assertThrows(ResponseStatusException.class, () -> cryptographyUtil.decrypt("P1"));
+        assertThrows(ResponseStatusException.class, () -> cryptographyUtil.decrypt("AAAAAAAAAAAAAAAAAAAAAA=="));
+        assertThrows(ResponseStatusException.class, () -> cryptographyUtil.decryptAll(List.of("P1")));
+
+        // the thread's cipher is still usable afterwards
+        assertEquals("P", cryptographyUtil.decrypt(cryptographyUtil.encrypt("P")));
+    }
+}